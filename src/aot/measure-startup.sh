@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Compares cold-start time of the JVM build with and without the AOT cache.
+# Build first with: ./mvnw -Paot-cache package
+# Usage: src/aot/measure-startup.sh [runs] [command...]   (defaults: 5 runs of "help")
+set -euo pipefail
+
+dir=target/crosslite-r1-eq
+runs=${1:-5}
+shift || true
+command=("${@:-help}")
+java=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+if [ ! -f "$dir/crosslite-r1-eq.aot" ]; then
+    echo "No AOT cache in $dir, build with: ./mvnw -Paot-cache package" >&2
+    exit 1
+fi
+
+average() {
+    local total=0 seconds
+    for ((i = 0; i < runs; i++)); do
+        seconds=$( { TIMEFORMAT=%R; time "$@" >/dev/null 2>&1; } 2>&1 )
+        total=$(awk -v a="$total" -v b="$seconds" 'BEGIN { print a + b }')
+    done
+    awk -v total="$total" -v runs="$runs" 'BEGIN { printf "%.0f ms", total * 1000 / runs }'
+}
+
+# A cache from another JDK build would be ignored silently, and the comparison with it meaningless
+if ! "$java" -XX:AOTMode=on -XX:AOTCache="$dir/crosslite-r1-eq.aot" -jar "$dir/crosslite-r1-eq.jar" \
+        "${command[@]}" >/dev/null 2>&1; then
+    echo "$java cannot use the AOT cache in $dir, build it with the same JDK" >&2
+    exit 1
+fi
+
+echo "Average of $runs run(s) of: ${command[*]}"
+echo "  without AOT cache: $(average "$java" -jar "$dir/crosslite-r1-eq.jar" "${command[@]}")"
+echo "  with AOT cache:    $(average "$java" -XX:AOTCache="$dir/crosslite-r1-eq.aot" -jar "$dir/crosslite-r1-eq.jar" "${command[@]}")"
@@ -0,0 +1,13 @@
+@echo off
+rem Runs the converter from the directory built by the aot-cache Maven profile, using the AOT cache
+rem recorded at build time when it is there. A cache from another JDK build is ignored by the JVM.
+setlocal
+set "DIR=%~dp0"
+set "JAVA=java"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\java"
+if exist "%DIR%crosslite-r1-eq.aot" (
+    "%JAVA%" "-XX:AOTCache=%DIR%crosslite-r1-eq.aot" -jar "%DIR%crosslite-r1-eq.jar" %*
+) else (
+    "%JAVA%" -jar "%DIR%crosslite-r1-eq.jar" %*
+)
+exit /b %ERRORLEVEL%
@@ -1,5 +1,6 @@
 package dev.nathanlively.crosslite_r1_eq;
 
+import dev.nathanlively.crosslite_r1_eq.daemon.DaemonClient;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.shell.command.annotation.CommandScan;
@@ -9,6 +10,9 @@ import org.springframework.shell.command.annotation.CommandScan;
 public class Application {
 
 	public static void main(String[] args) {
+		if (DaemonClient.isClientInvocation(args)) {
+			System.exit(DaemonClient.run(args, System.out, System.err));
+		}
 		SpringApplication.run(Application.class, args);
 	}
 
@@ -1,7 +1,21 @@
 package dev.nathanlively.crosslite_r1_eq;
 
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.jobs.ConversionJob;
+import dev.nathanlively.crosslite_r1_eq.jobs.JobManager;
+import dev.nathanlively.crosslite_r1_eq.progress.ConversionProgress;
+import dev.nathanlively.crosslite_r1_eq.progress.ProgressRenderer;
+import dev.nathanlively.crosslite_r1_eq.report.ConversionReport;
+import dev.nathanlively.crosslite_r1_eq.report.OutputWrites;
+import dev.nathanlively.crosslite_r1_eq.shard.Shard;
+import dev.nathanlively.crosslite_r1_eq.shard.ShardCoordinator;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormats;
+import org.jline.terminal.Terminal;
 import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.CommandHandlingResult;
 import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.ExceptionResolver;
 import org.springframework.shell.command.annotation.Option;
 import org.springframework.shell.component.PathInput;
 import org.springframework.shell.component.PathInput.PathInputContext;
@@ -13,21 +27,36 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Command(group = "Conversion")
 public class ConversionCommands extends AbstractShellComponent {
 
+    private static final int MAX_LISTED_ERRORS = 10;
+    private static final String STANDARD_STREAM = "-";
+
     private final FileConversionService fileConversionService;
+    private final JobManager jobManager;
+    private final OutputFormats outputFormats;
+    private final ShardCoordinator shardCoordinator;
 
-    public ConversionCommands(FileConversionService fileConversionService) {
+    public ConversionCommands(FileConversionService fileConversionService, JobManager jobManager,
+                              OutputFormats outputFormats, ShardCoordinator shardCoordinator) {
         this.fileConversionService = fileConversionService;
+        this.jobManager = jobManager;
+        this.outputFormats = outputFormats;
+        this.shardCoordinator = shardCoordinator;
     }
 
     @Command(command = "convert-file", description = "Convert a single CrossLite file to R1 format")
-    public String convertFile(
-            @Nullable @Option(longNames = "input", shortNames = 'i', description = "Input CrossLite .txt file") String inputPath,
-            @Nullable @Option(longNames = "output", shortNames = 'o', description = "Output R1 .rcp file (optional)") String outputPath) {
+    public @Nullable String convertFile(
+            @Nullable @Option(longNames = "input", shortNames = 'i', description = "Input CrossLite .txt file, or - for standard input") String inputPath,
+            @Nullable @Option(longNames = "output", shortNames = 'o', description = "Output R1 .rcp file (optional), or - for standard output") String outputPath,
+            @Option(longNames = "biquads", description = "Also write the R1 filters' biquad coefficients at 48/96/192 kHz") boolean biquads,
+            @Option(longNames = "formats", shortNames = 'f', defaultValue = "r1", description = "Comma-separated output formats, e.g. r1,json,csv") String formatNames) {
 
         // If no input provided, fall back to interactive mode
         if (inputPath == null) {
@@ -38,27 +67,106 @@ public class ConversionCommands extends AbstractShellComponent {
             }
         }
 
+        if (STANDARD_STREAM.equals(inputPath) || STANDARD_STREAM.equals(outputPath)) {
+            return convertStandardStreams(inputPath, outputPath, biquads, formatNames);
+        }
+
         try {
             Path input = Paths.get(inputPath);
             if (!Files.exists(input)) {
                 return "Error: Input file does not exist: " + inputPath;
             }
 
-            String actualOutputPath = outputPath != null ? outputPath : generateOutputPath(inputPath);
-            fileConversionService.convertFile(inputPath, actualOutputPath);
+            List<OutputFormat> formats = parseFormats(formatNames);
+            String actualOutputPath = outputPath != null ? outputPath : generateOutputPath(inputPath, formats);
+            if (biquads) {
+                if (formats.size() > 1 || !formats.getFirst().name().equals("r1")) {
+                    return "❌ Error: --biquads is only available for the r1 format";
+                }
+                Path coefficients = fileConversionService.convertFileWithBiquads(inputPath, actualOutputPath);
+                return String.format("✅ Successfully converted '%s' to '%s', coefficients in '%s'", inputPath,
+                        actualOutputPath, coefficients);
+            }
+            OutputWrites writes = new OutputWrites();
+            fileConversionService.convertFile(input, Paths.get(actualOutputPath), formats, writes);
 
-            return String.format("✅ Successfully converted '%s' to '%s'", inputPath, actualOutputPath);
-        } catch (IOException e) {
+            if (formats.size() > 1) {
+                return String.format("✅ Successfully converted '%s' to '%s' as %s (%s)", inputPath, actualOutputPath,
+                        formats.stream().map(OutputFormat::name).collect(Collectors.joining(", ")), writes.summary());
+            }
+            return String.format("✅ Successfully converted '%s' to '%s' (%s)", inputPath, actualOutputPath,
+                    writes.summary());
+        } catch (IOException | IllegalArgumentException e) {
             return "❌ Error: " + e.getMessage();
         } catch (Exception e) {
             return "❌ Unexpected error: " + e.getMessage();
         }
     }
 
+    /**
+     * {@code convert-file} with {@code -} for the input, the output or both. When writing to standard output the
+     * converted bytes are the only thing written there: logging already goes to standard error, and so do errors,
+     * while the usual result line is left out. Errors then end the command with exit code 1, so a pipeline sees
+     * the failure.
+     */
+    private @Nullable String convertStandardStreams(String inputPath, @Nullable String outputPath, boolean biquads,
+                                                    String formatNames) {
+        boolean toStdout = outputPath == null || STANDARD_STREAM.equals(outputPath);
+        try {
+            if (biquads) {
+                throw new IllegalArgumentException("--biquads needs an input and output file");
+            }
+            List<OutputFormat> formats = parseFormats(formatNames);
+            boolean fromStdin = STANDARD_STREAM.equals(inputPath);
+            String source = fromStdin ? "<stdin>" : inputPath;
+            if (!fromStdin && !Files.exists(Paths.get(inputPath))) {
+                throw new IllegalArgumentException("Input file does not exist: " + inputPath);
+            }
+            Map<String, CrossLiteSettings> channels = fromStdin
+                    ? fileConversionService.readChannels(System.in)
+                    : fileConversionService.readChannels(Paths.get(inputPath));
+            if (toStdout) {
+                fileConversionService.writeChannels(channels, source, System.out, formats);
+                return null;
+            }
+            int written = fileConversionService.writeChannels(channels, source, Paths.get(outputPath), formats);
+            return String.format("✅ Successfully converted %d channel(s) from standard input to '%s'", written,
+                    outputPath);
+        } catch (IOException | IllegalArgumentException e) {
+            if (toStdout) {
+                System.err.println("❌ Error: " + e.getMessage());
+                throw new StandardStreamFailure(e);
+            }
+            return "❌ Error: " + e.getMessage();
+        }
+    }
+
+    @ExceptionResolver(StandardStreamFailure.class)
+    CommandHandlingResult standardStreamFailure() {
+        // Already reported on standard error; printing it again would land in the converted output
+        return CommandHandlingResult.of(null, 1);
+    }
+
+    /**
+     * A {@code convert-file} to standard output that failed after reporting the error on standard error.
+     */
+    static final class StandardStreamFailure extends RuntimeException {
+        StandardStreamFailure(Exception cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
     @Command(command = "convert-directory", description = "Convert all .txt files in a directory to R1 format")
     public String convertDirectory(
             @Nullable @Option(longNames = "input", shortNames = 'i', description = "Input directory containing .txt files") String inputDir,
-            @Nullable @Option(longNames = "output", shortNames = 'o', description = "Output directory (optional, defaults to input directory)") String outputDir) {
+            @Nullable @Option(longNames = "output", shortNames = 'o', description = "Output directory (optional, defaults to input directory)") String outputDir,
+            @Option(longNames = "resume", description = "Skip files an interrupted run already converted") boolean resume,
+            @Option(longNames = "verify", description = "With --resume, compare the content of converted outputs, not just their size") boolean verify,
+            @Option(longNames = "keep-going", description = "Report malformed files and channels instead of stopping") boolean keepGoing,
+            @Option(longNames = "background", description = "Run as a background job (see jobs, wait, cancel)") boolean background,
+            @Option(longNames = "formats", shortNames = 'f', defaultValue = "r1", description = "Comma-separated output formats, e.g. r1,json,csv") String formatNames,
+            @Nullable @Option(longNames = "shard", description = "Convert only part i of N of the input, e.g. 1/4 (one per host or process)") String shardSpec,
+            @Option(longNames = "workers", defaultValue = "0", description = "Split the input across this many worker processes and merge their results") int workers) {
 
         // If no input provided, fall back to interactive mode
         if (inputDir == null) {
@@ -76,10 +184,46 @@ public class ConversionCommands extends AbstractShellComponent {
             }
 
             String actualOutputDir = outputDir != null ? outputDir : inputDir;
-            fileConversionService.convertDirectory(inputDir, actualOutputDir);
+            List<OutputFormat> formats = parseFormats(formatNames);
+            Shard shard = shardSpec != null ? Shard.parse(shardSpec) : Shard.all();
+            if (workers > 0) {
+                if (shardSpec != null || background) {
+                    return "❌ Error: --workers cannot be combined with --shard or --background";
+                }
+                ConversionReport report = shardCoordinator.run(inputPath, Paths.get(actualOutputDir), workers,
+                        formats, new DirectoryOptions(resume, keepGoing, Shard.all(), verify));
+                if (report.hasErrors()) {
+                    return String.format("⚠️ Converted '%s' to '%s' with %d workers, with errors (details in %s):\n%s",
+                            inputDir, actualOutputDir, workers, ConversionReport.ERRORS_FILE_NAME,
+                            report.summary(MAX_LISTED_ERRORS));
+                }
+                return String.format("✅ Successfully converted all .txt files from '%s' to '%s' with %d workers: %s",
+                        inputDir, actualOutputDir, workers, report.summary(0));
+            }
+            if (background) {
+                ConversionJob job = jobManager.submitDirectory(inputDir, actualOutputDir, formats,
+                        new DirectoryOptions(resume, keepGoing, shard, verify));
+                return String.format("🕒 Started job #%d converting '%s' to '%s' (check with: job-status -j %d)",
+                        job.id(), inputDir, actualOutputDir, job.id());
+            }
+            ConversionReport report = convertDirectoryWithProgress(inputDir, actualOutputDir, formats,
+                    new DirectoryOptions(resume, keepGoing, shard, verify));
 
-            return String.format("✅ Successfully converted all .txt files from '%s' to '%s'", inputDir, actualOutputDir);
-        } catch (IOException e) {
+            if (report.hasErrors()) {
+                return String.format("⚠️ Converted '%s' to '%s' with errors (details in %s):\n%s", inputDir,
+                        actualOutputDir, shard.fileName(ConversionReport.ERRORS_FILE_NAME),
+                        report.summary(MAX_LISTED_ERRORS));
+            }
+            if (!shard.isAll()) {
+                return String.format("✅ Successfully converted shard %s of the .txt files from '%s' to '%s' (%s)",
+                        shard, inputDir, actualOutputDir, report.writes().summary());
+            }
+            return String.format("✅ Successfully converted all .txt files from '%s' to '%s' (%s)", inputDir,
+                    actualOutputDir, report.writes().summary());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "❌ Error: interrupted while waiting for workers";
+        } catch (IOException | IllegalArgumentException e) {
             return "❌ Error: " + e.getMessage();
         } catch (Exception e) {
             return "❌ Unexpected error: " + e.getMessage();
@@ -263,7 +407,8 @@ public class ConversionCommands extends AbstractShellComponent {
 
         // Perform conversion
         try {
-            fileConversionService.convertDirectory(inputDir.toString(), outputDir);
+            convertDirectoryWithProgress(inputDir.toString(), outputDir, List.of(outputFormats.get("r1")),
+                    DirectoryOptions.defaults());
             return String.format("✅ Successfully converted %d file(s) from:\n  %s\nto:\n  %s",
                     txtFileCount, inputDir, outputDir);
         } catch (IOException e) {
@@ -285,8 +430,9 @@ public class ConversionCommands extends AbstractShellComponent {
 
                 Direct Usage (Windows-friendly):
                 ---------------------------------
-                convert-file -i "filename.txt" [-o "output.rcp"]
-                convert-directory -i "." [-o "output_dir"]
+                convert-file -i "filename.txt" [-o "output.rcp"] [--biquads] [-f r1,json,csv]
+                convert-file -i - -o -        - Read standard input, write standard output (tar if multi-channel)
+                convert-directory -i "." [-o "output_dir"] [--resume] [--keep-going] [--background] [-f r1,json,csv]
 
                 Interactive Commands (Mac/Linux):
                 ---------------------------------
@@ -313,6 +459,42 @@ public class ConversionCommands extends AbstractShellComponent {
                 - Output files named after channel names
                 - Channels without EQ bands are skipped
 
+                Batch Conversion:
+                -----------------
+                convert-batch -m "jobs.csv" [-r "results.json"] [--io-threads 4] [--cpu-threads 0]
+                  Manifest rows: input,output,options (e.g. format=r1); JSON arrays also accepted
+
+                Background Jobs:
+                ----------------
+                convert-directory -i "." -o "output_dir" --background
+                jobs | job-status -j 1 | wait -j 1 [--timeout 0] | cancel -j 1
+
+                Sharded Conversion (several processes or hosts):
+                ------------------------------------------------
+                convert-directory -i "archive" -o "converted" --workers 4
+                convert-directory -i "archive" -o "converted" --shard 2/4   (one per host)
+
+                Analysis:
+                ---------
+                export-bands -i "archive" [-o "bands.xlb"] [--csv] [--shards 0]
+                search -d "archive" --min-freq 200 --max-freq 400 --max-gain -4 --min-q 3 [--limit 50]
+                store-build -d "archive" [-o "bands.store"] | store-search -s "bands.store" --max-gain -4 [--limit 50]
+                similar -i "new_venue.txt" [-c "ml"] -d "archive" [-k 10] [--threads 0]
+                diff -l "tuning_v1" -r "tuning_v2" [-o "changes.txt"] [--tolerance 0.333]
+                merge -i "left.txt,right.txt" [-c "ml,mr"] [-o "merged.rcp"]
+
+                Daemon Mode (fast repeated calls from scripts):
+                -----------------------------------------------
+                daemon [--socket path] [--idle-timeout 600]
+                client convert-file -i "filename.txt" [-o "output.rcp"] [-f r1,json,csv]
+                client convert-directory -i "." [-o "output_dir"] [--resume] [--keep-going] [--workers 4]
+
+                Benchmarking:
+                -------------
+                generate-corpus -o "corpus" [--files 100] [--channels 8] [--bands 10]
+                benchmark [--files 100] [--layers 1] [--channels 8] [--bands 10] [--size-kb 0]
+                benchmark-parser [--repetitions 50000] [--steps 3]
+
                 Notes:
                 ------
                 • Gain values clamped to R1 limits (-18dB to +12dB)
@@ -322,7 +504,40 @@ public class ConversionCommands extends AbstractShellComponent {
                 """;
     }
 
+    private ConversionReport convertDirectoryWithProgress(String inputDir, String outputDir,
+                                                          List<OutputFormat> formats,
+                                                          DirectoryOptions options) throws IOException {
+        ConversionProgress progress = new ConversionProgress();
+        // Instances created outside the shell, such as the daemon's, have no terminal to draw on
+        Terminal terminal = getApplicationContext() != null ? getTerminal() : null;
+        if (terminal == null) {
+            return fileConversionService.convertDirectory(inputDir, outputDir, formats, progress, options);
+        }
+        boolean interactive = ProgressRenderer.isInteractive(terminal.getType());
+        try (ProgressRenderer ignored = new ProgressRenderer(progress, terminal.writer(), terminal::getWidth,
+                interactive ? ProgressRenderer.DEFAULT_REFRESH : ProgressRenderer.PLAIN_REFRESH, interactive)) {
+            return fileConversionService.convertDirectory(inputDir, outputDir, formats, progress, options);
+        }
+    }
+
+    private List<OutputFormat> parseFormats(String formatNames) {
+        List<OutputFormat> formats = Arrays.stream(formatNames.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .map(outputFormats::get)
+                .toList();
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("No output format given, available: " + outputFormats.names());
+        }
+        return formats;
+    }
+
     private String generateOutputPath(String inputPath) {
         return inputPath.replaceAll("\\.txt$", ".rcp");
     }
+
+    private String generateOutputPath(String inputPath, List<OutputFormat> formats) {
+        return inputPath.replaceAll("\\.txt$", formats.getFirst().extension());
+    }
 }
\ No newline at end of file
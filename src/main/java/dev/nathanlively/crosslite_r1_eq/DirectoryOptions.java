@@ -0,0 +1,30 @@
+package dev.nathanlively.crosslite_r1_eq;
+
+import dev.nathanlively.crosslite_r1_eq.shard.Shard;
+
+/**
+ * How {@link FileConversionService#convertDirectory} treats an existing journal and failing files.
+ *
+ * @param resume    skip inputs the journal of an earlier run lists as done with intact outputs
+ * @param keepGoing record a failing file or channel in the report and continue, instead of stopping the run
+ * @param shard     the part of the input to convert; a sharded run keeps its own journal and error report
+ * @param verify    on resume, check the content of journaled outputs rather than only their presence and size
+ */
+public record DirectoryOptions(
+    boolean resume,
+    boolean keepGoing,
+    Shard shard,
+    boolean verify
+) {
+    public DirectoryOptions(boolean resume, boolean keepGoing, Shard shard) {
+        this(resume, keepGoing, shard, false);
+    }
+
+    public DirectoryOptions(boolean resume, boolean keepGoing) {
+        this(resume, keepGoing, Shard.all());
+    }
+
+    public static DirectoryOptions defaults() {
+        return new DirectoryOptions(false, false);
+    }
+}
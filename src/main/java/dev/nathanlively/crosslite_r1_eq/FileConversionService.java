@@ -2,34 +2,85 @@ package dev.nathanlively.crosslite_r1_eq;
 
 import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
 import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
 import dev.nathanlively.crosslite_r1_eq.domain.R1Settings;
+import dev.nathanlively.crosslite_r1_eq.dsp.BandMismatch;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadCheck;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.io.TarStreamWriter;
+import dev.nathanlively.crosslite_r1_eq.io.TextFiles;
+import dev.nathanlively.crosslite_r1_eq.journal.ConversionJournal;
+import dev.nathanlively.crosslite_r1_eq.journal.OutputDigest;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParseException;
 import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.progress.ConversionProgress;
+import dev.nathanlively.crosslite_r1_eq.progress.SampledLog;
+import dev.nathanlively.crosslite_r1_eq.report.ConversionError;
+import dev.nathanlively.crosslite_r1_eq.report.ConversionReport;
+import dev.nathanlively.crosslite_r1_eq.report.OutputWrites;
+import dev.nathanlively.crosslite_r1_eq.shard.Shard;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormat;
 import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+/**
+ * Reads CrossLite exports and writes converted presets, for single files and whole directories.
+ * <p>
+ * Thread-safe: one instance may convert from any number of threads at once. All collaborators are stateless or
+ * thread-confined per call, and every call keeps its own parse results, journal and report. Concurrent calls
+ * must not write to the same output paths. A {@link ConversionProgress} may be shared by several calls; it then
+ * reports their combined totals.
+ */
 @Service
 public class FileConversionService {
 
+    public static final String BIQUADS_SUFFIX = ".biquads.txt";
+
+    private static final String[] COEFFICIENT_NAMES = {"b0", "b1", "b2", "a1", "a2"};
+    private static final String PART_SUFFIX = ".part";
     private static final Logger log = LoggerFactory.getLogger(FileConversionService.class);
 
+    // Per-file "converted" lines are sampled so large directory runs are not bound by logging
+    private final SampledLog conversionLog = new SampledLog(log, Duration.ofSeconds(1));
+
     private final CrossLiteParser parser;
     private final EqConverter converter;
     private final R1Writer writer;
+    private final BiquadSolver biquadSolver;
+    private final BiquadDesigner biquadDesigner;
 
-    public FileConversionService(CrossLiteParser parser, EqConverter converter, R1Writer writer) {
+    public FileConversionService(CrossLiteParser parser, EqConverter converter, R1Writer writer,
+                                 BiquadSolver biquadSolver, BiquadDesigner biquadDesigner) {
         this.parser = parser;
         this.converter = converter;
         this.writer = writer;
+        this.biquadSolver = biquadSolver;
+        this.biquadDesigner = biquadDesigner;
     }
 
     /**
@@ -38,22 +89,223 @@ public class FileConversionService {
      * For multi-channel files, uses outputPath as directory.
      */
     public void convertFile(String inputPath, String outputPath) throws IOException {
-        String content = Files.readString(Paths.get(inputPath));
-        Map<String, CrossLiteSettings> channels = parser.parseMultiChannel(content);
+        convertFile(Paths.get(inputPath), Paths.get(outputPath));
+    }
+
+    public void convertFile(String inputPath, String outputPath, OutputFormat format) throws IOException {
+        convertFile(Paths.get(inputPath), Paths.get(outputPath), format);
+    }
+
+    public int convertFile(String inputPath, String outputPath, List<OutputFormat> formats) throws IOException {
+        return convertFile(Paths.get(inputPath), Paths.get(outputPath), formats);
+    }
+
+    public Path convertFileWithBiquads(String inputPath, String outputPath) throws IOException {
+        return convertFileWithBiquads(Paths.get(inputPath), Paths.get(outputPath));
+    }
+
+    /**
+     * Convert a file like {@link #convertFile(String, String)}. Input and output may live on any NIO
+     * {@link java.nio.file.FileSystem}, e.g. a zip or in-memory filesystem, and need not share one.
+     */
+    public void convertFile(Path input, Path output) throws IOException {
+        convertFile(input, output, writer.format());
+    }
+
+    public void convertFile(Path input, Path output, OutputFormat format) throws IOException {
+        writeChannels(readChannels(input), input.toString(), output, List.of(format), null, null, null);
+    }
+
+    /**
+     * Convert a file once and write it in every format. Each output takes the format's extension in place of
+     * the extension of {@code output}, e.g. {@code eq.rcp}, {@code eq.json} and {@code eq.csv}; for
+     * multi-channel files each channel gets one file per format.
+     *
+     * @return the number of channels written
+     */
+    public int convertFile(Path input, Path output, List<OutputFormat> formats) throws IOException {
+        return convertFile(input, output, formats, new OutputWrites());
+    }
+
+    /**
+     * Convert a file like {@link #convertFile(Path, Path, List)}, counting in {@code writes} which outputs were
+     * created, updated or left alone because their content had not changed.
+     */
+    public int convertFile(Path input, Path output, List<OutputFormat> formats, OutputWrites writes)
+            throws IOException {
+        return writeChannels(readChannels(input), input.toString(), output, checkFormats(formats), null, writes,
+                null);
+    }
+
+    /**
+     * Convert a file to R1 presets and also write the biquad coefficients of the converted filters at
+     * {@link BiquadDesigner#SAMPLE_RATES}, next to the output as {@code <output>.biquads.txt}.
+     *
+     * @return the coefficient file
+     */
+    public Path convertFileWithBiquads(Path input, Path output) throws IOException {
+        Map<String, CrossLiteSettings> channels = readChannels(input);
+        writeChannels(channels, input.toString(), output, List.of(writer.format()), null, null, null);
+        String name = output.getFileName().toString();
+        String base = name.endsWith(writer.format().extension())
+                ? name.substring(0, name.length() - writer.format().extension().length())
+                : name;
+        Path biquads = output.resolveSibling(base + BIQUADS_SUFFIX);
+        writeBiquads(channels, biquads, BiquadDesigner.SAMPLE_RATES);
+        return biquads;
+    }
+
+    /**
+     * Write the biquad coefficients the R1 would run for each channel, one CrossLite-style
+     * {@code biquadN,} block per filter, for every sample rate. Coefficients for all channels are
+     * designed in one batch per rate.
+     */
+    public void writeBiquads(Map<String, CrossLiteSettings> channels, Path output, List<Double> sampleRates)
+            throws IOException {
+        List<String> names = new ArrayList<>(channels.keySet());
+        List<R1Settings> settings = new ArrayList<>(names.size());
+        for (String name : names) {
+            settings.add(converter.convert(biquadSolver.check(channels.get(name))
+                    .refined()));
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (double sampleRate : sampleRates) {
+            double[] coefficients = biquadDesigner.design(settings, sampleRate);
+            for (int channel = 0; channel < names.size(); channel++) {
+                text.append(names.get(channel)).append('\n')
+                        .append((long) sampleRate).append(" Hz\n");
+                for (int filter = 0; filter < R1Settings.MAX_FILTERS; filter++) {
+                    int base = (channel * R1Settings.MAX_FILTERS + filter) * CrossLiteSettings.BIQUAD_STRIDE;
+                    text.append("biquad").append(filter + 1).append(",\n");
+                    for (int k = 0; k < CrossLiteSettings.BIQUAD_STRIDE; k++) {
+                        text.append(COEFFICIENT_NAMES[k]).append('=')
+                                .append(formatCoefficient(coefficients[base + k])).append(",\n");
+                    }
+                }
+                text.append('\n');
+            }
+        }
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        writeOutput(output, text.toString().getBytes(StandardCharsets.UTF_8), null, null);
+        log.debug("Wrote biquad coefficients for {} channel(s) to {}", names.size(), output);
+    }
+
+    /**
+     * A coefficient with CrossLite's 18 fixed decimals, never in scientific notation.
+     */
+    private static String formatCoefficient(double value) {
+        return String.format(Locale.ROOT, "%.18f", value);
+    }
+
+    /**
+     * Read and parse a CrossLite file into its channels.
+     */
+    public Map<String, CrossLiteSettings> readChannels(String inputPath) throws IOException {
+        return readChannels(Paths.get(inputPath));
+    }
+
+    public Map<String, CrossLiteSettings> readChannels(Path input) throws IOException {
+        return parser.parseMultiChannel(readContent(input));
+    }
+
+    /**
+     * Read and parse a CrossLite export from a stream, e.g. standard input, with the same encoding detection as
+     * {@link #readContent}. The stream is read to its end but not closed.
+     */
+    public Map<String, CrossLiteSettings> readChannels(InputStream input) throws IOException {
+        byte[] bytes = input.readAllBytes();
+        return parser.parseMultiChannel(TextFiles.decode(bytes, bytes.length));
+    }
+
+    /**
+     * Read the raw text of a CrossLite file, detecting UTF-8, UTF-16 and Windows-1252 exports.
+     */
+    public String readContent(Path inputPath) throws IOException {
+        return TextFiles.read(inputPath);
+    }
+
+    /**
+     * Convert already parsed channels, using the same output path rules as {@link #convertFile}.
+     *
+     * @return the number of channels written
+     */
+    public int writeChannels(Map<String, CrossLiteSettings> channels, String inputPath,
+                             String outputPath, OutputFormat format) throws IOException {
+        return writeChannels(channels, inputPath, Paths.get(outputPath), List.of(format), null, null, null);
+    }
+
+    /**
+     * Convert already parsed channels to files in every format, as {@link #convertFile(Path, Path, List)} does.
+     *
+     * @return the number of channels written
+     */
+    public int writeChannels(Map<String, CrossLiteSettings> channels, String inputPath, Path outputPath,
+                             List<OutputFormat> formats) throws IOException {
+        return writeChannels(channels, inputPath, outputPath, checkFormats(formats), null, null, null);
+    }
+
+    /**
+     * Convert already parsed channels onto a stream, e.g. standard output. A single-channel file in one format is
+     * written as is; anything else becomes a tar stream ({@link TarStreamWriter}) with one entry per channel and
+     * format, named as {@link #convertFile} would name the files of a multi-channel conversion. Each entry is
+     * flushed as soon as it is rendered. The stream is not closed.
+     *
+     * @return the number of channels written
+     */
+    public int writeChannels(Map<String, CrossLiteSettings> channels, String inputPath, OutputStream output,
+                             List<OutputFormat> formats) throws IOException {
+        List<OutputFormat> sinks = checkFormats(formats);
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("No EQ bands found in " + inputPath);
+        }
+        if (isSingleChannelOutput(channels) && sinks.size() == 1) {
+            output.write(render(checkBiquads(inputPath, channels.values().iterator().next()), sinks.getFirst()));
+            output.flush();
+            return 1;
+        }
 
+        int converted = 0;
+        TarStreamWriter tar = new TarStreamWriter(output);
+        for (Map.Entry<String, CrossLiteSettings> entry : channels.entrySet()) {
+            CrossLiteSettings settings = checkBiquads(inputPath + ":" + entry.getKey(), entry.getValue());
+            if (settings.eqBands().isEmpty()) {
+                continue;
+            }
+            String channelName = sanitizeFilename(entry.getKey());
+            Map<FilterLimits, List<R1Filter>> filters = new HashMap<>();
+            for (OutputFormat format : sinks) {
+                tar.add(channelName + format.extension(), format.render(filters.computeIfAbsent(format.limits(),
+                        limits -> converter.convertFilters(settings, limits))));
+            }
+            converted++;
+        }
+        // Only a complete conversion ends the archive, so a failure shows up as a truncated one
+        tar.finish();
+        return converted;
+    }
+
+    private int writeChannels(Map<String, CrossLiteSettings> channels, String inputPath, Path outputPath,
+                              List<OutputFormat> formats, @Nullable OutputDigest outputDigest,
+                              @Nullable OutputWrites writes, @Nullable ConversionProgress progress)
+            throws IOException {
         if (channels.isEmpty()) {
             log.warn("No EQ bands found in file: {}", inputPath);
-            return;
+            return 0;
         }
 
         // Check if this should be treated as a single-channel file
         if (isSingleChannelOutput(channels)) {
             // Single channel file - use outputPath as full file path
-            CrossLiteSettings settings = channels.values().iterator().next();
-            convertSingleChannel(settings, outputPath);
+            CrossLiteSettings settings = checkBiquads(inputPath, channels.values().iterator().next());
+            convertSingleChannel(settings, outputPath, formats, outputDigest, writes);
+            return 1;
         } else {
             // Multi-channel file - use outputPath as directory
-            convertMultipleChannels(channels, inputPath, outputPath);
+            return convertMultipleChannels(channels, inputPath, outputPath, formats, outputDigest, writes,
+                    progress);
         }
     }
 
@@ -69,41 +321,44 @@ public class FileConversionService {
         return "default".equals(channelName);
     }
 
-    private void convertSingleChannel(CrossLiteSettings settings, String outputPath) throws IOException {
-        R1Settings r1Settings = converter.convert(settings);
-        String xmlOutput = writer.writeToXml(r1Settings);
-
-        Path output = Paths.get(outputPath);
+    private void convertSingleChannel(CrossLiteSettings settings, Path output,
+                                      List<OutputFormat> formats, @Nullable OutputDigest outputDigest,
+                                      @Nullable OutputWrites writes) throws IOException {
         if (output.getParent() != null) {
             Files.createDirectories(output.getParent());
         }
-        Files.writeString(output, xmlOutput);
-        log.info("Converted single channel to: {}", outputPath);
+        writeFormats(settings, output, formats, outputDigest, writes);
+        conversionLog.info("Converted single channel to: {}", output);
     }
 
-    private void convertMultipleChannels(Map<String, CrossLiteSettings> channels,
-                                         String inputPath, String outputPath) throws IOException {
+    private int convertMultipleChannels(Map<String, CrossLiteSettings> channels, String inputPath,
+                                        Path outputPath, List<OutputFormat> formats,
+                                        @Nullable OutputDigest outputDigest, @Nullable OutputWrites writes,
+                                        @Nullable ConversionProgress progress) throws IOException {
         Path outputDir;
 
         // Determine output directory
-        if (outputPath.endsWith(".rcp")) {
+        if (formats.stream().anyMatch(format -> outputPath.toString().endsWith(format.extension()))) {
             // User provided a file path, use its parent directory
-            outputDir = Paths.get(outputPath).getParent();
+            outputDir = outputPath.getParent();
             if (outputDir == null) {
-                outputDir = Paths.get(".");
+                outputDir = outputPath.getFileSystem().getPath(".");
             }
             log.info("Multiple channels detected, using directory: {}", outputDir);
         } else {
             // Use as directory
-            outputDir = Paths.get(outputPath);
+            outputDir = outputPath;
         }
 
         Files.createDirectories(outputDir);
 
         int converted = 0;
         for (Map.Entry<String, CrossLiteSettings> entry : channels.entrySet()) {
+            if (progress != null) {
+                progress.checkCancelled();
+            }
             String channelName = sanitizeFilename(entry.getKey());
-            CrossLiteSettings settings = entry.getValue();
+            CrossLiteSettings settings = checkBiquads(inputPath + ":" + entry.getKey(), entry.getValue());
 
             // Skip channels with no EQ bands (this should already be filtered by parser)
             if (settings.eqBands().isEmpty()) {
@@ -111,16 +366,127 @@ public class FileConversionService {
                 continue;
             }
 
-            R1Settings r1Settings = converter.convert(settings);
-            String xmlOutput = writer.writeToXml(r1Settings);
-
-            Path channelOutput = outputDir.resolve(channelName + ".rcp");
-            Files.writeString(channelOutput, xmlOutput);
-            log.info("Converted channel '{}' to: {}", entry.getKey(), channelOutput);
+            Path channelOutput = outputDir.resolve(channelName + formats.getFirst().extension());
+            writeFormats(settings, channelOutput, formats, outputDigest, writes);
+            log.debug("Converted channel '{}' to: {}", entry.getKey(), channelOutput);
             converted++;
         }
 
-        log.info("Converted {} channels from {} to directory {}", converted, inputPath, outputDir);
+        conversionLog.info("Converted {} channels from {} to directory {}", converted, inputPath, outputDir);
+        return converted;
+    }
+
+    /**
+     * Write one output file unless it already holds exactly {@code content}, see {@link OutputWrites#write}.
+     */
+    private void writeOutput(Path output, byte[] content, @Nullable OutputDigest outputDigest,
+                             @Nullable OutputWrites writes) throws IOException {
+        OutputWrites.Outcome outcome = OutputWrites.write(output, content);
+        recordOutput(output, content, outcome, outputDigest, writes);
+    }
+
+    private static void recordOutput(Path output, byte[] content, OutputWrites.Outcome outcome,
+                                     @Nullable OutputDigest outputDigest, @Nullable OutputWrites writes) {
+        if (writes != null) {
+            writes.record(outcome);
+        }
+        if (outputDigest != null) {
+            outputDigest.add(output.getFileName().toString(), content);
+        }
+    }
+
+    private byte[] render(CrossLiteSettings settings, OutputFormat format) {
+        return format.render(converter.convertFilters(settings, format.limits()));
+    }
+
+    /**
+     * Render one channel to every format, then write the files. The channel is converted once per distinct
+     * {@link FilterLimits}, so formats sharing R1's limits share a single conversion. Rendering happens on the
+     * calling thread, which keeps each format's per-thread render buffers in use across channels.
+     * <p>
+     * With several formats the changed files are first written next to their targets and only moved into
+     * place once all of them are written, so a failure leaves the previous set of files rather than a mix.
+     */
+    private void writeFormats(CrossLiteSettings settings, Path output, List<OutputFormat> formats,
+                              @Nullable OutputDigest outputDigest, @Nullable OutputWrites writes) throws IOException {
+        Map<FilterLimits, List<R1Filter>> converted = new HashMap<>();
+        Map<Path, byte[]> rendered = new LinkedHashMap<>();
+        for (OutputFormat format : formats) {
+            List<R1Filter> filters = converted.computeIfAbsent(format.limits(),
+                    limits -> converter.convertFilters(settings, limits));
+            rendered.put(withExtension(output, formats, format), format.render(filters));
+        }
+        if (rendered.size() == 1) {
+            writeOutput(output, rendered.values().iterator().next(), outputDigest, writes);
+            return;
+        }
+
+        Map<Path, OutputWrites.Outcome> outcomes = new LinkedHashMap<>();
+        Map<Path, Path> staged = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Path, byte[]> file : rendered.entrySet()) {
+                Path target = file.getKey();
+                OutputWrites.Outcome outcome = OutputWrites.compare(target, file.getValue());
+                if (outcome != OutputWrites.Outcome.UNCHANGED) {
+                    Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+                    Files.write(part, file.getValue());
+                    staged.put(part, target);
+                }
+                outcomes.put(target, outcome);
+            }
+            for (Map.Entry<Path, Path> move : staged.entrySet()) {
+                Files.move(move.getKey(), move.getValue(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            for (Path part : staged.keySet()) {
+                Files.deleteIfExists(part);
+            }
+        }
+        outcomes.forEach((target, outcome) ->
+                recordOutput(target, rendered.get(target), outcome, outputDigest, writes));
+    }
+
+    /**
+     * {@code output} with its extension, if it is one of the formats', replaced by the extension of {@code format}.
+     */
+    private static Path withExtension(Path output, List<OutputFormat> formats, OutputFormat format) {
+        String name = output.getFileName().toString();
+        for (OutputFormat known : formats) {
+            if (name.endsWith(known.extension())) {
+                name = name.substring(0, name.length() - known.extension().length());
+                break;
+            }
+        }
+        return output.resolveSibling(name + format.extension());
+    }
+
+    private static List<OutputFormat> checkFormats(List<OutputFormat> formats) {
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("At least one output format is required");
+        }
+        if (formats.stream().map(OutputFormat::extension).distinct().count() != formats.size()) {
+            throw new IllegalArgumentException("Output formats must have different file extensions");
+        }
+        return List.copyOf(formats);
+    }
+
+    /**
+     * Use exact band values from the biquad blocks where they agree with the header, and flag the rest.
+     */
+    private CrossLiteSettings checkBiquads(String source, CrossLiteSettings settings) {
+        BiquadCheck check = biquadSolver.check(settings);
+        List<BandMismatch> mismatches = check.mismatches();
+        if (!mismatches.isEmpty()) {
+            // One line per channel; the remaining bands are only listed at debug level
+            log.warn("Biquad coefficients disagree with header for {} band(s) in '{}', first {}",
+                    mismatches.size(), source, mismatches.getFirst().describe());
+            if (log.isDebugEnabled()) {
+                for (BandMismatch mismatch : mismatches.subList(1, mismatches.size())) {
+                    log.debug("Biquad coefficients disagree with header in '{}', {}", source, mismatch.describe());
+                }
+            }
+        }
+        return check.refined();
     }
 
     private String sanitizeFilename(String name) {
@@ -128,9 +494,78 @@ public class FileConversionService {
         return name.replaceAll("[<>:\"/\\\\|?*]", "_");
     }
 
-    public void convertDirectory(String inputDir, String outputDir) throws IOException {
-        Path inputPath = Paths.get(inputDir);
-        Path outputPath = Paths.get(outputDir);
+    public ConversionReport convertDirectory(String inputDir, String outputDir) throws IOException {
+        return convertDirectory(inputDir, outputDir, writer.format());
+    }
+
+    /**
+     * Convert a directory like {@link #convertDirectory(String, String)}. Input and output may live on any NIO
+     * {@link java.nio.file.FileSystem}, e.g. a zip or in-memory filesystem, and need not share one.
+     */
+    public ConversionReport convertDirectory(Path inputDir, Path outputDir) throws IOException {
+        return convertDirectory(inputDir, outputDir, List.of(writer.format()), new ConversionProgress(),
+                DirectoryOptions.defaults());
+    }
+
+    public ConversionReport convertDirectory(Path inputDir, Path outputDir, ConversionProgress progress,
+                                             DirectoryOptions options) throws IOException {
+        return convertDirectory(inputDir, outputDir, List.of(writer.format()), progress, options);
+    }
+
+    public ConversionReport convertDirectory(String inputDir, String outputDir, ConversionProgress progress,
+                                             DirectoryOptions options) throws IOException {
+        return convertDirectory(inputDir, outputDir, writer.format(), progress, options);
+    }
+
+    public ConversionReport convertDirectory(String inputDir, String outputDir, OutputFormat format)
+            throws IOException {
+        return convertDirectory(inputDir, outputDir, format, new ConversionProgress(), DirectoryOptions.defaults());
+    }
+
+    /**
+     * Convert a directory, recording each finished file in {@code progress}.
+     * <p>
+     * Each finished input is recorded in a {@link ConversionJournal} inside the output directory, which is removed
+     * once a run finishes without errors, so a run that stops early leaves it behind. With
+     * {@link DirectoryOptions#resume()} that journal is kept and inputs it lists are skipped if their size and
+     * modification time are unchanged and their outputs are all there with the recorded total size; without, it
+     * is started afresh. Checking outputs reads no file content unless {@link DirectoryOptions#verify()} asks to
+     * compare them with the recorded {@link OutputDigest}.
+     * With {@link DirectoryOptions#keepGoing()}, a file that cannot be read, parsed or written is recorded in the
+     * returned report and the run continues; a malformed channel only drops that channel, and a file missing
+     * channels is not journaled, so a resume tries it again. The report is also
+     * written to {@value ConversionReport#ERRORS_FILE_NAME} in the output directory.
+     * <p>
+     * With a {@link DirectoryOptions#shard()}, only that shard's inputs are converted, and the journal and
+     * error report get per-shard names (see {@link Shard#fileName}). A sharded run always writes its report, so
+     * a {@link dev.nathanlively.crosslite_r1_eq.shard.ShardCoordinator} can tell a finished shard from a failed one.
+     * <p>
+     * {@link ConversionProgress#cancel()} stops the run before the next file or channel with a
+     * {@link java.util.concurrent.CancellationException}; with a journal, files finished so far stay in it for a resume.
+     */
+    public ConversionReport convertDirectory(String inputDir, String outputDir, OutputFormat format,
+                                             ConversionProgress progress, DirectoryOptions options)
+            throws IOException {
+        return convertDirectory(inputDir, outputDir, List.of(format), progress, options);
+    }
+
+    /**
+     * Convert a directory as {@link #convertDirectory(String, String, OutputFormat, ConversionProgress,
+     * DirectoryOptions)} does, parsing each file once and writing it in every format. The journal checksum covers
+     * all formats' outputs.
+     */
+    public ConversionReport convertDirectory(String inputDir, String outputDir, List<OutputFormat> formats,
+                                             ConversionProgress progress, DirectoryOptions options)
+            throws IOException {
+        return convertDirectory(Paths.get(inputDir), Paths.get(outputDir), formats, progress, options);
+    }
+
+    public ConversionReport convertDirectory(Path inputPath, Path outputPath, List<OutputFormat> formats,
+                                             ConversionProgress progress, DirectoryOptions options)
+            throws IOException {
+        List<OutputFormat> sinks = checkFormats(formats);
+        String inputDir = inputPath.toString();
+        String outputDir = outputPath.toString();
 
         if (!Files.exists(inputPath) || !Files.isDirectory(inputPath)) {
             throw new IllegalArgumentException("Input directory does not exist: " + inputDir);
@@ -138,31 +573,174 @@ public class FileConversionService {
 
         Files.createDirectories(outputPath);
 
+        Shard shard = options.shard();
+        String separator = inputPath.getFileSystem().getSeparator();
+        List<Path> txtFiles;
         try (Stream<Path> files = Files.walk(inputPath)) {
-            List<Path> txtFiles = files
+            txtFiles = files
                     .filter(Files::isRegularFile)
                     .filter(path -> path.toString().toLowerCase().endsWith(".txt"))
+                    .filter(path -> shard.contains(inputPath.relativize(path).toString().replace(separator, "/")))
                     .toList();
+        }
 
+        ConversionReport report = new ConversionReport();
+        Path journalFile = outputPath.resolve(shard.fileName(ConversionJournal.FILE_NAME));
+        try (ConversionJournal journal = ConversionJournal.open(journalFile, options.resume())) {
+            List<Path> pending = new ArrayList<>(txtFiles.size());
+            List<Long> sizes = new ArrayList<>(txtFiles.size());
+            List<Long> modified = new ArrayList<>(txtFiles.size());
+            long totalBytes = 0;
             for (Path txtFile : txtFiles) {
+                long size = Files.size(txtFile);
+                long lastModified = Files.getLastModifiedTime(txtFile).toMillis();
+                if (options.resume() && isConverted(journal, inputPath, txtFile, size, lastModified, outputPath,
+                        sinks, options.verify())) {
+                    continue;
+                }
+                pending.add(txtFile);
+                sizes.add(size);
+                modified.add(lastModified);
+                totalBytes += size;
+            }
+            report.filesSkipped(txtFiles.size() - pending.size());
+            if (options.resume()) {
+                log.info("Resuming: {} of {} file(s) already converted", report.skippedFiles(), txtFiles.size());
+            }
+            progress.start(pending.size(), totalBytes);
+
+            for (int i = 0; i < pending.size(); i++) {
+                progress.checkCancelled();
+                Path txtFile = pending.get(i);
                 String relativePath = inputPath.relativize(txtFile).toString();
-                String baseName = relativePath.replaceAll("\\.txt$", "");
-
-                // First check if it's a multi-channel file
-                String content = Files.readString(txtFile);
-                Map<String, CrossLiteSettings> channels = parser.parseMultiChannel(content);
-
-                if (isSingleChannelOutput(channels)) {
-                    // Single channel - output directly to the output directory
-                    String outputFileName = baseName + ".rcp";
-                    Path outputFile = outputPath.resolve(outputFileName);
-                    convertFile(txtFile.toString(), outputFile.toString());
-                } else {
-                    // Multi-channel - create subdirectory
-                    Path fileOutputDir = outputPath.resolve(baseName);
-                    convertFile(txtFile.toString(), fileOutputDir.toString());
+                try {
+                    OutputDigest outputDigest = new OutputDigest();
+                    List<CrossLiteParseException> droppedChannels = new ArrayList<>();
+                    int written = convertDirectoryEntry(txtFile, relativePath, outputPath, sinks, options,
+                            report, outputDigest, droppedChannels, progress);
+                    // A file missing channels is not done: leave it out so a resume converts it again
+                    if (droppedChannels.isEmpty()) {
+                        journal.record(relativePath, sizes.get(i), modified.get(i), outputDigest.bytes(),
+                                outputDigest.value());
+                    }
+                    report.fileConverted(written);
+                    progress.fileCompleted(sizes.get(i), written);
+                } catch (IOException | IllegalArgumentException e) {
+                    if (!options.keepGoing()) {
+                        throw e;
+                    }
+                    ConversionError error = ConversionError.of(relativePath, e);
+                    log.warn("Skipping {}", error.describe());
+                    report.fileFailed(error);
+                    progress.fileFailed(sizes.get(i));
+                }
+            }
+        }
+        if (shard.isAll() && !report.hasErrors()) {
+            // Nothing left to resume; a sharded journal is left for the coordinator to merge and remove
+            Files.deleteIfExists(journalFile);
+        }
+
+        if (options.keepGoing() || !shard.isAll()) {
+            OutputWrites.write(outputPath.resolve(shard.fileName(ConversionReport.ERRORS_FILE_NAME)),
+                    report.toJson().getBytes(StandardCharsets.UTF_8));
+        }
+        log.info("Converted {} file(s), {} channel(s) from {} to {} in {} ms, {} failed{}", report.convertedFiles(),
+                report.convertedChannels(), inputDir, outputDir, progress.snapshot().elapsedNanos() / 1_000_000,
+                report.failedFiles(), shard.isAll() ? "" : " (shard " + shard + ")");
+        return report;
+    }
+
+    /**
+     * Whether the journal lists {@code txtFile} as converted from an unchanged input, and the outputs it wrote
+     * are all still there with the recorded total size. Outputs are found without parsing the input: the
+     * single-channel files next to its base name, or the files of every format in its per-channel directory.
+     * Only their metadata is read, unless {@code verify} also compares their content with the journal.
+     */
+    private static boolean isConverted(ConversionJournal journal, Path inputPath, Path txtFile, long size,
+                                       long lastModified, Path outputPath, List<OutputFormat> formats,
+                                       boolean verify) throws IOException {
+        String relativePath = inputPath.relativize(txtFile).toString();
+        ConversionJournal.Entry entry = journal.entry(relativePath);
+        if (entry == null || !journal.isCompleted(relativePath, size, lastModified)) {
+            return false;
+        }
+        Path base = outputBase(outputPath, relativePath, txtFile.getFileSystem().getSeparator());
+        List<Path> outputs = new ArrayList<>();
+        long outputBytes = 0;
+        if (Files.isDirectory(base)) {
+            try (Stream<Path> files = Files.list(base)) {
+                files.filter(Files::isRegularFile)
+                        .filter(file -> formats.stream()
+                                .anyMatch(format -> file.getFileName().toString().endsWith(format.extension())))
+                        .forEach(outputs::add);
+            }
+            for (Path file : outputs) {
+                outputBytes += Files.size(file);
+            }
+        } else {
+            for (OutputFormat format : formats) {
+                Path file = base.resolveSibling(base.getFileName() + format.extension());
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    return false;
                 }
+                outputs.add(file);
+                outputBytes += attributes.size();
             }
         }
+        if (outputs.isEmpty() || outputBytes != entry.outputBytes()) {
+            return false;
+        }
+        return !verify || OutputDigest.of(outputs) == entry.outputHash();
+    }
+
+    /**
+     * The output path of an input without its extension, resolved name by name: input and output may be on
+     * filesystems with different separators.
+     */
+    private static Path outputBase(Path outputPath, String relativePath, String separator) {
+        Path base = outputPath;
+        for (String name : relativePath.replaceAll("\\.txt$", "").split(Pattern.quote(separator))) {
+            base = base.resolve(name);
+        }
+        return base;
+    }
+
+    private int convertDirectoryEntry(Path txtFile, String relativePath, Path outputPath,
+                                      List<OutputFormat> formats,
+                                      DirectoryOptions options, ConversionReport report,
+                                      OutputDigest outputDigest, List<CrossLiteParseException> droppedChannels,
+                                      ConversionProgress progress) throws IOException {
+        Path base = outputBase(outputPath, relativePath, txtFile.getFileSystem().getSeparator());
+
+        // Parse once, then decide between a single file and a per-channel subdirectory
+        Map<String, CrossLiteSettings> channels;
+        if (options.keepGoing()) {
+            channels = parser.parseMultiChannel(readContent(txtFile), droppedChannels);
+            if (channels.isEmpty() && !droppedChannels.isEmpty()) {
+                // Nothing usable in the file, so report it as a failed file rather than failed channels
+                throw droppedChannels.getFirst();
+            }
+            for (CrossLiteParseException problem : droppedChannels) {
+                report.channelFailed(ConversionError.of(relativePath, problem));
+            }
+        } else {
+            channels = readChannels(txtFile);
+        }
+
+        progress.checkCancelled();
+        if (isSingleChannelOutput(channels)) {
+            // Single channel - output directly to the output directory
+            Path outputFile = base.resolveSibling(base.getFileName() + formats.getFirst().extension());
+            return writeChannels(channels, txtFile.toString(), outputFile, formats, outputDigest,
+                    report.writes(), progress);
+        } else {
+            // Multi-channel - create subdirectory
+            return writeChannels(channels, txtFile.toString(), base, formats, outputDigest,
+                    report.writes(), progress);
+        }
     }
-}
\ No newline at end of file
+}
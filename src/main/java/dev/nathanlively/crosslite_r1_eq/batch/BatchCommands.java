@@ -0,0 +1,50 @@
+package dev.nathanlively.crosslite_r1_eq.batch;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+@Command(group = "Batch")
+public class BatchCommands {
+
+    private final BatchRunner runner;
+
+    public BatchCommands(BatchRunner runner) {
+        this.runner = runner;
+    }
+
+    @Command(command = "convert-batch", description = "Convert the files listed in a CSV or JSON manifest")
+    public String convertBatch(
+            @Option(longNames = "manifest", shortNames = 'm', required = true, description = "Manifest file (.csv or .json)") String manifestPath,
+            @Nullable @Option(longNames = "results", shortNames = 'r', description = "Result file (optional, defaults to <manifest>.results.json)") String resultsPath,
+            @Option(longNames = "io-threads", defaultValue = "4", description = "Maximum concurrent reads and writes") int ioThreads,
+            @Option(longNames = "cpu-threads", defaultValue = "0", description = "Conversion threads (0 = available processors)") int cpuThreads) {
+        try {
+            Path manifest = Paths.get(manifestPath);
+            if (!Files.isRegularFile(manifest)) {
+                return "Error: Manifest does not exist: " + manifestPath;
+            }
+            List<BatchJob> jobs = BatchManifest.read(manifest);
+            int threads = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+            BatchReport report = runner.run(jobs, ioThreads, threads);
+
+            Path results = resultsPath != null ? Paths.get(resultsPath) : Paths.get(manifestPath + ".results.json");
+            Files.writeString(results, report.toJson());
+
+            String status = report.failed() == 0 ? "✅" : "⚠️";
+            return String.format("%s Converted %d of %d job(s) from %d input(s) in %d ms, results in '%s'",
+                    status, report.succeeded(), report.results().size(), report.reads(), report.elapsedMillis(), results);
+        } catch (IllegalArgumentException | IOException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "❌ Batch interrupted";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package dev.nathanlively.crosslite_r1_eq.batch;
+
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * One row of a batch manifest. A missing output defaults to the input path with the format's extension.
+ */
+public record BatchJob(
+    int row,
+    Path input,
+    @Nullable Path output,
+    Map<String, String> options
+) {
+}
@@ -0,0 +1,145 @@
+package dev.nathanlively.crosslite_r1_eq.batch;
+
+import dev.nathanlively.crosslite_r1_eq.io.Json;
+import dev.nathanlively.crosslite_r1_eq.io.TextFiles;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads batch manifests. Relative paths are resolved against the manifest's directory.
+ * <p>
+ * CSV: one {@code input,output,options} row per job; the header row and the last two columns are optional,
+ * and options are {@code key=value} pairs separated by semicolons.
+ * JSON: an array of objects with {@code input}, optional {@code output} and an optional {@code options} object.
+ * The only option is {@code format}; any other key is rejected so that a typo does not silently change nothing.
+ */
+public final class BatchManifest {
+
+    private static final Set<String> OPTIONS = Set.of("format");
+
+    private BatchManifest() {
+    }
+
+    public static List<BatchJob> read(Path manifest) throws IOException {
+        String content = TextFiles.read(manifest);
+        Path baseDir = manifest.toAbsolutePath().getParent();
+        if (manifest.getFileName().toString().toLowerCase().endsWith(".json")) {
+            return parseJson(content, baseDir);
+        }
+        return parseCsv(content, baseDir);
+    }
+
+    static List<BatchJob> parseCsv(String content, Path baseDir) {
+        List<BatchJob> jobs = new ArrayList<>();
+        List<String> lines = content.lines().toList();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line, i + 1);
+            if (i == 0 && fields.getFirst().equalsIgnoreCase("input")) {
+                continue;
+            }
+            String input = fields.get(0);
+            String output = fields.size() > 1 ? fields.get(1) : "";
+            String options = fields.size() > 2 ? fields.get(2) : "";
+            jobs.add(job(i + 1, input, output, parseOptions(options, i + 1, line), baseDir));
+        }
+        return jobs;
+    }
+
+    static List<BatchJob> parseJson(String content, Path baseDir) {
+        if (!(Json.parse(content) instanceof List<?> rows)) {
+            throw new IllegalArgumentException("JSON manifest must be an array of jobs");
+        }
+        List<BatchJob> jobs = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            int row = i + 1;
+            if (!(rows.get(i) instanceof Map<?, ?> object) || !(object.get("input") instanceof String input)) {
+                throw new IllegalArgumentException("Manifest row " + row + " needs an \"input\" string");
+            }
+            String output = object.get("output") instanceof String value ? value : "";
+            Map<String, String> options = new LinkedHashMap<>();
+            if (object.get("options") instanceof Map<?, ?> values) {
+                values.forEach((key, value) -> options.put(String.valueOf(key), String.valueOf(value)));
+            }
+            for (String key : options.keySet()) {
+                requireKnown(key, row, null);
+            }
+            jobs.add(job(row, input, output, options, baseDir));
+        }
+        return jobs;
+    }
+
+    private static BatchJob job(int row, String input, String output, Map<String, String> options, Path baseDir) {
+        if (input.isBlank()) {
+            throw new IllegalArgumentException("Manifest row " + row + " has no input");
+        }
+        Path outputPath = output.isBlank() ? null : baseDir.resolve(output).normalize();
+        return new BatchJob(row, baseDir.resolve(input).normalize(), outputPath, options);
+    }
+
+    private static Map<String, String> parseOptions(String options, int row, String line) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String pair : options.split(";")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Manifest row " + row + " has malformed option '" + pair + "'");
+            }
+            String key = pair.substring(0, equals).strip();
+            requireKnown(key, row, line);
+            result.put(key, pair.substring(equals + 1).strip());
+        }
+        return result;
+    }
+
+    private static void requireKnown(String key, int row, @Nullable String line) {
+        if (!OPTIONS.contains(key)) {
+            throw new IllegalArgumentException("Manifest row " + row + " has unknown option '" + key + "'"
+                                               + (line != null ? " in '" + line + "'" : "")
+                                               + ", expected one of: " + String.join(", ", OPTIONS));
+        }
+    }
+
+    private static List<String> splitCsvLine(String line, int row) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Manifest row " + row + " has an unterminated quote");
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+}
@@ -0,0 +1,50 @@
+package dev.nathanlively.crosslite_r1_eq.batch;
+
+import dev.nathanlively.crosslite_r1_eq.io.Json;
+
+import java.util.List;
+
+/**
+ * Results of a batch run, in manifest order.
+ */
+public record BatchReport(
+    List<BatchResult> results,
+    int reads,
+    long elapsedMillis
+) {
+    public long succeeded() {
+        return results.stream().filter(BatchResult::success).count();
+    }
+
+    public long failed() {
+        return results.size() - succeeded();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"jobs\": ").append(results.size()).append(",\n");
+        json.append("  \"succeeded\": ").append(succeeded()).append(",\n");
+        json.append("  \"failed\": ").append(failed()).append(",\n");
+        json.append("  \"reads\": ").append(reads).append(",\n");
+        json.append("  \"elapsedMillis\": ").append(elapsedMillis).append(",\n");
+        json.append("  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult result = results.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"row\": ").append(result.job().row())
+                    .append(", \"input\": ").append(Json.quote(result.job().input().toString()))
+                    .append(", \"output\": ").append(Json.quote(result.output().toString()))
+                    .append(", \"status\": ").append(result.success() ? "\"ok\"" : "\"failed\"")
+                    .append(", \"channels\": ").append(result.channels())
+                    .append(", \"millis\": ").append(result.millis());
+            if (result.error() != null) {
+                json.append(", \"error\": ").append(Json.quote(result.error()));
+            }
+            json.append('}');
+        }
+        json.append(results.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+}
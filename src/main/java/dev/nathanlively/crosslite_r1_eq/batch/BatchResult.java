@@ -0,0 +1,25 @@
+package dev.nathanlively.crosslite_r1_eq.batch;
+
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a single batch job.
+ */
+public record BatchResult(
+    BatchJob job,
+    Path output,
+    boolean success,
+    int channels,
+    long millis,
+    @Nullable String error
+) {
+    public static BatchResult succeeded(BatchJob job, Path output, int channels, long millis) {
+        return new BatchResult(job, output, true, channels, millis, null);
+    }
+
+    public static BatchResult failed(BatchJob job, Path output, long millis, String error) {
+        return new BatchResult(job, output, false, 0, millis, error);
+    }
+}
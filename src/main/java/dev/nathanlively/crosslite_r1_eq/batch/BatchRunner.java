@@ -0,0 +1,150 @@
+package dev.nathanlively.crosslite_r1_eq.batch;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs manifest jobs concurrently. Jobs that share an input are grouped so each input is read and parsed once.
+ * Parsing and rendering run on a fixed pool of CPU threads, while reads and writes additionally need one of
+ * a fixed number of I/O permits, so a large manifest cannot flood the disk.
+ */
+@Component
+public class BatchRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchRunner.class);
+
+    private final FileConversionService conversionService;
+    private final CrossLiteParser parser;
+    private final OutputFormats formats;
+
+    public BatchRunner(FileConversionService conversionService, CrossLiteParser parser, OutputFormats formats) {
+        this.conversionService = conversionService;
+        this.parser = parser;
+        this.formats = formats;
+    }
+
+    public BatchReport run(List<BatchJob> jobs, int ioThreads, int cpuThreads) throws InterruptedException {
+        if (ioThreads < 1 || cpuThreads < 1) {
+            throw new IllegalArgumentException("Thread budgets must be at least 1");
+        }
+        long start = System.nanoTime();
+        Map<Path, List<Integer>> jobsByInput = new LinkedHashMap<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            jobsByInput.computeIfAbsent(jobs.get(i).input().toAbsolutePath().normalize(), key -> new ArrayList<>())
+                    .add(i);
+        }
+
+        BatchResult[] results = new BatchResult[jobs.size()];
+        Semaphore ioPermits = new Semaphore(ioThreads);
+        AtomicInteger reads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(cpuThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Map.Entry<Path, List<Integer>> group : jobsByInput.entrySet()) {
+                futures.add(executor.submit(() -> runGroup(group.getKey(), group.getValue(), jobs, results,
+                        ioPermits, reads)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // runGroup records failures per job; anything escaping it is a bug worth surfacing
+                    throw new IllegalStateException("Batch worker failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new BatchReport(Arrays.asList(results), reads.get(), elapsedMillis);
+    }
+
+    private void runGroup(Path input, List<Integer> indexes, List<BatchJob> jobs, BatchResult[] results,
+                          Semaphore ioPermits, AtomicInteger reads) {
+        long start = System.nanoTime();
+        Map<String, CrossLiteSettings> channels;
+        try {
+            String content;
+            ioPermits.acquire();
+            try {
+                content = conversionService.readContent(input);
+                reads.incrementAndGet();
+            } finally {
+                ioPermits.release();
+            }
+            channels = parser.parseMultiChannel(content);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            String error = "Could not read " + input + ": " + describe(e);
+            for (int index : indexes) {
+                BatchJob job = jobs.get(index);
+                results[index] = BatchResult.failed(job, outputFor(job, null), elapsed(start), error);
+            }
+            return;
+        }
+
+        for (int index : indexes) {
+            results[index] = runJob(jobs.get(index), channels, ioPermits);
+        }
+    }
+
+    private BatchResult runJob(BatchJob job, Map<String, CrossLiteSettings> channels, Semaphore ioPermits) {
+        long start = System.nanoTime();
+        OutputFormat format = null;
+        try {
+            format = formats.get(job.options().getOrDefault("format", "r1"));
+            Path output = outputFor(job, format);
+            int written;
+            ioPermits.acquire();
+            try {
+                written = conversionService.writeChannels(channels, job.input().toString(), output.toString(), format);
+            } finally {
+                ioPermits.release();
+            }
+            return BatchResult.succeeded(job, output, written, elapsed(start));
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Batch row {} failed: {}", job.row(), describe(e));
+            return BatchResult.failed(job, outputFor(job, format), elapsed(start), describe(e));
+        }
+    }
+
+    private static Path outputFor(BatchJob job, OutputFormat format) {
+        if (job.output() != null) {
+            return job.output();
+        }
+        String extension = format != null ? format.extension() : ".rcp";
+        return Path.of(job.input().toString().replaceAll("\\.txt$", "") + extension);
+    }
+
+    private static long elapsed(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static String describe(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
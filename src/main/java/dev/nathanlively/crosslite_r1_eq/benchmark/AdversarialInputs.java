@@ -0,0 +1,60 @@
+package dev.nathanlively.crosslite_r1_eq.benchmark;
+
+import java.util.function.IntFunction;
+
+/**
+ * Pathological CrossLite exports for checking that parsing stays linear in the input size.
+ * Each shape is built from a repetition count so callers can compare timings as it grows.
+ */
+public enum AdversarialInputs {
+
+    /** Thousands of standalone lines that each look like a channel name followed by an IIR line. */
+    CHANNEL_NAMES(n -> {
+        StringBuilder content = new StringBuilder("IIR Bypassed.Main L\n");
+        for (int i = 0; i < n; i++) {
+            content.append("Channel name ").append(i).append('\n')
+                   .append("IIR Crossover HPF: Bypassed.\n")
+                   .append("Frequency= 1001.0Hz Gain= -6.0dB Qbp= 0.750\n");
+        }
+        return content.toString();
+    }),
+
+    /** Candidate channel names separated by long runs of empty lines before the next IIR line. */
+    EMPTY_LINES(n -> {
+        StringBuilder content = new StringBuilder("IIR Bypassed.Main L\n");
+        for (int i = 0; i < n; i++) {
+            content.append("Name ").append(i).append('\n');
+        }
+        content.append("\n".repeat(n)).append("IIR Crossover HPF: Bypassed.\n");
+        return content.toString();
+    }),
+
+    /** One huge line of repeated EQ band prefixes that never complete, with no newline at all. */
+    HUGE_LINE(n -> "Frequency= 1.".repeat(n) + "Hz Gain="),
+
+    /** A first-channel name of almost-matching "L 1 Ch" metadata fragments that only matches at its very end. */
+    METADATA_NAME(n -> "IIR Bypassed." + "L 1 Ch ".repeat(n) + "1\nFrequency= 1001.0Hz Gain= -6.0dB Qbp= 0.750\n"),
+
+    /** Channel name candidates made of long digit runs that never reach the ")" of a numbered heading. */
+    DIGIT_RUNS(n -> {
+        StringBuilder content = new StringBuilder("IIR Bypassed.Main L\n");
+        String digits = "1".repeat(64);
+        for (int i = 0; i < n; i++) {
+            content.append(digits).append('\n');
+        }
+        return content.toString();
+    });
+
+    private final IntFunction<String> generator;
+
+    AdversarialInputs(IntFunction<String> generator) {
+        this.generator = generator;
+    }
+
+    public String generate(int repetitions) {
+        if (repetitions < 1) {
+            throw new IllegalArgumentException("Repetitions must be at least 1");
+        }
+        return generator.apply(repetitions);
+    }
+}
@@ -0,0 +1,170 @@
+package dev.nathanlively.crosslite_r1_eq.benchmark;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Command(group = "Benchmark")
+public class BenchmarkCommands {
+
+    private final CorpusGenerator generator;
+    private final FileConversionService fileConversionService;
+    private final CrossLiteParser parser;
+
+    public BenchmarkCommands(CorpusGenerator generator, FileConversionService fileConversionService,
+                             CrossLiteParser parser) {
+        this.generator = generator;
+        this.fileConversionService = fileConversionService;
+        this.parser = parser;
+    }
+
+    @Command(command = "generate-corpus", description = "Generate synthetic CrossLite files for load testing")
+    public String generateCorpus(
+            @Option(longNames = "output", shortNames = 'o', required = true, description = "Output directory") String outputDir,
+            @Option(longNames = "files", defaultValue = "100", description = "Number of files") int files,
+            @Option(longNames = "layers", defaultValue = "1", description = "Layers per file") int layers,
+            @Option(longNames = "channels", defaultValue = "8", description = "Channels per layer") int channels,
+            @Option(longNames = "bands", defaultValue = "10", description = "EQ bands per channel") int bands,
+            @Option(longNames = "no-biquads", description = "Omit biquad coefficient blocks") boolean noBiquads,
+            @Option(longNames = "metadata-names", description = "Use metadata-like channel names (L 1 Ch 1)") boolean metadataNames,
+            @Option(longNames = "size-kb", defaultValue = "0", description = "Minimum size per file in KB (adds layers)") long sizeKb,
+            @Option(longNames = "seed", defaultValue = "42", description = "Random seed") long seed) {
+        try {
+            CorpusSpec spec = new CorpusSpec(files, layers, channels, bands, !noBiquads, metadataNames, sizeKb * 1024, seed);
+            CorpusStats stats = generator.generate(spec, Paths.get(outputDir));
+            return String.format(Locale.ROOT, "✅ Generated %d file(s), %d channel(s), %d band(s), %.1f MB in '%s'",
+                    stats.files(), stats.channels(), stats.bands(), megabytes(stats.bytes()), outputDir);
+        } catch (IllegalArgumentException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (IOException e) {
+            return "❌ Error writing corpus: " + e.getMessage();
+        }
+    }
+
+    @Command(command = "benchmark", description = "Run an end-to-end conversion over a generated corpus")
+    public String benchmark(
+            @Nullable @Option(longNames = "dir", description = "Working directory (optional, defaults to a temporary directory)") String dir,
+            @Option(longNames = "files", defaultValue = "100", description = "Number of files") int files,
+            @Option(longNames = "layers", defaultValue = "1", description = "Layers per file") int layers,
+            @Option(longNames = "channels", defaultValue = "8", description = "Channels per layer") int channels,
+            @Option(longNames = "bands", defaultValue = "10", description = "EQ bands per channel") int bands,
+            @Option(longNames = "no-biquads", description = "Omit biquad coefficient blocks") boolean noBiquads,
+            @Option(longNames = "metadata-names", description = "Use metadata-like channel names (L 1 Ch 1)") boolean metadataNames,
+            @Option(longNames = "size-kb", defaultValue = "0", description = "Minimum size per file in KB (adds layers)") long sizeKb,
+            @Option(longNames = "seed", defaultValue = "42", description = "Random seed") long seed) {
+        Path workDir = null;
+        boolean temporary = dir == null;
+        try {
+            CorpusSpec spec = new CorpusSpec(files, layers, channels, bands, !noBiquads, metadataNames, sizeKb * 1024, seed);
+            workDir = temporary ? Files.createTempDirectory("crosslite-benchmark") : Paths.get(dir);
+            Path inputDir = workDir.resolve("input");
+            Path outputDir = workDir.resolve("output");
+
+            CorpusStats corpus = generator.generate(spec, inputDir);
+
+            System.gc();
+            resetPeakHeap();
+            long start = System.nanoTime();
+            fileConversionService.convertDirectory(inputDir.toString(), outputDir.toString());
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            return String.format(Locale.ROOT, """
+                    Benchmark results
+                    =================
+                    Files:         %d (%.1f MB)
+                    Channels:      %d
+                    Bands:         %d
+                    Elapsed:       %.3f s
+                    Files/sec:     %.1f
+                    MB/sec:        %.2f
+                    Channels/sec:  %.1f
+                    Peak heap:     %.1f MB
+                    """,
+                    corpus.files(), megabytes(corpus.bytes()),
+                    corpus.channels(),
+                    corpus.bands(),
+                    seconds,
+                    corpus.files() / seconds,
+                    megabytes(corpus.bytes()) / seconds,
+                    corpus.channels() / seconds,
+                    megabytes(peakHeap()));
+        } catch (IllegalArgumentException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (IOException e) {
+            return "❌ Error during benchmark: " + e.getMessage();
+        } finally {
+            if (temporary && workDir != null) {
+                deleteRecursively(workDir);
+            }
+        }
+    }
+
+    @Command(command = "benchmark-parser", description = "Time the parser on pathological inputs of growing size")
+    public String benchmarkParser(
+            @Option(longNames = "repetitions", defaultValue = "50000", description = "Repetitions in the smallest input") int repetitions,
+            @Option(longNames = "steps", defaultValue = "3", description = "Number of sizes, doubling each step") int steps) {
+        if (repetitions < 1 || steps < 1) {
+            return "❌ Error: Repetitions and steps must be at least 1";
+        }
+        StringBuilder report = new StringBuilder("""
+                Parser benchmark
+                ================
+                """);
+        report.append(String.format(Locale.ROOT, "%-14s %12s %10s %10s%n", "Input", "Size (KB)", "Time (ms)", "ns/byte"));
+        for (AdversarialInputs input : AdversarialInputs.values()) {
+            for (int step = 0; step < steps; step++) {
+                String content = input.generate(repetitions << step);
+                long start = System.nanoTime();
+                parser.parseMultiChannel(content, new ArrayList<>());
+                long nanos = System.nanoTime() - start;
+                report.append(String.format(Locale.ROOT, "%-14s %12d %10.1f %10.2f%n", input.name(),
+                        content.length() / 1024, nanos / 1e6, (double) nanos / content.length()));
+            }
+        }
+        return report.toString();
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static void deleteRecursively(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            // Best effort cleanup of a temporary directory
+        }
+    }
+}
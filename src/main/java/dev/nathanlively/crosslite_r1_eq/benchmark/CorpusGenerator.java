@@ -0,0 +1,138 @@
+package dev.nathanlively.crosslite_r1_eq.benchmark;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates synthetic CrossLite exports that follow the layout of real show files:
+ * layers, "IIR Bypassed." channel headers, parametric EQ sections and biquad blocks.
+ * Output is deterministic for a given seed and file index.
+ */
+@Component
+public class CorpusGenerator {
+
+    private static final String[] CHANNEL_NAMES = {
+            "ml", "c", "mr", "rUs", "rDs", "s", "of", "ffInE4", "ffInE6", "ffOut"
+    };
+
+    private static final double SAMPLE_RATE = 48000.0;
+
+    public CorpusStats generate(CorpusSpec spec, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+
+        long bytes = 0;
+        long channels = 0;
+        long bands = 0;
+        for (int i = 0; i < spec.fileCount(); i++) {
+            GeneratedFile file = generateFile(spec, i);
+            byte[] content = file.content().getBytes(StandardCharsets.UTF_8);
+            Files.write(outputDir.resolve(String.format("show_%05d.txt", i + 1)), content);
+            bytes += content.length;
+            channels += file.channels();
+            bands += file.bands();
+        }
+
+        return new CorpusStats(spec.fileCount(), bytes, channels, bands);
+    }
+
+    public String generateContent(CorpusSpec spec, int fileIndex) {
+        return generateFile(spec, fileIndex).content();
+    }
+
+    private GeneratedFile generateFile(CorpusSpec spec, int fileIndex) {
+        Random random = new Random(spec.seed() * 31 + fileIndex);
+        StringBuilder out = new StringBuilder();
+        int channels = 0;
+        int bands = 0;
+
+        int layer = 1;
+        while (layer <= spec.layers() || out.length() < spec.targetFileBytes()) {
+            out.append("Layer ").append(layer).append('\n');
+            for (int channel = 1; channel <= spec.channelsPerLayer(); channel++) {
+                String name = channelName(spec, layer, channel);
+                if (channel == 1) {
+                    out.append("IIR Bypassed.").append(name).append('\n');
+                } else {
+                    out.append(name).append('\n');
+                }
+                out.append("IIR Crossover HPF: Bypassed.\n\n");
+                out.append("IIR Crossover LPF: Bypassed.\n\n");
+                appendChannel(out, spec, random);
+                channels++;
+                bands += spec.bandsPerChannel();
+            }
+            layer++;
+        }
+
+        return new GeneratedFile(out.toString(), channels, bands);
+    }
+
+    private String channelName(CorpusSpec spec, int layer, int channel) {
+        if (spec.metadataNames()) {
+            return "L " + layer + " Ch " + channel;
+        }
+        int index = (layer - 1) * spec.channelsPerLayer() + channel - 1;
+        String base = CHANNEL_NAMES[index % CHANNEL_NAMES.length];
+        int round = index / CHANNEL_NAMES.length;
+        return round == 0 ? base : base + (round + 1);
+    }
+
+    private void appendChannel(StringBuilder out, CorpusSpec spec, Random random) {
+        int count = spec.bandsPerChannel();
+        double[] frequencies = new double[count];
+        double[] gains = new double[count];
+        double[] qs = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            // Log-uniform frequency, mostly small cuts and boosts like a real system tuning
+            frequencies[i] = round(20.0 * Math.pow(1000.0, random.nextDouble()), 1);
+            gains[i] = round(-9.0 + random.nextDouble() * 12.0, 1);
+            qs[i] = round(0.3 + random.nextDouble() * random.nextDouble() * 9.7, 3);
+
+            int number = i + 1;
+            out.append(number).append(") ").append(number).append("Parametric EQ\n");
+            out.append(String.format(Locale.ROOT, "Frequency= %.1fHz Gain= %.1fdB Qbp= %.3f\n",
+                    frequencies[i], gains[i], qs[i]));
+            out.append("Magnitude Mode Normal, Phase Mode Normal.\n");
+        }
+        out.append('\n');
+
+        if (spec.includeBiquads()) {
+            for (int i = 0; i < count; i++) {
+                appendBiquad(out, i + 1, frequencies[i], gains[i], qs[i]);
+            }
+            out.append('\n');
+        }
+    }
+
+    private void appendBiquad(StringBuilder out, int number, double frequency, double gain, double q) {
+        // Peaking section with CrossLite's Q convention: Q sets the bandwidth of the cut side
+        double a = Math.pow(10.0, gain / 40.0);
+        double w = 2.0 * Math.PI * frequency / SAMPLE_RATE;
+        double alpha = Math.sin(w) / (2.0 * q);
+        double alphaNum = gain >= 0 ? alpha * a * a : alpha;
+        double alphaDen = gain >= 0 ? alpha : alpha / (a * a);
+        double a0 = 1.0 + alphaDen;
+
+        out.append("biquad").append(number).append(",\n");
+        out.append("b0=").append((1.0 + alphaNum) / a0).append(",\n");
+        out.append("b1=").append(-2.0 * Math.cos(w) / a0).append(",\n");
+        out.append("b2=").append((1.0 - alphaNum) / a0).append(",\n");
+        out.append("a1=").append(-2.0 * Math.cos(w) / a0).append(",\n");
+        out.append("a2=").append((1.0 - alphaDen) / a0).append(",\n");
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private record GeneratedFile(String content, int channels, int bands) {
+    }
+}
@@ -0,0 +1,38 @@
+package dev.nathanlively.crosslite_r1_eq.benchmark;
+
+/**
+ * Shape of a synthetic CrossLite corpus.
+ * A positive {@code targetFileBytes} keeps adding layers until each file reaches that size.
+ */
+public record CorpusSpec(
+    int fileCount,
+    int layers,
+    int channelsPerLayer,
+    int bandsPerChannel,
+    boolean includeBiquads,
+    boolean metadataNames,
+    long targetFileBytes,
+    long seed
+) {
+    public CorpusSpec {
+        if (fileCount < 1) {
+            throw new IllegalArgumentException("File count must be at least 1");
+        }
+        if (layers < 1) {
+            throw new IllegalArgumentException("Layer count must be at least 1");
+        }
+        if (channelsPerLayer < 1) {
+            throw new IllegalArgumentException("Channels per layer must be at least 1");
+        }
+        if (bandsPerChannel < 0) {
+            throw new IllegalArgumentException("Bands per channel cannot be negative");
+        }
+        if (targetFileBytes < 0) {
+            throw new IllegalArgumentException("Target file size cannot be negative");
+        }
+    }
+
+    public static CorpusSpec defaults() {
+        return new CorpusSpec(100, 1, 8, 10, true, false, 0, 42);
+    }
+}
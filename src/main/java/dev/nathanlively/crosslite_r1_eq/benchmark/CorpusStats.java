@@ -0,0 +1,12 @@
+package dev.nathanlively.crosslite_r1_eq.benchmark;
+
+/**
+ * Totals for a generated corpus.
+ */
+public record CorpusStats(
+    int files,
+    long bytes,
+    long channels,
+    long bands
+) {
+}
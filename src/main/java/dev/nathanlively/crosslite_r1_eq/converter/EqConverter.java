@@ -2,6 +2,7 @@ package dev.nathanlively.crosslite_r1_eq.converter;
 
 import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
 import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
 import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
 import dev.nathanlively.crosslite_r1_eq.domain.R1Settings;
 import org.springframework.stereotype.Component;
@@ -11,42 +12,36 @@ import java.util.List;
 
 /**
  * Converts CrossLite EQ settings to R1 format with appropriate value clamping.
+ * Thread-safe and stateless; results are new lists of immutable filters.
  */
 @Component
 public class EqConverter {
 
-    // R1 constraints based on example3 analysis
-    private static final double MIN_GAIN = -18.0;
-    private static final double MAX_GAIN = 12.0;
-    private static final double MIN_Q = 0.1;
-    private static final double MAX_Q = 25.0;
-
     public R1Settings convert(CrossLiteSettings crossLiteSettings) {
-        List<R1Filter> filters = new ArrayList<>();
+        return new R1Settings(convertFilters(crossLiteSettings, FilterLimits.R1));
+    }
+
+    /**
+     * Convert to exactly {@code limits.maxFilters()} filters, clamped to the given limits.
+     */
+    public List<R1Filter> convertFilters(CrossLiteSettings crossLiteSettings, FilterLimits limits) {
+        List<R1Filter> filters = new ArrayList<>(limits.maxFilters());
 
         // Convert active EQ bands
-        for (int i = 0; i < crossLiteSettings.eqBands().size() && i < R1Settings.MAX_FILTERS; i++) {
+        for (int i = 0; i < crossLiteSettings.eqBands().size() && i < limits.maxFilters(); i++) {
             EqBand band = crossLiteSettings.eqBands().get(i);
             filters.add(R1Filter.enabled(
                     band.frequency(),
-                    clampQ(band.qFactor()),
-                    clampGain(band.gain())
+                    limits.clampQ(band.qFactor()),
+                    limits.clampGain(band.gain())
             ));
         }
 
         // Fill remaining slots with disabled filters
-        while (filters.size() < R1Settings.MAX_FILTERS) {
+        while (filters.size() < limits.maxFilters()) {
             filters.add(R1Filter.disabled());
         }
 
-        return new R1Settings(filters);
-    }
-
-    private double clampGain(double gain) {
-        return Math.clamp(gain, MIN_GAIN, MAX_GAIN);
-    }
-
-    private double clampQ(double q) {
-        return Math.clamp(q, MIN_Q, MAX_Q);
+        return filters;
     }
-}
\ No newline at end of file
+}
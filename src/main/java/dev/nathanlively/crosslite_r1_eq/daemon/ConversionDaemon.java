@@ -0,0 +1,237 @@
+package dev.nathanlively.crosslite_r1_eq.daemon;
+
+import dev.nathanlively.crosslite_r1_eq.ConversionCommands;
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.jobs.JobManager;
+import dev.nathanlively.crosslite_r1_eq.shard.ShardCoordinator;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps {@link FileConversionService} warm and serves {@link DaemonClient} requests over a Unix domain socket.
+ * Each connection is handled on its own virtual thread. The daemon stops once no request
+ * has been active for the idle timeout.
+ * <p>
+ * Requests run through {@link ConversionCommands}, so {@code convert-file} and {@code convert-directory} take the
+ * same options and name their outputs the same way as in the shell. Only {@code --background} and standard
+ * streams are left out, since the client could neither follow a job nor stream its input and output.
+ */
+@Component
+public class ConversionDaemon {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversionDaemon.class);
+
+    private static final String STANDARD_STREAM = "-";
+    private static final Map<String, String> SHORT_NAMES = Map.of("-i", "input", "-o", "output", "-f", "formats");
+    private static final Set<String> FLAGS = Set.of("biquads", "resume", "verify", "keep-going");
+    private static final Map<String, Set<String>> COMMAND_OPTIONS = Map.of(
+            "convert-file", Set.of("input", "output", "biquads", "formats"),
+            "convert-directory", Set.of("input", "output", "resume", "verify", "keep-going", "formats", "shard",
+                    "workers"));
+
+    private final ConversionCommands commands;
+
+    public ConversionDaemon(FileConversionService fileConversionService, JobManager jobManager,
+                            OutputFormats outputFormats, ShardCoordinator shardCoordinator) {
+        // Not the shell's bean: outside the shell it has no terminal, so requests draw no progress on the console
+        this.commands = new ConversionCommands(fileConversionService, jobManager, outputFormats, shardCoordinator);
+    }
+
+    /**
+     * Listen on {@code socket} until the daemon has been idle for {@code idleTimeout}.
+     *
+     * @return the number of requests served
+     */
+    public long serve(Path socket, Duration idleTimeout) throws IOException {
+        return serve(socket, idleTimeout, () -> {
+        });
+    }
+
+    /**
+     * Like {@link #serve(Path, Duration)}, running {@code onListening} once clients can connect. The socket file
+     * already exists slightly earlier, so waiting for it is not enough.
+     */
+    public long serve(Path socket, Duration idleTimeout, Runnable onListening) throws IOException {
+        prepareSocketPath(socket);
+
+        AtomicLong lastActivity = new AtomicLong(System.nanoTime());
+        AtomicInteger active = new AtomicInteger();
+        AtomicLong served = new AtomicLong();
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+             ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+             ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor()) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            log.info("Daemon listening on {} (idle timeout {}s)", socket, idleTimeout.toSeconds());
+            onListening.run();
+
+            long checkMillis = Math.clamp(idleTimeout.toMillis() / 4, 10, 1000);
+            watchdog.scheduleAtFixedRate(() -> {
+                long idle = System.nanoTime() - lastActivity.get();
+                if (active.get() == 0 && idle >= idleTimeout.toNanos()) {
+                    try {
+                        server.close();
+                    } catch (IOException e) {
+                        log.debug("Error closing daemon socket", e);
+                    }
+                }
+            }, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+
+            while (true) {
+                SocketChannel client;
+                try {
+                    client = server.accept();
+                } catch (ClosedChannelException e) {
+                    // Closed by the idle watchdog
+                    break;
+                }
+                active.incrementAndGet();
+                lastActivity.set(System.nanoTime());
+                handlers.submit(() -> {
+                    try (client) {
+                        handle(client);
+                        served.incrementAndGet();
+                    } catch (IOException e) {
+                        log.debug("Daemon connection failed", e);
+                    } finally {
+                        lastActivity.set(System.nanoTime());
+                        active.decrementAndGet();
+                    }
+                });
+            }
+            watchdog.shutdownNow();
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+
+        log.info("Daemon stopped after {} request(s)", served.get());
+        return served.get();
+    }
+
+    private void prepareSocketPath(Path socket) throws IOException {
+        if (!Files.exists(socket)) {
+            if (socket.getParent() != null) {
+                Files.createDirectories(socket.getParent());
+            }
+            return;
+        }
+        // Refuse to steal the socket from a live daemon, but clean up after one that crashed
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(socket));
+            throw new IllegalStateException("A daemon is already listening on " + socket);
+        } catch (IOException e) {
+            Files.delete(socket);
+        }
+    }
+
+    private void handle(SocketChannel channel) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        Writer writer = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8);
+
+        DaemonProtocol.Request request = DaemonProtocol.readRequest(reader);
+        int exitCode;
+        try {
+            exitCode = execute(request, writer);
+        } catch (Exception e) {
+            DaemonProtocol.writeLine(writer, DaemonProtocol.ERR, "❌ Unexpected error: " + e.getMessage());
+            exitCode = 1;
+        }
+        writer.write(DaemonProtocol.EXIT + exitCode + "\n");
+        writer.flush();
+    }
+
+    private int execute(DaemonProtocol.Request request, Writer out) throws IOException {
+        List<String> args = request.args();
+        String command = args.getFirst();
+        Set<String> accepted = COMMAND_OPTIONS.get(command);
+        if (accepted == null) {
+            return usage(out, "Unsupported command '" + command + "'");
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.size(); i++) {
+            String option = args.get(i);
+            String name = SHORT_NAMES.getOrDefault(option, option.startsWith("--") ? option.substring(2) : option);
+            if (!accepted.contains(name)) {
+                return usage(out, "Unknown option " + option);
+            }
+            if (FLAGS.contains(name)) {
+                options.put(name, "true");
+                continue;
+            }
+            if (i + 1 >= args.size()) {
+                return usage(out, "Missing value for option " + option);
+            }
+            options.put(name, args.get(++i));
+        }
+        String input = options.get("input");
+        if (input == null) {
+            return usage(out, "The daemon needs an explicit -i option");
+        }
+        if (STANDARD_STREAM.equals(input) || STANDARD_STREAM.equals(options.get("output"))) {
+            return usage(out, "The daemon cannot read standard input or write standard output");
+        }
+
+        Path workingDirectory = Path.of(request.workingDirectory());
+        String inputPath = workingDirectory.resolve(input).toString();
+        String outputPath = options.containsKey("output")
+                ? workingDirectory.resolve(options.get("output")).toString() : null;
+        String formats = options.getOrDefault("formats", "r1");
+        int workers;
+        try {
+            workers = Integer.parseInt(options.getOrDefault("workers", "0"));
+        } catch (NumberFormatException e) {
+            return usage(out, "--workers needs a number, got '" + options.get("workers") + "'");
+        }
+
+        String result = switch (command) {
+            case "convert-file" -> commands.convertFile(inputPath, outputPath, options.containsKey("biquads"), formats);
+            case "convert-directory" -> commands.convertDirectory(inputPath, outputPath, options.containsKey("resume"),
+                    options.containsKey("verify"), options.containsKey("keep-going"), false, formats,
+                    options.get("shard"), workers);
+            default -> throw new IllegalStateException("No handler for " + command);
+        };
+        boolean succeeded = result.startsWith("✅");
+        for (String line : result.split("\n")) {
+            DaemonProtocol.writeLine(out, succeeded ? DaemonProtocol.OUT : DaemonProtocol.ERR, line);
+        }
+        return succeeded ? 0 : 1;
+    }
+
+    private int usage(Writer out, String problem) throws IOException {
+        DaemonProtocol.writeLine(out, DaemonProtocol.ERR, "❌ " + problem);
+        DaemonProtocol.writeLine(out, DaemonProtocol.ERR,
+                "Usage: client convert-file -i <file> [-o <file>] [--biquads] [-f r1,json,csv] | "
+                        + "convert-directory -i <dir> [-o <dir>] [--resume] [--verify] [--keep-going] [-f r1,json,csv] "
+                        + "[--shard i/N] [--workers N]");
+        return 2;
+    }
+}
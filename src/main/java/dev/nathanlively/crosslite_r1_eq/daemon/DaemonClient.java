@@ -0,0 +1,80 @@
+package dev.nathanlively.crosslite_r1_eq.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Thin client that forwards a command to a running {@link ConversionDaemon}.
+ * Runs before Spring starts, so a call costs one socket round trip instead of a context startup.
+ * <p>
+ * Usage: {@code crosslite-r1-eq client [--socket <path>] convert-file -i in.txt [-o out.rcp]}
+ */
+public final class DaemonClient {
+
+    public static final String COMMAND = "client";
+
+    static final int EXIT_NOT_RUNNING = 3;
+
+    private DaemonClient() {
+    }
+
+    public static boolean isClientInvocation(String[] args) {
+        return args.length > 0 && COMMAND.equals(args[0]);
+    }
+
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        List<String> forwarded = new ArrayList<>(Arrays.asList(args).subList(1, args.length));
+        Path socket = DaemonProtocol.defaultSocket();
+        if (forwarded.size() >= 2 && forwarded.get(0).equals("--socket")) {
+            socket = Path.of(forwarded.get(1));
+            forwarded = forwarded.subList(2, forwarded.size());
+        }
+        if (forwarded.isEmpty()) {
+            err.println("Usage: crosslite-r1-eq client [--socket <path>] convert-file|convert-directory <options>");
+            return 2;
+        }
+
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socket));
+            } catch (IOException e) {
+                err.println("❌ No daemon listening on " + socket + ". Start one with: crosslite-r1-eq daemon");
+                return EXIT_NOT_RUNNING;
+            }
+            Writer writer = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+
+            DaemonProtocol.writeRequest(writer, System.getProperty("user.dir"), forwarded);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(DaemonProtocol.OUT)) {
+                    out.println(DaemonProtocol.unescape(line.substring(DaemonProtocol.OUT.length())));
+                } else if (line.startsWith(DaemonProtocol.ERR)) {
+                    err.println(DaemonProtocol.unescape(line.substring(DaemonProtocol.ERR.length())));
+                } else if (line.startsWith(DaemonProtocol.EXIT)) {
+                    return Integer.parseInt(line.substring(DaemonProtocol.EXIT.length()).trim());
+                }
+            }
+            err.println("❌ Daemon closed the connection without a result");
+            return 1;
+        } catch (IOException e) {
+            err.println("❌ Error talking to daemon: " + e.getMessage());
+            return 1;
+        }
+    }
+}
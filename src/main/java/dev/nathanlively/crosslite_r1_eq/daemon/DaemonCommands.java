@@ -0,0 +1,35 @@
+package dev.nathanlively.crosslite_r1_eq.daemon;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Command(group = "Daemon")
+public class DaemonCommands {
+
+    private final ConversionDaemon daemon;
+
+    public DaemonCommands(ConversionDaemon daemon) {
+        this.daemon = daemon;
+    }
+
+    @Command(command = "daemon", description = "Serve conversions to 'crosslite-r1-eq client' over a local socket")
+    public String daemon(
+            @Nullable @Option(longNames = "socket", description = "Socket path (optional, defaults to a per-user temp file)") String socket,
+            @Option(longNames = "idle-timeout", defaultValue = "600", description = "Seconds without requests before shutting down") long idleTimeoutSeconds) {
+        Path socketPath = socket != null ? Path.of(socket) : DaemonProtocol.defaultSocket();
+        try {
+            long served = daemon.serve(socketPath, Duration.ofSeconds(idleTimeoutSeconds));
+            return String.format("Daemon on '%s' stopped after %d idle second(s), %d request(s) served",
+                    socketPath, idleTimeoutSeconds, served);
+        } catch (IllegalStateException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (IOException e) {
+            return "❌ Error starting daemon: " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.nathanlively.crosslite_r1_eq.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line-based protocol between {@link DaemonClient} and {@link ConversionDaemon}.
+ * <p>
+ * The client sends {@code CWD <dir>}, one {@code ARG <value>} per argument and {@code END}.
+ * The daemon answers with any number of {@code OUT <text>} and {@code ERR <text>} lines
+ * followed by {@code EXIT <code>}. Newlines and backslashes inside values are escaped.
+ */
+public final class DaemonProtocol {
+
+    public static final String SOCKET_ENV = "CROSSLITE_R1_EQ_SOCKET";
+
+    static final String CWD = "CWD ";
+    static final String ARG = "ARG ";
+    static final String END = "END";
+    static final String OUT = "OUT ";
+    static final String ERR = "ERR ";
+    static final String EXIT = "EXIT ";
+
+    private DaemonProtocol() {
+    }
+
+    public record Request(String workingDirectory, List<String> args) {
+    }
+
+    public static Path defaultSocket() {
+        String configured = System.getenv(SOCKET_ENV);
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"),
+                "crosslite-r1-eq-" + System.getProperty("user.name", "user") + ".sock");
+    }
+
+    static void writeRequest(Writer out, String workingDirectory, List<String> args) throws IOException {
+        out.write(CWD + escape(workingDirectory) + "\n");
+        for (String arg : args) {
+            out.write(ARG + escape(arg) + "\n");
+        }
+        out.write(END + "\n");
+        out.flush();
+    }
+
+    static Request readRequest(BufferedReader in) throws IOException {
+        String workingDirectory = null;
+        List<String> args = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals(END)) {
+                if (workingDirectory == null) {
+                    throw new IOException("Request is missing the working directory");
+                }
+                return new Request(workingDirectory, args);
+            } else if (line.startsWith(CWD)) {
+                workingDirectory = unescape(line.substring(CWD.length()));
+            } else if (line.startsWith(ARG)) {
+                args.add(unescape(line.substring(ARG.length())));
+            } else {
+                throw new IOException("Unexpected request line: " + line);
+            }
+        }
+        throw new IOException("Connection closed before end of request");
+    }
+
+    static void writeLine(Writer out, String prefix, String text) throws IOException {
+        out.write(prefix + escape(text) + "\n");
+        out.flush();
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    static String unescape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(switch (next) {
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
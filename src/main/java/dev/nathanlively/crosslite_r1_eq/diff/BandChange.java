@@ -0,0 +1,34 @@
+package dev.nathanlively.crosslite_r1_eq.diff;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * A band that exists only on one side, or whose gain, Q or frequency moved.
+ */
+public record BandChange(Kind kind, @Nullable EqBand before, @Nullable EqBand after) {
+
+    public enum Kind { ADDED, REMOVED, CHANGED }
+
+    public BandChange {
+        if ((kind != Kind.ADDED && before == null) || (kind != Kind.REMOVED && after == null)) {
+            throw new IllegalArgumentException(kind + " band change needs its before/after band");
+        }
+    }
+
+    public String describe() {
+        return switch (kind) {
+            case ADDED -> "+ " + band(after);
+            case REMOVED -> "- " + band(before);
+            case CHANGED -> String.format(Locale.ROOT, "~ %.1f Hz → %.1f Hz, %.1f dB → %.1f dB, Q %.3f → %.3f",
+                    before.frequency(), after.frequency(), before.gain(), after.gain(),
+                    before.qFactor(), after.qFactor());
+        };
+    }
+
+    private static String band(EqBand band) {
+        return String.format(Locale.ROOT, "%.1f Hz, %.1f dB, Q %.3f", band.frequency(), band.gain(), band.qFactor());
+    }
+}
@@ -0,0 +1,79 @@
+package dev.nathanlively.crosslite_r1_eq.diff;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pairs the bands of two versions of a channel by frequency, so a band that was nudged from 250 to 260 Hz
+ * shows up as changed rather than as one removed and one added band.
+ * Closest pairs are matched first; bands further apart than the tolerance are never paired.
+ */
+final class BandMatcher {
+
+    private static final double GAIN_EPSILON_DB = 0.05;
+    private static final double RELATIVE_EPSILON = 0.001;
+
+    private BandMatcher() {
+    }
+
+    /**
+     * @param toleranceOctaves largest frequency distance at which two bands are still the same band
+     */
+    static List<BandChange> compare(List<EqBand> before, List<EqBand> after, double toleranceOctaves) {
+        int pairs = 0;
+        long[] candidates = new long[before.size() * after.size()];
+        double[] distances = new double[candidates.length];
+        for (int i = 0; i < before.size(); i++) {
+            for (int j = 0; j < after.size(); j++) {
+                double octaves = Math.abs(Math.log(after.get(j).frequency() / before.get(i).frequency())) / Math.log(2);
+                if (octaves <= toleranceOctaves) {
+                    distances[pairs] = octaves;
+                    candidates[pairs++] = (long) i << 32 | j;
+                }
+            }
+        }
+        Integer[] order = new Integer[pairs];
+        for (int k = 0; k < pairs; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(k -> distances[k]).thenComparingLong(k -> candidates[k]));
+
+        int[] partnerOfBefore = new int[before.size()];
+        boolean[] afterMatched = new boolean[after.size()];
+        Arrays.fill(partnerOfBefore, -1);
+        for (int k : order) {
+            int i = (int) (candidates[k] >>> 32);
+            int j = (int) candidates[k];
+            if (partnerOfBefore[i] < 0 && !afterMatched[j]) {
+                partnerOfBefore[i] = j;
+                afterMatched[j] = true;
+            }
+        }
+
+        List<BandChange> changes = new ArrayList<>();
+        for (int i = 0; i < before.size(); i++) {
+            EqBand old = before.get(i);
+            if (partnerOfBefore[i] < 0) {
+                changes.add(new BandChange(BandChange.Kind.REMOVED, old, null));
+            } else if (differs(old, after.get(partnerOfBefore[i]))) {
+                changes.add(new BandChange(BandChange.Kind.CHANGED, old, after.get(partnerOfBefore[i])));
+            }
+        }
+        for (int j = 0; j < after.size(); j++) {
+            if (!afterMatched[j]) {
+                changes.add(new BandChange(BandChange.Kind.ADDED, null, after.get(j)));
+            }
+        }
+        return changes;
+    }
+
+    private static boolean differs(EqBand a, EqBand b) {
+        return Math.abs(a.gain() - b.gain()) > GAIN_EPSILON_DB
+               || Math.abs(a.frequency() - b.frequency()) > RELATIVE_EPSILON * a.frequency()
+               || Math.abs(a.qFactor() - b.qFactor()) > RELATIVE_EPSILON * a.qFactor();
+    }
+}
@@ -0,0 +1,32 @@
+package dev.nathanlively.crosslite_r1_eq.diff;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How one channel differs between the two sides. Channels are identified by a key such as
+ * {@code venue/ml}: the file path without extension, plus the channel name for multi-channel files.
+ *
+ * @param maxDeltaDb largest response difference on the {@link dev.nathanlively.crosslite_r1_eq.dsp.ResponseCurve}
+ *                   grid, in dB (after minus before)
+ * @param rmsDeltaDb RMS response difference over the grid, in dB
+ */
+public record ChannelDiff(String key, Status status, List<BandChange> changes, double maxDeltaDb,
+                          double rmsDeltaDb) {
+
+    public enum Status { ADDED, REMOVED, CHANGED, UNCHANGED }
+
+    public String describe() {
+        StringBuilder text = new StringBuilder(switch (status) {
+            case ADDED -> "+ " + key + " (only in right)";
+            case REMOVED -> "- " + key + " (only in left)";
+            case UNCHANGED -> "= " + key;
+            case CHANGED -> String.format(Locale.ROOT, "~ %s: %d band change(s), response Δ max %+.2f dB, RMS %.2f dB",
+                    key, changes.size(), maxDeltaDb, rmsDeltaDb);
+        });
+        for (BandChange change : changes) {
+            text.append("\n    ").append(change.describe());
+        }
+        return text.toString();
+    }
+}
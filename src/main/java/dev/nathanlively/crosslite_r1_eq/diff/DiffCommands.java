@@ -0,0 +1,81 @@
+package dev.nathanlively.crosslite_r1_eq.diff;
+
+import org.jline.terminal.Terminal;
+import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+import org.springframework.shell.standard.AbstractShellComponent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+@Command(group = "Analysis")
+public class DiffCommands extends AbstractShellComponent {
+
+    private final EqDiffer differ;
+
+    public DiffCommands(EqDiffer differ) {
+        this.differ = differ;
+    }
+
+    @Command(command = "diff", description = "Show which channels and bands changed between two EQ files or trees")
+    public String diff(
+            @Option(longNames = "left", shortNames = 'l', required = true, description = "Earlier .txt/.rcp file or directory") String leftPath,
+            @Option(longNames = "right", shortNames = 'r', required = true, description = "Later .txt/.rcp file or directory") String rightPath,
+            @Nullable @Option(longNames = "output", shortNames = 'o', description = "Write the report to a file instead of the terminal") String outputPath,
+            @Option(longNames = "tolerance", defaultValue = "0.333", description = "Largest frequency move in octaves still matched as the same band") double tolerance,
+            @Option(longNames = "threads", defaultValue = "0", description = "Worker threads (0 = available processors)") int threads) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        StringWriter collected = new StringWriter();
+        try {
+            DiffSummary summary;
+            if (outputPath != null) {
+                try (BufferedWriter report = Files.newBufferedWriter(Paths.get(outputPath))) {
+                    summary = differ.diff(Paths.get(leftPath), Paths.get(rightPath), tolerance, workers,
+                            diff -> write(report, diff.describe()));
+                }
+            } else {
+                Terminal terminal = getTerminal();
+                PrintWriter out = terminal != null ? terminal.writer() : new PrintWriter(collected);
+                // Stream to the terminal as channels complete rather than holding the whole report
+                Consumer<ChannelDiff> sink = diff -> {
+                    out.println(diff.describe());
+                    if (terminal != null) {
+                        terminal.flush();
+                    }
+                };
+                summary = differ.diff(Paths.get(leftPath), Paths.get(rightPath), tolerance, workers, sink);
+                out.flush();
+            }
+            return collected + String.format(Locale.ROOT,
+                    "Compared %d channel(s) in %d ms: %d changed, %d added, %d removed, %d unchanged%s%s",
+                    summary.compared(), summary.elapsedMillis(), summary.changed(), summary.added(),
+                    summary.removed(), summary.unchanged(),
+                    summary.unreadable() > 0 ? ", " + summary.unreadable() + " file(s) unreadable" : "",
+                    outputPath != null ? ", report in '" + outputPath + "'" : "");
+        } catch (IllegalArgumentException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (IOException | UncheckedIOException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "❌ Diff interrupted";
+        }
+    }
+
+    private static void write(BufferedWriter report, String text) {
+        try {
+            report.write(text);
+            report.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
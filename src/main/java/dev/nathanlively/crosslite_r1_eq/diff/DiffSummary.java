@@ -0,0 +1,12 @@
+package dev.nathanlively.crosslite_r1_eq.diff;
+
+/**
+ * Channel counts of a finished diff.
+ */
+public record DiffSummary(long unchanged, long changed, long added, long removed, long unreadable,
+                          long elapsedMillis) {
+
+    public long compared() {
+        return unchanged + changed + added + removed;
+    }
+}
@@ -0,0 +1,197 @@
+package dev.nathanlively.crosslite_r1_eq.diff;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.dsp.ResponseCurve;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.parser.R1Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Compares two EQ sets: single files or whole trees of CrossLite .txt exports and R1 .rcp presets, in any mix.
+ * <p>
+ * Channels are keyed the way {@code convert-directory} names its output ({@code venue} for a single-channel file,
+ * {@code venue/ml} for a channel of a multi-channel file), so a CrossLite tree can be compared with the R1 tree
+ * converted from it. Both sides are loaded in parallel, then channels are compared in parallel and handed to the
+ * sink in key order as soon as each one and everything before it is done.
+ */
+@Component
+public class EqDiffer {
+
+    public static final double DEFAULT_TOLERANCE_OCTAVES = 1.0 / 3.0;
+
+    private static final Logger log = LoggerFactory.getLogger(EqDiffer.class);
+
+    private final FileConversionService conversionService;
+    private final CrossLiteParser crossLiteParser;
+    private final R1Parser r1Parser;
+
+    public EqDiffer(FileConversionService conversionService, CrossLiteParser crossLiteParser, R1Parser r1Parser) {
+        this.conversionService = conversionService;
+        this.crossLiteParser = crossLiteParser;
+        this.r1Parser = r1Parser;
+    }
+
+    /**
+     * Compare {@code left} (before) with {@code right} (after). Unchanged channels are counted but not passed
+     * to {@code sink}, which is always called from the calling thread.
+     */
+    public DiffSummary diff(Path left, Path right, double toleranceOctaves, int threads, Consumer<ChannelDiff> sink)
+            throws IOException, InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1");
+        }
+        if (!(toleranceOctaves > 0)) {
+            throw new IllegalArgumentException("Frequency tolerance must be positive");
+        }
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            AtomicLong unreadable = new AtomicLong();
+            List<Future<?>> loads = new ArrayList<>();
+            NavigableMap<String, List<EqBand>> before = load(left, executor, loads, unreadable);
+            NavigableMap<String, List<EqBand>> after = load(right, executor, loads, unreadable);
+            for (Future<?> load : loads) {
+                await(load);
+            }
+
+            TreeSet<String> keys = new TreeSet<>(before.keySet());
+            keys.addAll(after.keySet());
+            long[] counts = new long[ChannelDiff.Status.values().length];
+            // Bounded window of in-flight comparisons, drained in submission order
+            Deque<Future<ChannelDiff>> window = new ArrayDeque<>();
+            int windowSize = threads * 4;
+            for (String key : keys) {
+                List<EqBand> old = before.get(key);
+                List<EqBand> current = after.get(key);
+                window.add(executor.submit(() -> compare(key, old, current, toleranceOctaves)));
+                if (window.size() >= windowSize) {
+                    emit(await(window.poll()), counts, sink);
+                }
+            }
+            while (!window.isEmpty()) {
+                emit(await(window.poll()), counts, sink);
+            }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            return new DiffSummary(counts[ChannelDiff.Status.UNCHANGED.ordinal()],
+                    counts[ChannelDiff.Status.CHANGED.ordinal()], counts[ChannelDiff.Status.ADDED.ordinal()],
+                    counts[ChannelDiff.Status.REMOVED.ordinal()], unreadable.get(), elapsedMillis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static ChannelDiff compare(String key, List<EqBand> before, List<EqBand> after, double toleranceOctaves) {
+        if (before == null) {
+            return new ChannelDiff(key, ChannelDiff.Status.ADDED, List.of(), 0, 0);
+        }
+        if (after == null) {
+            return new ChannelDiff(key, ChannelDiff.Status.REMOVED, List.of(), 0, 0);
+        }
+        List<BandChange> changes = BandMatcher.compare(before, after, toleranceOctaves);
+        if (changes.isEmpty()) {
+            return new ChannelDiff(key, ChannelDiff.Status.UNCHANGED, List.of(), 0, 0);
+        }
+        double[] oldCurve = ResponseCurve.magnitudeDb(before);
+        double[] newCurve = ResponseCurve.magnitudeDb(after);
+        double max = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            double delta = newCurve[i] - oldCurve[i];
+            if (Math.abs(delta) > Math.abs(max)) {
+                max = delta;
+            }
+            sumOfSquares += delta * delta;
+        }
+        return new ChannelDiff(key, ChannelDiff.Status.CHANGED, changes, max,
+                Math.sqrt(sumOfSquares / ResponseCurve.GRID_POINTS));
+    }
+
+    private static void emit(ChannelDiff diff, long[] counts, Consumer<ChannelDiff> sink) {
+        counts[diff.status().ordinal()]++;
+        if (diff.status() != ChannelDiff.Status.UNCHANGED) {
+            sink.accept(diff);
+        }
+    }
+
+    private NavigableMap<String, List<EqBand>> load(Path root, ExecutorService executor, List<Future<?>> loads,
+                                                    AtomicLong unreadable) throws IOException {
+        NavigableMap<String, List<EqBand>> channels = new ConcurrentSkipListMap<>();
+        if (Files.isRegularFile(root)) {
+            // A lone file has no path to key by, so only its channel names are compared
+            loads.add(executor.submit(() -> loadFile(root, "", channels, unreadable)));
+            return channels;
+        }
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Path does not exist: " + root);
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString().toLowerCase();
+                if (Files.isRegularFile(file) && (name.endsWith(".txt") || name.endsWith(".rcp"))) {
+                    String relative = root.relativize(file).toString().replace('\\', '/');
+                    String base = relative.substring(0, relative.length() - 4);
+                    loads.add(executor.submit(() -> loadFile(file, base, channels, unreadable)));
+                }
+            }
+        }
+        return channels;
+    }
+
+    private void loadFile(Path file, String base, Map<String, List<EqBand>> channels, AtomicLong unreadable) {
+        try {
+            String content = conversionService.readContent(file);
+            if (file.getFileName().toString().toLowerCase().endsWith(".rcp")) {
+                channels.put(base.isEmpty() ? "default" : base, r1Parser.parseBands(content));
+                return;
+            }
+            for (Map.Entry<String, CrossLiteSettings> channel
+                    : crossLiteParser.parseMultiChannel(content, new ArrayList<>()).entrySet()) {
+                channels.put(channelKey(base, channel.getKey()), channel.getValue().eqBands());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Skipping {}: {}", file, e.getMessage());
+            unreadable.incrementAndGet();
+        }
+    }
+
+    private static String channelKey(String base, String channel) {
+        if ("default".equals(channel)) {
+            return base.isEmpty() ? channel : base;
+        }
+        // Same substitution convert-directory applies to channel file names
+        String name = channel.replaceAll("[<>:\"/\\\\|?*]", "_");
+        return base.isEmpty() ? name : base + "/" + name;
+    }
+
+    private static <T> T await(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Diff worker failed", e.getCause());
+        }
+    }
+}
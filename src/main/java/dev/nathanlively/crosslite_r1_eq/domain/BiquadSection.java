@@ -0,0 +1,31 @@
+package dev.nathanlively.crosslite_r1_eq.domain;
+
+/**
+ * One normalized biquad section from a CrossLite {@code biquadN,} block.
+ * The number is the N from the block header, which is also the number of the band it implements.
+ */
+public record BiquadSection(
+    int number,
+    double b0,
+    double b1,
+    double b2,
+    double a1,
+    double a2
+) {
+    public BiquadSection {
+        if (number < 1) {
+            throw new IllegalArgumentException("Biquad number must be positive");
+        }
+    }
+
+    /**
+     * Copy b0, b1, b2, a1, a2 into {@code target}, starting at {@code offset}.
+     */
+    public void copyTo(double[] target, int offset) {
+        target[offset] = b0;
+        target[offset + 1] = b1;
+        target[offset + 2] = b2;
+        target[offset + 3] = a1;
+        target[offset + 4] = a2;
+    }
+}
@@ -1,14 +1,41 @@
 package dev.nathanlively.crosslite_r1_eq.domain;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the EQ settings from a CrossLite file.
+ * Biquad sections keep the number of their {@code biquadN,} block, so a dropped block does not shift the rest.
  */
-public record CrossLiteSettings(List<EqBand> eqBands) {
+public record CrossLiteSettings(List<EqBand> eqBands, List<BiquadSection> biquads) {
+    /**
+     * Coefficients per section when stored flat as b0, b1, b2, a1, a2.
+     */
+    public static final int BIQUAD_STRIDE = 5;
+
     public CrossLiteSettings {
         if (eqBands == null) {
             throw new IllegalArgumentException("EQ bands cannot be null");
         }
+        if (biquads == null) {
+            throw new IllegalArgumentException("Biquad sections cannot be null");
+        }
+        eqBands = List.copyOf(eqBands);
+        biquads = List.copyOf(biquads);
+        Set<Integer> numbers = new HashSet<>();
+        for (BiquadSection section : biquads) {
+            if (!numbers.add(section.number())) {
+                throw new IllegalArgumentException("Duplicate biquad number " + section.number());
+            }
+        }
+    }
+
+    public CrossLiteSettings(List<EqBand> eqBands) {
+        this(eqBands, List.of());
+    }
+
+    public int biquadCount() {
+        return biquads.size();
     }
-}
\ No newline at end of file
+}
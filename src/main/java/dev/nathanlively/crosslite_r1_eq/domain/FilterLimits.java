@@ -0,0 +1,35 @@
+package dev.nathanlively.crosslite_r1_eq.domain;
+
+/**
+ * Parameter ranges and filter count supported by an output format.
+ */
+public record FilterLimits(
+    double minGain,
+    double maxGain,
+    double minQ,
+    double maxQ,
+    int maxFilters
+) {
+    // R1 constraints based on example3 analysis
+    public static final FilterLimits R1 = new FilterLimits(-18.0, 12.0, 0.1, 25.0, R1Settings.MAX_FILTERS);
+
+    public FilterLimits {
+        if (minGain > maxGain) {
+            throw new IllegalArgumentException("Minimum gain cannot exceed maximum gain");
+        }
+        if (minQ <= 0 || minQ > maxQ) {
+            throw new IllegalArgumentException("Q range must be positive and ordered");
+        }
+        if (maxFilters < 1) {
+            throw new IllegalArgumentException("Format must support at least one filter");
+        }
+    }
+
+    public double clampGain(double gain) {
+        return Math.clamp(gain, minGain, maxGain);
+    }
+
+    public double clampQ(double q) {
+        return Math.clamp(q, minQ, maxQ);
+    }
+}
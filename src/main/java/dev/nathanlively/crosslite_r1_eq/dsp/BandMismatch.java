@@ -0,0 +1,20 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+
+/**
+ * A band whose header values disagree with its biquad coefficients.
+ * Solved values are NaN when the section is not a peaking filter.
+ */
+public record BandMismatch(
+    int band,
+    EqBand header,
+    double frequency,
+    double gain,
+    double qFactor
+) {
+    public String describe() {
+        return String.format("band %d: header %.1f Hz %.1f dB Q %.3f, biquad %.1f Hz %.1f dB Q %.3f",
+                band, header.frequency(), header.gain(), header.qFactor(), frequency, gain, qFactor);
+    }
+}
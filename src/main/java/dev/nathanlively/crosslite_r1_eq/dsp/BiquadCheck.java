@@ -0,0 +1,14 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+
+import java.util.List;
+
+/**
+ * Result of cross-checking a channel's header values against its biquad coefficients.
+ */
+public record BiquadCheck(
+    CrossLiteSettings refined,
+    List<BandMismatch> mismatches
+) {
+}
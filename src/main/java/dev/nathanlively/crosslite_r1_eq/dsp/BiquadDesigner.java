@@ -0,0 +1,77 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Settings;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Designs normalized peaking biquads (b0, b1, b2, a1, a2) for R1 filters, the inverse of {@link BiquadSolver}.
+ * Disabled and flat filters, and filters at or above Nyquist, become pass-through sections.
+ */
+@Component
+public class BiquadDesigner {
+
+    /**
+     * Sample rates coefficients are usually wanted at: 48, 96 and 192 kHz.
+     */
+    public static final List<Double> SAMPLE_RATES = List.of(48000.0, 96000.0, 192000.0);
+
+    /**
+     * Design every filter of every channel at once.
+     *
+     * @return {@link R1Settings#MAX_FILTERS} sections per channel in channel order, each
+     * {@link CrossLiteSettings#BIQUAD_STRIDE} values wide
+     */
+    public double[] design(List<R1Settings> channels, double sampleRate) {
+        int sections = channels.size() * R1Settings.MAX_FILTERS;
+        double[] frequencies = new double[sections];
+        double[] gains = new double[sections];
+        double[] qFactors = new double[sections];
+        int index = 0;
+        for (R1Settings channel : channels) {
+            for (R1Filter filter : channel.filters()) {
+                frequencies[index] = filter.frequency();
+                // A disabled filter passes audio unchanged, whatever its stored gain
+                gains[index] = filter.enabled() ? filter.gain() : 0.0;
+                qFactors[index] = filter.qFactor();
+                index++;
+            }
+        }
+        double[] coefficients = new double[sections * CrossLiteSettings.BIQUAD_STRIDE];
+        designPeaking(frequencies, gains, qFactors, sections, sampleRate, coefficients);
+        return coefficients;
+    }
+
+    /**
+     * Design {@code sections} peaking sections into a flat coefficient array. Performs no allocation.
+     */
+    public void designPeaking(double[] frequencies, double[] gains, double[] qFactors, int sections,
+                              double sampleRate, double[] coefficients) {
+        for (int i = 0; i < sections; i++) {
+            int base = i * CrossLiteSettings.BIQUAD_STRIDE;
+            double w = 2.0 * Math.PI * frequencies[i] / sampleRate;
+            if (gains[i] == 0.0 || w >= Math.PI) {
+                coefficients[base] = 1.0;
+                coefficients[base + 1] = coefficients[base + 2] = coefficients[base + 3] = coefficients[base + 4] = 0.0;
+                continue;
+            }
+            // Exact trig: low-frequency sections have a1 close to -2, where approximations lose the filter
+            double sin = Math.sin(w);
+            double cos = Math.cos(w);
+            double linear = Math.pow(10.0, gains[i] / 20.0);
+            double narrow = sin / (2.0 * qFactors[i]);
+            double alphaNum = linear > 1.0 ? narrow * linear : narrow;
+            double alphaDen = linear > 1.0 ? narrow : narrow / linear;
+            double a0 = 1.0 + alphaDen;
+
+            coefficients[base] = (1.0 + alphaNum) / a0;
+            coefficients[base + 1] = -2.0 * cos / a0;
+            coefficients[base + 2] = (1.0 - alphaNum) / a0;
+            coefficients[base + 3] = coefficients[base + 1];
+            coefficients[base + 4] = (1.0 - alphaDen) / a0;
+        }
+    }
+}
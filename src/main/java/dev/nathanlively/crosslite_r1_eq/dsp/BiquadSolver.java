@@ -0,0 +1,148 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.BiquadSection;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inverts normalized peaking biquad coefficients (b0, b1, b2, a1, a2) back to frequency, gain and Q.
+ * <p>
+ * CrossLite designs peaking sections like the RBJ cookbook, except that Q always describes the
+ * narrower of the numerator and denominator bandwidths, so cuts and boosts of the same Q are mirror images.
+ */
+@Component
+public class BiquadSolver {
+
+    public static final double DEFAULT_SAMPLE_RATE = 48000.0;
+
+    // Header values are printed with 1, 1 and 3 decimals; anything further off is a real disagreement
+    private static final double FREQUENCY_TOLERANCE = 0.005;
+    private static final double GAIN_TOLERANCE_DB = 0.1;
+    private static final double Q_TOLERANCE = 0.02;
+
+    private final double sampleRate;
+
+    public BiquadSolver() {
+        this(DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * @param sampleRate the rate the CrossLite export was designed at, set with {@code crosslite-r1-eq.sample-rate}
+     */
+    @Autowired
+    public BiquadSolver(@Value("${crosslite-r1-eq.sample-rate:48000}") double sampleRate) {
+        if (!(sampleRate > 0)) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Solve {@code sections} peaking sections from a flat coefficient array.
+     * Sections that are not peaking filters produce NaN in all three outputs.
+     * Performs no allocation.
+     *
+     * @return the number of sections that were solved
+     */
+    public int solvePeaking(double[] coefficients, int sections, double sampleRate,
+                            double[] frequencies, double[] gains, double[] qFactors) {
+        int solved = 0;
+        for (int i = 0; i < sections; i++) {
+            int base = i * CrossLiteSettings.BIQUAD_STRIDE;
+            double b0 = coefficients[base];
+            double b1 = coefficients[base + 1];
+            double b2 = coefficients[base + 2];
+            double a1 = coefficients[base + 3];
+            double a2 = coefficients[base + 4];
+
+            double onePlusA2 = 1.0 + a2;
+            // A peaking section shares its b1 and a1 terms
+            if (Math.abs(b1 - a1) > 1e-9 * Math.max(1.0, Math.abs(a1)) || onePlusA2 <= 0.0) {
+                frequencies[i] = gains[i] = qFactors[i] = Double.NaN;
+                continue;
+            }
+
+            double cosW = Math.clamp(-a1 / onePlusA2, -1.0, 1.0);
+            double w = Math.acos(cosW);
+            double alphaDen = (1.0 - a2) / onePlusA2;
+            double alphaNum = (b0 - b2) / onePlusA2;
+            if (alphaDen <= 0.0 || alphaNum <= 0.0 || w == 0.0) {
+                frequencies[i] = gains[i] = qFactors[i] = Double.NaN;
+                continue;
+            }
+
+            frequencies[i] = w * sampleRate / (2.0 * Math.PI);
+            gains[i] = 20.0 * Math.log10(alphaNum / alphaDen);
+            qFactors[i] = Math.sin(w) / (2.0 * Math.min(alphaNum, alphaDen));
+            solved++;
+        }
+        return solved;
+    }
+
+    /**
+     * Cross-check the header values of each band against the biquad section with the same number.
+     * Bands that agree are replaced by the exact values from the coefficients;
+     * bands that disagree keep their header values and are reported as mismatches.
+     * Bands without a matching section are left untouched.
+     */
+    public BiquadCheck check(CrossLiteSettings settings, double sampleRate) {
+        List<EqBand> bands = settings.eqBands();
+        List<BiquadSection> sections = settings.biquads().stream()
+                .filter(section -> section.number() <= bands.size())
+                .toList();
+        if (sections.isEmpty()) {
+            return new BiquadCheck(settings, List.of());
+        }
+
+        double[] coefficients = new double[sections.size() * CrossLiteSettings.BIQUAD_STRIDE];
+        for (int i = 0; i < sections.size(); i++) {
+            sections.get(i).copyTo(coefficients, i * CrossLiteSettings.BIQUAD_STRIDE);
+        }
+        double[] frequencies = new double[sections.size()];
+        double[] gains = new double[sections.size()];
+        double[] qFactors = new double[sections.size()];
+        solvePeaking(coefficients, sections.size(), sampleRate, frequencies, gains, qFactors);
+
+        List<EqBand> refined = new ArrayList<>(bands);
+        List<BandMismatch> mismatches = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i++) {
+            int band = sections.get(i).number();
+            EqBand header = bands.get(band - 1);
+            if (matches(header, frequencies[i], gains[i], qFactors[i])) {
+                refined.set(band - 1, new EqBand(frequencies[i], gains[i], qFactors[i]));
+            } else {
+                mismatches.add(new BandMismatch(band, header, frequencies[i], gains[i], qFactors[i]));
+            }
+        }
+
+        return new BiquadCheck(new CrossLiteSettings(refined, settings.biquads()), mismatches);
+    }
+
+    /**
+     * {@link #check(CrossLiteSettings, double)} at the configured {@link #sampleRate()}.
+     */
+    public BiquadCheck check(CrossLiteSettings settings) {
+        return check(settings, sampleRate);
+    }
+
+    private boolean matches(EqBand header, double frequency, double gain, double qFactor) {
+        if (Double.isNaN(frequency)) {
+            return false;
+        }
+        // Q is meaningless for a flat section
+        boolean flat = Math.abs(header.gain()) < GAIN_TOLERANCE_DB && Math.abs(gain) < GAIN_TOLERANCE_DB;
+        return Math.abs(frequency - header.frequency()) <= FREQUENCY_TOLERANCE * header.frequency() + 0.05
+               && Math.abs(gain - header.gain()) <= GAIN_TOLERANCE_DB
+               && (flat || Math.abs(qFactor - header.qFactor()) <= Q_TOLERANCE * header.qFactor() + 0.0005);
+    }
+}
@@ -0,0 +1,174 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fits peaking bands to a target response on the {@link ResponseCurve} grid.
+ * <p>
+ * Bands are placed one at a time on the largest remaining error, sized from the width of that error, and after
+ * each placement all bands are refined by coordinate descent on frequency, gain and Q. Every band stays within
+ * the given limits, so the result converts without clamping.
+ */
+@Component
+public class EqFitter {
+
+    // Remaining error small enough that another band would not be audible
+    private static final double STOP_DB = 0.1;
+    private static final int REFINE_PASSES = 12;
+    private static final int FINAL_REFINE_PASSES = 60;
+    private static final double GRID_STEP_OCTAVES = Math.log(ResponseCurve.MAX_FREQUENCY / ResponseCurve.MIN_FREQUENCY)
+            / Math.log(2) / (ResponseCurve.GRID_POINTS - 1);
+
+    public FitResult fit(double[] targetDb, FilterLimits limits) {
+        if (targetDb.length != ResponseCurve.GRID_POINTS) {
+            throw new IllegalArgumentException("Target must have " + ResponseCurve.GRID_POINTS + " points");
+        }
+        List<double[]> bands = new ArrayList<>();   // frequency, gain, Q
+        List<double[]> curves = new ArrayList<>();
+        double[] residual = targetDb.clone();
+
+        while (bands.size() < limits.maxFilters()) {
+            int peak = largest(residual);
+            if (Math.abs(residual[peak]) < STOP_DB) {
+                break;
+            }
+            double[] band = {ResponseCurve.frequency(peak), limits.clampGain(residual[peak]),
+                    limits.clampQ(qForWidth(residual, peak))};
+            double[] curve = new double[ResponseCurve.GRID_POINTS];
+            evaluate(band, curve);
+            subtract(residual, curve);
+            bands.add(band);
+            curves.add(curve);
+            refine(bands, curves, residual, limits, REFINE_PASSES);
+        }
+        refine(bands, curves, residual, limits, FINAL_REFINE_PASSES);
+
+        List<EqBand> fitted = new ArrayList<>(bands.size());
+        for (double[] band : bands) {
+            fitted.add(new EqBand(band[0], band[1], band[2]));
+        }
+        return new FitResult(fitted, Math.sqrt(squaredError(residual) / ResponseCurve.GRID_POINTS),
+                Math.abs(residual[largest(residual)]));
+    }
+
+    /**
+     * Q of a band whose half-gain bandwidth matches the width of the residual lobe around {@code peak}.
+     */
+    private static double qForWidth(double[] residual, int peak) {
+        double half = residual[peak] / 2;
+        int low = peak;
+        while (low > 0 && residual[low - 1] * Math.signum(half) > Math.abs(half)) {
+            low--;
+        }
+        int high = peak;
+        while (high < ResponseCurve.GRID_POINTS - 1 && residual[high + 1] * Math.signum(half) > Math.abs(half)) {
+            high++;
+        }
+        // One grid step is added so a single-point lobe still gets a finite width
+        double octaves = Math.log(ResponseCurve.frequency(high) / ResponseCurve.frequency(low)) / Math.log(2)
+                         + GRID_STEP_OCTAVES;
+        double ratio = Math.pow(2, octaves);
+        return Math.sqrt(ratio) / (ratio - 1);
+    }
+
+    /**
+     * Coordinate descent: nudge each parameter of each band up or down, keep any move that lowers the squared
+     * error, and halve the step sizes once a whole pass finds nothing better.
+     */
+    private static void refine(List<double[]> bands, List<double[]> curves, double[] residual,
+                               FilterLimits limits, int passes) {
+        double[] steps = {0.125, 1.0, 0.25};   // octaves, dB, log2(Q)
+        double[] candidate = new double[3];
+        double[] candidateCurve = new double[ResponseCurve.GRID_POINTS];
+        double[] without = new double[ResponseCurve.GRID_POINTS];
+        for (int pass = 0; pass < passes; pass++) {
+            boolean improved = false;
+            for (int b = 0; b < bands.size(); b++) {
+                double[] band = bands.get(b);
+                double[] curve = curves.get(b);
+                for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+                    without[i] = residual[i] + curve[i];
+                }
+                double best = squaredDifference(without, curve);
+                for (int parameter = 0; parameter < 3; parameter++) {
+                    for (int direction = -1; direction <= 1; direction += 2) {
+                        System.arraycopy(band, 0, candidate, 0, 3);
+                        candidate[parameter] = move(parameter, band[parameter], direction * steps[parameter], limits);
+                        if (candidate[parameter] == band[parameter]) {
+                            continue;
+                        }
+                        evaluate(candidate, candidateCurve);
+                        double error = squaredDifference(without, candidateCurve);
+                        if (error < best) {
+                            best = error;
+                            System.arraycopy(candidate, 0, band, 0, 3);
+                            System.arraycopy(candidateCurve, 0, curve, 0, ResponseCurve.GRID_POINTS);
+                            improved = true;
+                        }
+                    }
+                }
+                for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+                    residual[i] = without[i] - curve[i];
+                }
+            }
+            if (!improved) {
+                if (steps[1] < 0.01) {
+                    return;
+                }
+                for (int k = 0; k < steps.length; k++) {
+                    steps[k] /= 2;
+                }
+            }
+        }
+    }
+
+    private static double move(int parameter, double value, double step, FilterLimits limits) {
+        return switch (parameter) {
+            case 0 -> Math.clamp(value * Math.pow(2, step), ResponseCurve.MIN_FREQUENCY, ResponseCurve.MAX_FREQUENCY);
+            case 1 -> limits.clampGain(value + step);
+            default -> limits.clampQ(value * Math.pow(2, step));
+        };
+    }
+
+    private static void evaluate(double[] band, double[] curve) {
+        ResponseCurve.bandDb(new EqBand(band[0], band[1], band[2]), curve);
+    }
+
+    private static int largest(double[] values) {
+        int index = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (Math.abs(values[i]) > Math.abs(values[index])) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private static void subtract(double[] residual, double[] curve) {
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            residual[i] -= curve[i];
+        }
+    }
+
+    private static double squaredDifference(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            double difference = a[i] - b[i];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    private static double squaredError(double[] residual) {
+        double sum = 0;
+        for (double value : residual) {
+            sum += value * value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+
+import java.util.List;
+
+/**
+ * Bands fitted to a target curve, and how far their combined response stays from it over the grid.
+ */
+public record FitResult(List<EqBand> bands, double rmsErrorDb, double maxErrorDb) {
+}
@@ -0,0 +1,123 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Magnitude response of a chain of CrossLite peaking bands, sampled on a fixed log-frequency grid.
+ * <p>
+ * Each band is designed the same way {@link BiquadSolver} inverts it: Q describes the narrower of the numerator
+ * and denominator bandwidths. The squared magnitudes of all bands are multiplied per grid point, so a channel
+ * costs one logarithm per point regardless of its band count.
+ */
+public final class ResponseCurve {
+
+    public static final int GRID_POINTS = 128;
+    public static final double MIN_FREQUENCY = 20.0;
+    public static final double MAX_FREQUENCY = 20000.0;
+
+    private static final double[] FREQUENCIES = new double[GRID_POINTS];
+    private static final double[] COS_W = new double[GRID_POINTS];
+    private static final double[] COS_2W = new double[GRID_POINTS];
+    private static final double[] SIN_W = new double[GRID_POINTS];
+    private static final double[] SIN_2W = new double[GRID_POINTS];
+
+    static {
+        double ratio = Math.log(MAX_FREQUENCY / MIN_FREQUENCY) / (GRID_POINTS - 1);
+        for (int i = 0; i < GRID_POINTS; i++) {
+            FREQUENCIES[i] = MIN_FREQUENCY * Math.exp(ratio * i);
+            double w = 2.0 * Math.PI * FREQUENCIES[i] / BiquadSolver.DEFAULT_SAMPLE_RATE;
+            COS_W[i] = Math.cos(w);
+            COS_2W[i] = Math.cos(2.0 * w);
+            SIN_W[i] = Math.sin(w);
+            SIN_2W[i] = Math.sin(2.0 * w);
+        }
+    }
+
+    private ResponseCurve() {
+    }
+
+    public static double frequency(int point) {
+        return FREQUENCIES[point];
+    }
+
+    /**
+     * Write the response of {@code bands} in dB to the first {@link #GRID_POINTS} entries of {@code out}.
+     * Uses {@code scratch} (at least {@link #GRID_POINTS} long) as working space and performs no allocation.
+     */
+    public static void magnitudeDb(List<EqBand> bands, float[] out, double[] scratch) {
+        Arrays.fill(scratch, 0, GRID_POINTS, 1.0);
+        for (EqBand band : bands) {
+            multiplyPowerResponse(band, scratch);
+        }
+        for (int i = 0; i < GRID_POINTS; i++) {
+            out[i] = (float) (10.0 * Math.log10(scratch[i]));
+        }
+    }
+
+    /**
+     * Response of {@code bands} in dB, one value per grid point.
+     */
+    public static double[] magnitudeDb(List<EqBand> bands) {
+        double[] power = new double[GRID_POINTS];
+        Arrays.fill(power, 1.0);
+        for (EqBand band : bands) {
+            multiplyPowerResponse(band, power);
+        }
+        for (int i = 0; i < GRID_POINTS; i++) {
+            power[i] = 10.0 * Math.log10(power[i]);
+        }
+        return power;
+    }
+
+    /**
+     * Write the response of a single band in dB to {@code out}.
+     */
+    public static void bandDb(EqBand band, double[] out) {
+        Arrays.fill(out, 0, GRID_POINTS, 1.0);
+        multiplyPowerResponse(band, out);
+        for (int i = 0; i < GRID_POINTS; i++) {
+            out[i] = 10.0 * Math.log10(out[i]);
+        }
+    }
+
+    /**
+     * Root-mean-square difference between two curves in dB.
+     */
+    public static float rmsDistance(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < GRID_POINTS; i++) {
+            float difference = a[i] - b[i];
+            sum += difference * difference;
+        }
+        return (float) Math.sqrt(sum / GRID_POINTS);
+    }
+
+    private static void multiplyPowerResponse(EqBand band, double[] power) {
+        double linear = Math.pow(10.0, band.gain() / 20.0);
+        // Bands at or above Nyquist cannot be realised at the reference rate
+        if (linear == 1.0 || band.frequency() >= BiquadSolver.DEFAULT_SAMPLE_RATE / 2) {
+            return;
+        }
+        double w = 2.0 * Math.PI * band.frequency() / BiquadSolver.DEFAULT_SAMPLE_RATE;
+        double narrow = Math.sin(w) / (2.0 * band.qFactor());
+        double alphaNum = linear > 1.0 ? narrow * linear : narrow;
+        double alphaDen = linear > 1.0 ? narrow : narrow / linear;
+        double cos = Math.cos(w);
+
+        double b0 = 1.0 + alphaNum;
+        double b2 = 1.0 - alphaNum;
+        double a0 = 1.0 + alphaDen;
+        double a2 = 1.0 - alphaDen;
+        double shared = -2.0 * cos;
+        for (int i = 0; i < GRID_POINTS; i++) {
+            double numRe = b0 + shared * COS_W[i] + b2 * COS_2W[i];
+            double numIm = shared * SIN_W[i] + b2 * SIN_2W[i];
+            double denRe = a0 + shared * COS_W[i] + a2 * COS_2W[i];
+            double denIm = shared * SIN_W[i] + a2 * SIN_2W[i];
+            power[i] *= (numRe * numRe + numIm * numIm) / (denRe * denRe + denIm * denIm);
+        }
+    }
+}
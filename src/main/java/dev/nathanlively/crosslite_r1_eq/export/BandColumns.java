@@ -0,0 +1,137 @@
+package dev.nathanlively.crosslite_r1_eq.export;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A block of exported bands held as primitive columns. File and channel names are dictionary encoded:
+ * the columns store ids into {@link #files()} and {@link #channels()}.
+ */
+public class BandColumns {
+
+    private final Dictionary files = new Dictionary();
+    private final Dictionary channels = new Dictionary();
+    private int[] fileIds;
+    private int[] channelIds;
+    private int[] bandIndexes;
+    private double[] frequencies;
+    private double[] gains;
+    private double[] qFactors;
+    private int size;
+
+    public BandColumns(int capacity) {
+        fileIds = new int[capacity];
+        channelIds = new int[capacity];
+        bandIndexes = new int[capacity];
+        frequencies = new double[capacity];
+        gains = new double[capacity];
+        qFactors = new double[capacity];
+    }
+
+    public void add(String file, String channel, int bandIndex, double frequency, double gain, double qFactor) {
+        addEncoded(files.id(file), channels.id(channel), bandIndex, frequency, gain, qFactor);
+    }
+
+    void addEncoded(int fileId, int channelId, int bandIndex, double frequency, double gain, double qFactor) {
+        if (size == fileIds.length) {
+            int capacity = Math.max(16, size * 2);
+            fileIds = Arrays.copyOf(fileIds, capacity);
+            channelIds = Arrays.copyOf(channelIds, capacity);
+            bandIndexes = Arrays.copyOf(bandIndexes, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+            gains = Arrays.copyOf(gains, capacity);
+            qFactors = Arrays.copyOf(qFactors, capacity);
+        }
+        fileIds[size] = fileId;
+        channelIds[size] = channelId;
+        bandIndexes[size] = bandIndex;
+        frequencies[size] = frequency;
+        gains[size] = gain;
+        qFactors[size] = qFactor;
+        size++;
+    }
+
+    /**
+     * Drop the rows but keep the dictionaries, so ids stay stable across the blocks of one file.
+     */
+    public void clearRows() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String file(int row) {
+        return files.name(fileIds[row]);
+    }
+
+    public String channel(int row) {
+        return channels.name(channelIds[row]);
+    }
+
+    public int fileId(int row) {
+        return fileIds[row];
+    }
+
+    public int channelId(int row) {
+        return channelIds[row];
+    }
+
+    public int bandIndex(int row) {
+        return bandIndexes[row];
+    }
+
+    public double frequency(int row) {
+        return frequencies[row];
+    }
+
+    public double gain(int row) {
+        return gains[row];
+    }
+
+    public double qFactor(int row) {
+        return qFactors[row];
+    }
+
+    public Dictionary files() {
+        return files;
+    }
+
+    public Dictionary channels() {
+        return channels;
+    }
+
+    /**
+     * Insertion-ordered string dictionary.
+     */
+    public static class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        public int id(String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            return id;
+        }
+
+        public String name(int id) {
+            return names.get(id);
+        }
+
+        public int size() {
+            return names.size();
+        }
+
+        public List<String> names() {
+            return names;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package dev.nathanlively.crosslite_r1_eq.export;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParseException;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Exports every parsed {@link EqBand} of a directory tree with its file and channel.
+ * <p>
+ * The input files are split into shards that are parsed and written to temporary part files in parallel;
+ * the parts are then merged into the target, remapping dictionary ids for the binary format.
+ */
+@Component
+public class BandExporter {
+
+    public enum Format { BINARY, CSV }
+
+    static final String CSV_HEADER = "file,channel,band,frequency,gain,q\n";
+
+    private static final Logger log = LoggerFactory.getLogger(BandExporter.class);
+    private static final int BLOCK_ROWS = 1 << 16;
+
+    private final FileConversionService conversionService;
+    private final CrossLiteParser parser;
+
+    public BandExporter(FileConversionService conversionService, CrossLiteParser parser) {
+        this.conversionService = conversionService;
+        this.parser = parser;
+    }
+
+    public ExportStats export(Path inputDir, Path target, Format format, int shards)
+            throws IOException, InterruptedException {
+        if (!Files.isDirectory(inputDir)) {
+            throw new IllegalArgumentException("Input directory does not exist: " + inputDir);
+        }
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        List<Path> inputs;
+        try (Stream<Path> files = Files.walk(inputDir)) {
+            inputs = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.toString().toLowerCase().endsWith(".txt"))
+                    .sorted()
+                    .toList();
+        }
+        if (target.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+        }
+
+        int shardCount = Math.max(1, Math.min(shards, inputs.size()));
+        List<Path> parts = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            parts.add(target.resolveSibling(target.getFileName() + ".part-" + shard));
+        }
+        AtomicLong channels = new AtomicLong();
+        AtomicLong bands = new AtomicLong();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(shardCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                // Contiguous slices keep the merged file in the same order as a sequential export
+                List<Path> slice = inputs.subList(shard * inputs.size() / shardCount,
+                        (shard + 1) * inputs.size() / shardCount);
+                Path part = parts.get(shard);
+                futures.add(executor.submit(() -> {
+                    writeShard(inputDir, slice, part, format, channels, bands, failed);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            if (format == Format.BINARY) {
+                BandFile.merge(parts, target, BLOCK_ROWS);
+            } else {
+                concatenateCsv(parts, target);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Band export failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+        return new ExportStats(inputs.size(), channels.get(), bands.get(), failed.get(), Files.size(target));
+    }
+
+    private void writeShard(Path inputDir, List<Path> inputs, Path part, Format format, AtomicLong channels,
+                            AtomicLong bands, AtomicInteger failed) throws IOException {
+        if (format == Format.BINARY) {
+            BandColumns columns = new BandColumns(BLOCK_ROWS);
+            try (BandFile.Writer writer = new BandFile.Writer(part)) {
+                for (Path input : inputs) {
+                    String file = relativeName(inputDir, input);
+                    Map<String, CrossLiteSettings> parsed = parse(input, file, failed);
+                    for (Map.Entry<String, CrossLiteSettings> channel : parsed.entrySet()) {
+                        List<EqBand> eqBands = channel.getValue().eqBands();
+                        for (int band = 0; band < eqBands.size(); band++) {
+                            EqBand eqBand = eqBands.get(band);
+                            columns.add(file, channel.getKey(), band + 1, eqBand.frequency(), eqBand.gain(),
+                                    eqBand.qFactor());
+                        }
+                        bands.addAndGet(eqBands.size());
+                        if (columns.size() >= BLOCK_ROWS) {
+                            writer.writeBlock(columns);
+                            columns.clearRows();
+                        }
+                    }
+                    channels.addAndGet(parsed.size());
+                }
+                writer.writeBlock(columns);
+            }
+        } else {
+            try (BufferedWriter writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+                for (Path input : inputs) {
+                    String file = relativeName(inputDir, input);
+                    Map<String, CrossLiteSettings> parsed = parse(input, file, failed);
+                    for (Map.Entry<String, CrossLiteSettings> channel : parsed.entrySet()) {
+                        List<EqBand> eqBands = channel.getValue().eqBands();
+                        for (int band = 0; band < eqBands.size(); band++) {
+                            EqBand eqBand = eqBands.get(band);
+                            // Fixed decimals like CsvFormat, never exponents or a locale's decimal comma
+                            writer.write(String.format(Locale.ROOT, "%s,%s,%d,%.6f,%.6f,%.6f\n", csv(file),
+                                    csv(channel.getKey()), band + 1, eqBand.frequency(), eqBand.gain(),
+                                    eqBand.qFactor()));
+                        }
+                        bands.addAndGet(eqBands.size());
+                    }
+                    channels.addAndGet(parsed.size());
+                }
+            }
+        }
+    }
+
+    private Map<String, CrossLiteSettings> parse(Path input, String file, AtomicInteger failed) {
+        List<CrossLiteParseException> problems = new ArrayList<>();
+        try {
+            Map<String, CrossLiteSettings> channels = parser.parseMultiChannel(
+                    conversionService.readContent(input), problems);
+            for (CrossLiteParseException problem : problems) {
+                log.warn("Skipping channel in {}: {}", file, problem.getMessage());
+            }
+            if (channels.isEmpty() && !problems.isEmpty()) {
+                // Nothing of the file made it into the export
+                failed.incrementAndGet();
+            }
+            return channels;
+        } catch (IOException e) {
+            log.warn("Skipping {}: {}", file, e.getMessage());
+            failed.incrementAndGet();
+            return Map.of();
+        }
+    }
+
+    private static void concatenateCsv(List<Path> parts, Path target) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            for (Path part : parts) {
+                Files.copy(part, out);
+            }
+        }
+    }
+
+    private static String relativeName(Path inputDir, Path input) {
+        return inputDir.relativize(input).toString().replace('\\', '/');
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,249 @@
+package dev.nathanlively.crosslite_r1_eq.export;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The columnar band export format. All values are big-endian:
+ * <pre>
+ * "XLBANDS1"
+ * block*      int rows, then int[rows] file ids, int[rows] channel ids, int[rows] band indexes,
+ *             double[rows] frequencies, double[rows] gains, double[rows] Q factors
+ * int 0       end of blocks
+ * dictionary  int count, then (int length, UTF-8 bytes) per name; file names first, then channel names
+ * long        offset of the dictionaries
+ * </pre>
+ * Shards write complete files of their own with local ids; {@link #merge} remaps them into one file.
+ */
+public final class BandFile {
+
+    static final byte[] MAGIC = "XLBANDS1".getBytes(StandardCharsets.US_ASCII);
+
+    private BandFile() {
+    }
+
+    /**
+     * Streams blocks to a file; the dictionaries are taken from the columns when the writer is closed.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+        private long position;
+        private BandColumns.Dictionary files = new BandColumns.Dictionary();
+        private BandColumns.Dictionary channels = new BandColumns.Dictionary();
+
+        public Writer(Path path) throws IOException {
+            this(Files.newOutputStream(path));
+        }
+
+        Writer(OutputStream stream) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            out.write(MAGIC);
+            position = MAGIC.length;
+        }
+
+        public void writeBlock(BandColumns columns) throws IOException {
+            files = columns.files();
+            channels = columns.channels();
+            int rows = columns.size();
+            if (rows == 0) {
+                return;
+            }
+            out.writeInt(rows);
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(columns.fileId(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(columns.channelId(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(columns.bandIndex(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeDouble(columns.frequency(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeDouble(columns.gain(i));
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeDouble(columns.qFactor(i));
+            }
+            position += Integer.BYTES + (long) rows * (3 * Integer.BYTES + 3 * Double.BYTES);
+        }
+
+        void useDictionaries(BandColumns.Dictionary files, BandColumns.Dictionary channels) {
+            this.files = files;
+            this.channels = channels;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (out) {
+                out.writeInt(0);
+                long dictionaryOffset = position + Integer.BYTES;
+                writeDictionary(files.names());
+                writeDictionary(channels.names());
+                out.writeLong(dictionaryOffset);
+            }
+        }
+
+        private void writeDictionary(List<String> names) throws IOException {
+            out.writeInt(names.size());
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Receives the rows of a band file one block at a time. Ids refer to the dictionaries passed to {@link #start}.
+     */
+    public interface BlockVisitor {
+        void start(List<String> files, List<String> channels) throws IOException;
+
+        void block(int rows, int[] fileIds, int[] channelIds, int[] bandIndexes, double[] frequencies,
+                   double[] gains, double[] qFactors) throws IOException;
+    }
+
+    public static void read(Path path, BlockVisitor visitor) throws IOException {
+        List<String> files;
+        List<String> channels;
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            DataInputStream trailer = new DataInputStream(Channels.newInputStream(channel.position(channel.size() - Long.BYTES)));
+            long dictionaryOffset = trailer.readLong();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel.position(dictionaryOffset))));
+            files = readDictionary(in);
+            channels = readDictionary(in);
+        }
+        visitor.start(files, channels);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            byte[] magic = in.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a band export file: " + path);
+            }
+            int[] fileIds = new int[0];
+            int[] channelIds = new int[0];
+            int[] bandIndexes = new int[0];
+            double[] frequencies = new double[0];
+            double[] gains = new double[0];
+            double[] qFactors = new double[0];
+            int rows;
+            while ((rows = in.readInt()) > 0) {
+                if (fileIds.length < rows) {
+                    fileIds = new int[rows];
+                    channelIds = new int[rows];
+                    bandIndexes = new int[rows];
+                    frequencies = new double[rows];
+                    gains = new double[rows];
+                    qFactors = new double[rows];
+                }
+                readInts(in, fileIds, rows);
+                readInts(in, channelIds, rows);
+                readInts(in, bandIndexes, rows);
+                readDoubles(in, frequencies, rows);
+                readDoubles(in, gains, rows);
+                readDoubles(in, qFactors, rows);
+                visitor.block(rows, fileIds, channelIds, bandIndexes, frequencies, gains, qFactors);
+            }
+        }
+    }
+
+    /**
+     * Read a whole band file into memory.
+     */
+    public static BandColumns readAll(Path path) throws IOException {
+        BandColumns columns = new BandColumns(1024);
+        read(path, new BlockVisitor() {
+            private List<String> files;
+            private List<String> channels;
+
+            @Override
+            public void start(List<String> files, List<String> channels) {
+                this.files = files;
+                this.channels = channels;
+            }
+
+            @Override
+            public void block(int rows, int[] fileIds, int[] channelIds, int[] bandIndexes, double[] frequencies,
+                              double[] gains, double[] qFactors) {
+                for (int i = 0; i < rows; i++) {
+                    columns.add(files.get(fileIds[i]), channels.get(channelIds[i]), bandIndexes[i],
+                            frequencies[i], gains[i], qFactors[i]);
+                }
+            }
+        });
+        return columns;
+    }
+
+    /**
+     * Concatenate shard files into {@code target}, remapping their local ids into one pair of dictionaries.
+     * Rows are regrouped into blocks of {@code blockRows}, so the result does not depend on the shard count.
+     */
+    public static void merge(List<Path> shards, Path target, int blockRows) throws IOException {
+        BandColumns merged = new BandColumns(blockRows);
+        try (Writer writer = new Writer(target)) {
+            writer.useDictionaries(merged.files(), merged.channels());
+            for (Path shard : shards) {
+                read(shard, new BlockVisitor() {
+                    private int[] fileMap;
+                    private int[] channelMap;
+
+                    @Override
+                    public void start(List<String> files, List<String> channels) {
+                        fileMap = files.stream().mapToInt(merged.files()::id).toArray();
+                        channelMap = channels.stream().mapToInt(merged.channels()::id).toArray();
+                    }
+
+                    @Override
+                    public void block(int rows, int[] fileIds, int[] channelIds, int[] bandIndexes,
+                                      double[] frequencies, double[] gains, double[] qFactors) throws IOException {
+                        for (int i = 0; i < rows; i++) {
+                            merged.addEncoded(fileMap[fileIds[i]], channelMap[channelIds[i]], bandIndexes[i],
+                                    frequencies[i], gains[i], qFactors[i]);
+                            if (merged.size() == blockRows) {
+                                writer.writeBlock(merged);
+                                merged.clearRows();
+                            }
+                        }
+                    }
+                });
+            }
+            writer.writeBlock(merged);
+        }
+    }
+
+    private static List<String> readDictionary(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+        }
+        return List.of(names);
+    }
+
+    private static void readInts(DataInputStream in, int[] values, int rows) throws IOException {
+        for (int i = 0; i < rows; i++) {
+            values[i] = in.readInt();
+        }
+    }
+
+    private static void readDoubles(DataInputStream in, double[] values, int rows) throws IOException {
+        for (int i = 0; i < rows; i++) {
+            values[i] = in.readDouble();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package dev.nathanlively.crosslite_r1_eq.export;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+@Command(group = "Analysis")
+public class ExportCommands {
+
+    private final BandExporter exporter;
+
+    public ExportCommands(BandExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Command(command = "export-bands", description = "Export every EQ band of a directory for analysis")
+    public String exportBands(
+            @Option(longNames = "input", shortNames = 'i', required = true, description = "Directory containing .txt files") String inputDir,
+            @Nullable @Option(longNames = "output", shortNames = 'o', description = "Output file (optional, defaults to bands.xlb or bands.csv)") String outputPath,
+            @Option(longNames = "csv", description = "Write CSV instead of the columnar binary format") boolean csv,
+            @Option(longNames = "shards", defaultValue = "0", description = "Parallel shards (0 = available processors)") int shards) {
+        try {
+            BandExporter.Format format = csv ? BandExporter.Format.CSV : BandExporter.Format.BINARY;
+            Path target = outputPath != null ? Paths.get(outputPath) : Paths.get(csv ? "bands.csv" : "bands.xlb");
+            int shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+            ExportStats stats = exporter.export(Paths.get(inputDir), target, format, shardCount);
+            return String.format(Locale.ROOT, "✅ Exported %d band(s) from %d channel(s) in %d file(s) to '%s' (%.1f KB)%s",
+                    stats.bands(), stats.channels(), stats.files(), target, stats.bytes() / 1024.0,
+                    stats.failedFiles() > 0 ? ", " + stats.failedFiles() + " file(s) unreadable" : "");
+        } catch (IllegalArgumentException | IOException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "❌ Export interrupted";
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.nathanlively.crosslite_r1_eq.export;
+
+/**
+ * Totals of a band export.
+ */
+public record ExportStats(
+    int files,
+    long channels,
+    long bands,
+    int failedFiles,
+    long bytes
+) {
+}
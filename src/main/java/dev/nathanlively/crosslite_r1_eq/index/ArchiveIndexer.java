@@ -0,0 +1,142 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParseException;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link BandIndex} stored in an archive directory in step with the .txt files in it.
+ */
+@Component
+public class ArchiveIndexer {
+
+    public static final String INDEX_FILE_NAME = ".crosslite-r1-eq.index";
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveIndexer.class);
+
+    private final FileConversionService conversionService;
+    private final CrossLiteParser parser;
+
+    public ArchiveIndexer(FileConversionService conversionService, CrossLiteParser parser) {
+        this.conversionService = conversionService;
+        this.parser = parser;
+    }
+
+    /**
+     * Result of a refresh: the current index and how many source files had to be (re)indexed or dropped.
+     */
+    public record Refresh(BandIndex index, int indexed, int removed) {
+    }
+
+    /**
+     * Load the stored index without looking at the source files.
+     */
+    public BandIndex load(Path archive) throws IOException {
+        Path indexFile = archive.resolve(INDEX_FILE_NAME);
+        return Files.exists(indexFile) ? BandIndex.load(indexFile) : BandIndex.empty();
+    }
+
+    /**
+     * Re-index new and modified files, drop deleted ones, and save the index if anything changed.
+     */
+    public Refresh refresh(Path archive) throws IOException {
+        if (!Files.isDirectory(archive)) {
+            throw new IllegalArgumentException("Archive directory does not exist: " + archive);
+        }
+        BandIndex index = load(archive);
+        Map<String, BandIndex.SourceFile> known = new HashMap<>();
+        for (BandIndex.SourceFile file : index.files()) {
+            known.put(file.path(), file);
+        }
+
+        List<BandIndex.SourceFile> stale = new ArrayList<>();
+        Set<String> present = new HashSet<>();
+        try (Stream<Path> files = Files.walk(archive)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.toString().toLowerCase();
+                if (!name.endsWith(".txt")) {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                BandIndex.SourceFile current = new BandIndex.SourceFile(
+                        archive.relativize(path).toString().replace('\\', '/'), attributes.size(),
+                        attributes.lastModifiedTime().toMillis());
+                present.add(current.path());
+                if (!current.equals(known.get(current.path()))) {
+                    stale.add(current);
+                }
+            }
+        }
+        List<String> removed = known.keySet().stream().filter(path -> !present.contains(path)).toList();
+        if (stale.isEmpty() && removed.isEmpty()) {
+            return new Refresh(index, 0, 0);
+        }
+
+        // Unreadable files are left out and retried on the next refresh
+        List<BandIndex.FileBands> changed = stale.parallelStream()
+                .map(file -> parse(archive, file))
+                .filter(Objects::nonNull)
+                .toList();
+        BandIndex updated = index.update(removed, changed);
+        updated.save(archive.resolve(INDEX_FILE_NAME));
+        log.info("Indexed {} file(s), removed {}, {} band(s) in index", stale.size(), removed.size(), updated.size());
+        return new Refresh(updated, stale.size(), removed.size());
+    }
+
+    private BandIndex.@Nullable FileBands parse(Path archive, BandIndex.SourceFile file) {
+        Map<String, CrossLiteSettings> channels;
+        List<CrossLiteParseException> problems = new ArrayList<>();
+        try {
+            channels = parser.parseMultiChannel(conversionService.readContent(archive.resolve(file.path())), problems);
+        } catch (IOException e) {
+            log.warn("Not indexing {}: {}", file.path(), e.getMessage());
+            return null;
+        }
+        for (CrossLiteParseException problem : problems) {
+            log.warn("Not indexing a channel of {}: {}", file.path(), problem.getMessage());
+        }
+
+        List<String> names = new ArrayList<>(channels.keySet());
+        int size = channels.values().stream().mapToInt(settings -> settings.eqBands().size()).sum();
+        int[] channelIndexes = new int[size];
+        int[] bandNumbers = new int[size];
+        double[] frequencies = new double[size];
+        double[] gains = new double[size];
+        double[] qFactors = new double[size];
+        int row = 0;
+        for (int channel = 0; channel < names.size(); channel++) {
+            List<EqBand> bands = channels.get(names.get(channel)).eqBands();
+            for (int band = 0; band < bands.size(); band++) {
+                channelIndexes[row] = channel;
+                bandNumbers[row] = band + 1;
+                frequencies[row] = bands.get(band).frequency();
+                gains[row] = bands.get(band).gain();
+                qFactors[row] = bands.get(band).qFactor();
+                row++;
+            }
+        }
+        return new BandIndex.FileBands(file, names, channelIndexes, bandNumbers, frequencies, gains, qFactors);
+    }
+}
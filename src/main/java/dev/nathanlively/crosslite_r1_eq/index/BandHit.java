@@ -0,0 +1,14 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+/**
+ * A band matching a {@link BandQuery}. {@code band} is the 1-based position within its channel.
+ */
+public record BandHit(
+    String file,
+    String channel,
+    int band,
+    double frequency,
+    double gain,
+    double qFactor
+) {
+}
@@ -0,0 +1,33 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders search results for the shell: a summary line, then the hits grouped by file and channel.
+ */
+public final class BandHits {
+
+    private BandHits() {
+    }
+
+    /**
+     * @param total how many bands matched, of which {@code hits} are the first ones
+     */
+    public static String format(String summary, List<BandHit> hits, long total) {
+        Map<String, StringBuilder> byChannel = new LinkedHashMap<>();
+        for (BandHit hit : hits) {
+            byChannel.computeIfAbsent(hit.file() + " [" + hit.channel() + "]", key -> new StringBuilder())
+                    .append(String.format(Locale.ROOT, "\n    band %d: %.1f Hz, %.1f dB, Q %.3f",
+                            hit.band(), hit.frequency(), hit.gain(), hit.qFactor()));
+        }
+        StringBuilder result = new StringBuilder(summary);
+        byChannel.forEach((channel, bands) -> result.append("\n  ").append(channel).append(bands));
+        if (total > hits.size()) {
+            result.append(String.format("\n  ... %d more (use --limit)", total - hits.size()));
+        }
+        return result.toString();
+    }
+}
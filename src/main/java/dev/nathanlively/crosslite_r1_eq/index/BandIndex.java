@@ -0,0 +1,359 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every band of an archive, held as primitive columns sorted by frequency. A query binary-searches the
+ * frequency range and filters gain and Q with a linear scan of just that range.
+ * <p>
+ * The index remembers the size and modification time of each source file, so {@link #update} only has to
+ * re-parse files that changed: their old rows are dropped and the new rows merged in, without re-sorting.
+ * Indexes are immutable; updating returns a new one.
+ */
+public final class BandIndex {
+
+    static final byte[] MAGIC = "XLINDEX1".getBytes(StandardCharsets.US_ASCII);
+
+    private final List<SourceFile> files;
+    private final List<String> channelNames;
+    private final double[] frequencies;
+    private final double[] gains;
+    private final double[] qFactors;
+    private final int[] fileIds;
+    private final int[] channelIds;
+    private final int[] bandNumbers;
+
+    /**
+     * A source file as it was when indexed.
+     */
+    public record SourceFile(String path, long size, long lastModified) {
+    }
+
+    /**
+     * Bands parsed from one source file, in any order.
+     */
+    public record FileBands(SourceFile file, List<String> channels, int[] channelIndexes, int[] bandNumbers,
+                            double[] frequencies, double[] gains, double[] qFactors) {
+        public int size() {
+            return frequencies.length;
+        }
+    }
+
+    private BandIndex(List<SourceFile> files, List<String> channelNames, double[] frequencies, double[] gains,
+                      double[] qFactors, int[] fileIds, int[] channelIds, int[] bandNumbers) {
+        this.files = files;
+        this.channelNames = channelNames;
+        this.frequencies = frequencies;
+        this.gains = gains;
+        this.qFactors = qFactors;
+        this.fileIds = fileIds;
+        this.channelIds = channelIds;
+        this.bandNumbers = bandNumbers;
+    }
+
+    public static BandIndex empty() {
+        return new BandIndex(List.of(), List.of(), new double[0], new double[0], new double[0], new int[0],
+                new int[0], new int[0]);
+    }
+
+    public int size() {
+        return frequencies.length;
+    }
+
+    public List<SourceFile> files() {
+        return files;
+    }
+
+    /**
+     * Matching bands in ascending frequency order, at most {@code limit} of them.
+     */
+    public List<BandHit> search(BandQuery query, int limit) {
+        List<BandHit> hits = new ArrayList<>();
+        int end = frequencies.length;
+        for (int row = lowerBound(query.minFrequency()); row < end && hits.size() < limit; row++) {
+            if (frequencies[row] > query.maxFrequency()) {
+                break;
+            }
+            if (gains[row] >= query.minGain() && gains[row] <= query.maxGain()
+                    && qFactors[row] >= query.minQ() && qFactors[row] <= query.maxQ()) {
+                hits.add(hit(row));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Number of matching bands, without materializing hits.
+     */
+    public int count(BandQuery query) {
+        int count = 0;
+        int end = frequencies.length;
+        for (int row = lowerBound(query.minFrequency()); row < end && frequencies[row] <= query.maxFrequency(); row++) {
+            if (gains[row] >= query.minGain() && gains[row] <= query.maxGain()
+                    && qFactors[row] >= query.minQ() && qFactors[row] <= query.maxQ()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replace the rows of {@code removed} files and of every file in {@code changed} with the new bands.
+     * Runs in O(n + k log k) for n existing rows and k new ones.
+     */
+    public BandIndex update(List<String> removed, List<FileBands> changed) {
+        Map<String, Integer> oldIds = new HashMap<>();
+        for (int id = 0; id < files.size(); id++) {
+            oldIds.put(files.get(id).path(), id);
+        }
+        boolean[] dropped = new boolean[files.size()];
+        for (String path : removed) {
+            Integer id = oldIds.get(path);
+            if (id != null) {
+                dropped[id] = true;
+            }
+        }
+        for (FileBands fileBands : changed) {
+            Integer id = oldIds.get(fileBands.file().path());
+            if (id != null) {
+                dropped[id] = true;
+            }
+        }
+
+        // Compact the file and channel tables to what the kept rows and new files still use
+        List<SourceFile> newFiles = new ArrayList<>();
+        int[] fileMap = new int[files.size()];
+        for (int id = 0; id < files.size(); id++) {
+            fileMap[id] = dropped[id] ? -1 : newFiles.size();
+            if (!dropped[id]) {
+                newFiles.add(files.get(id));
+            }
+        }
+        List<String> newChannels = new ArrayList<>();
+        Map<String, Integer> channelLookup = new HashMap<>();
+        int[] channelMap = new int[channelNames.size()];
+        Arrays.fill(channelMap, -1);
+
+        int kept = 0;
+        for (int row = 0; row < frequencies.length; row++) {
+            if (fileMap[fileIds[row]] >= 0) {
+                kept++;
+            }
+        }
+        int added = changed.stream().mapToInt(FileBands::size).sum();
+        int total = kept + added;
+
+        // New rows, sorted by frequency via an index permutation
+        double[] addFrequency = new double[added];
+        double[] addGain = new double[added];
+        double[] addQ = new double[added];
+        int[] addFile = new int[added];
+        int[] addChannel = new int[added];
+        int[] addBand = new int[added];
+        int next = 0;
+        for (FileBands fileBands : changed) {
+            int fileId = newFiles.size();
+            newFiles.add(fileBands.file());
+            for (int i = 0; i < fileBands.size(); i++) {
+                String channel = fileBands.channels().get(fileBands.channelIndexes()[i]);
+                addFrequency[next] = fileBands.frequencies()[i];
+                addGain[next] = fileBands.gains()[i];
+                addQ[next] = fileBands.qFactors()[i];
+                addFile[next] = fileId;
+                addChannel[next] = channelLookup.computeIfAbsent(channel, name -> {
+                    newChannels.add(name);
+                    return newChannels.size() - 1;
+                });
+                addBand[next] = fileBands.bandNumbers()[i];
+                next++;
+            }
+        }
+        int[] order = sortedOrder(addFrequency);
+
+        double[] frequency = new double[total];
+        double[] gain = new double[total];
+        double[] q = new double[total];
+        int[] file = new int[total];
+        int[] channel = new int[total];
+        int[] band = new int[total];
+        int row = 0;
+        int newRow = 0;
+        for (int out = 0; out < total; out++) {
+            while (row < frequencies.length && fileMap[fileIds[row]] < 0) {
+                row++;
+            }
+            boolean takeOld = row < frequencies.length
+                    && (newRow == added || frequencies[row] <= addFrequency[order[newRow]]);
+            if (takeOld) {
+                int oldChannel = channelIds[row];
+                if (channelMap[oldChannel] < 0) {
+                    String name = channelNames.get(oldChannel);
+                    channelMap[oldChannel] = channelLookup.computeIfAbsent(name, key -> {
+                        newChannels.add(key);
+                        return newChannels.size() - 1;
+                    });
+                }
+                frequency[out] = frequencies[row];
+                gain[out] = gains[row];
+                q[out] = qFactors[row];
+                file[out] = fileMap[fileIds[row]];
+                channel[out] = channelMap[oldChannel];
+                band[out] = bandNumbers[row];
+                row++;
+            } else {
+                int source = order[newRow++];
+                frequency[out] = addFrequency[source];
+                gain[out] = addGain[source];
+                q[out] = addQ[source];
+                file[out] = addFile[source];
+                channel[out] = addChannel[source];
+                band[out] = addBand[source];
+            }
+        }
+        return new BandIndex(List.copyOf(newFiles), List.copyOf(newChannels), frequency, gain, q, file, channel,
+                band);
+    }
+
+    public void save(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeInt(files.size());
+            for (SourceFile file : files) {
+                writeString(out, file.path());
+                out.writeLong(file.size());
+                out.writeLong(file.lastModified());
+            }
+            out.writeInt(channelNames.size());
+            for (String name : channelNames) {
+                writeString(out, name);
+            }
+            out.writeInt(frequencies.length);
+            for (double value : frequencies) {
+                out.writeDouble(value);
+            }
+            for (double value : gains) {
+                out.writeDouble(value);
+            }
+            for (double value : qFactors) {
+                out.writeDouble(value);
+            }
+            for (int value : fileIds) {
+                out.writeInt(value);
+            }
+            for (int value : channelIds) {
+                out.writeInt(value);
+            }
+            for (int value : bandNumbers) {
+                out.writeInt(value);
+            }
+        }
+        // Readers never see a half-written index
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static BandIndex load(Path path) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        byte[] magic = new byte[MAGIC.length];
+        in.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a band index: " + path);
+        }
+        SourceFile[] files = new SourceFile[in.getInt()];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = new SourceFile(readString(in), in.getLong(), in.getLong());
+        }
+        String[] channels = new String[in.getInt()];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = readString(in);
+        }
+        int rows = in.getInt();
+        double[] frequencies = new double[rows];
+        double[] gains = new double[rows];
+        double[] qFactors = new double[rows];
+        int[] fileIds = new int[rows];
+        int[] channelIds = new int[rows];
+        int[] bandNumbers = new int[rows];
+        in.asDoubleBuffer().get(frequencies);
+        in.position(in.position() + rows * Double.BYTES);
+        in.asDoubleBuffer().get(gains);
+        in.position(in.position() + rows * Double.BYTES);
+        in.asDoubleBuffer().get(qFactors);
+        in.position(in.position() + rows * Double.BYTES);
+        in.asIntBuffer().get(fileIds);
+        in.position(in.position() + rows * Integer.BYTES);
+        in.asIntBuffer().get(channelIds);
+        in.position(in.position() + rows * Integer.BYTES);
+        in.asIntBuffer().get(bandNumbers);
+        return new BandIndex(List.of(files), List.of(channels), frequencies, gains, qFactors, fileIds, channelIds,
+                bandNumbers);
+    }
+
+    /**
+     * Row order by ascending value without boxing: sort (float value, row) pairs packed into longs, then an
+     * insertion pass settles the few neighbours that were equal as floats but not as doubles.
+     * Values must be positive, as frequencies are, so that their float bits sort like the values.
+     */
+    static int[] sortedOrder(double[] values) {
+        long[] keys = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            keys[i] = ((long) Float.floatToIntBits((float) values[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[values.length];
+        for (int i = 0; i < order.length; i++) {
+            int row = (int) keys[i];
+            int j = i;
+            while (j > 0 && values[order[j - 1]] > values[row]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = row;
+        }
+        return order;
+    }
+
+    private int lowerBound(double frequency) {
+        int low = 0;
+        int high = frequencies.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (frequencies[mid] < frequency) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private BandHit hit(int row) {
+        return new BandHit(files.get(fileIds[row]).path(), channelNames.get(channelIds[row]), bandNumbers[row],
+                frequencies[row], gains[row], qFactors[row]);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,24 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+/**
+ * Inclusive ranges a band must fall in. Use infinities for open ends.
+ */
+public record BandQuery(
+    double minFrequency,
+    double maxFrequency,
+    double minGain,
+    double maxGain,
+    double minQ,
+    double maxQ
+) {
+    public BandQuery {
+        if (minFrequency > maxFrequency || minGain > maxGain || minQ > maxQ) {
+            throw new IllegalArgumentException("Query ranges must not be empty");
+        }
+    }
+
+    public static BandQuery any() {
+        return new BandQuery(0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                0, Double.POSITIVE_INFINITY);
+    }
+}
@@ -0,0 +1,56 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+@Command(group = "Analysis")
+public class SearchCommands {
+
+    private final ArchiveIndexer indexer;
+
+    public SearchCommands(ArchiveIndexer indexer) {
+        this.indexer = indexer;
+    }
+
+    @Command(command = "search", description = "Find channels with EQ bands in a frequency, gain and Q range")
+    public String search(
+            @Option(longNames = "dir", shortNames = 'd', defaultValue = ".", description = "Archive directory") String dir,
+            @Option(longNames = "min-freq", defaultValue = "0", description = "Lowest frequency in Hz") double minFrequency,
+            @Option(longNames = "max-freq", defaultValue = "Infinity", description = "Highest frequency in Hz") double maxFrequency,
+            @Option(longNames = "min-gain", defaultValue = "-Infinity", description = "Lowest gain in dB") double minGain,
+            @Option(longNames = "max-gain", defaultValue = "Infinity", description = "Highest gain in dB (e.g. -4 for cuts deeper than 4 dB)") double maxGain,
+            @Option(longNames = "min-q", defaultValue = "0", description = "Lowest Q") double minQ,
+            @Option(longNames = "max-q", defaultValue = "Infinity", description = "Highest Q") double maxQ,
+            @Option(longNames = "limit", defaultValue = "50", description = "Maximum bands to list") int limit,
+            @Option(longNames = "no-refresh", description = "Query the stored index without checking for changed files") boolean noRefresh) {
+        try {
+            BandQuery query = new BandQuery(minFrequency, maxFrequency, minGain, maxGain, minQ, maxQ);
+            BandIndex index;
+            String refreshed = "";
+            if (noRefresh) {
+                index = indexer.load(Paths.get(dir));
+            } else {
+                ArchiveIndexer.Refresh refresh = indexer.refresh(Paths.get(dir));
+                index = refresh.index();
+                if (refresh.indexed() + refresh.removed() > 0) {
+                    refreshed = String.format(" (re-indexed %d file(s), removed %d)", refresh.indexed(), refresh.removed());
+                }
+            }
+
+            long start = System.nanoTime();
+            int total = index.count(query);
+            List<BandHit> hits = index.search(query, limit);
+            double millis = (System.nanoTime() - start) / 1e6;
+
+            return BandHits.format(String.format(Locale.ROOT, "Found %d band(s) among %d indexed in %.2f ms%s",
+                    total, index.size(), millis, refreshed), hits, total);
+        } catch (IllegalArgumentException | IOException e) {
+            return "❌ Error: " + e.getMessage();
+        }
+    }
+}
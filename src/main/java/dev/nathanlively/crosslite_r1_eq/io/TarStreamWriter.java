@@ -0,0 +1,80 @@
+package dev.nathanlively.crosslite_r1_eq.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes regular files as a POSIX ustar stream, e.g. to standard output for {@code tar -x}. Each entry is
+ * flushed as soon as it is added, so a reader at the other end of a pipe can start on it right away.
+ * {@link #finish()} ends the archive but leaves the underlying stream open. A writer that fails part way is
+ * simply not finished, so the reader sees a truncated archive rather than a complete one missing entries.
+ */
+public final class TarStreamWriter {
+
+    private static final int BLOCK = 512;
+    private static final int NAME_BYTES = 100;
+
+    private final OutputStream out;
+    private final long modified = System.currentTimeMillis() / 1000;
+
+    public TarStreamWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void add(String name, byte[] content) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length == 0 || nameBytes.length > NAME_BYTES) {
+            throw new IllegalArgumentException("Tar entry name must be 1 to 100 bytes: " + name);
+        }
+        byte[] header = new byte[BLOCK];
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        octal(header, 100, 8, 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, content.length);
+        octal(header, 136, 12, modified);
+        header[156] = '0';
+        ascii(header, 257, "ustar\0");
+        ascii(header, 263, "00");
+
+        // The checksum is computed with its own field filled with spaces
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        int checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        octal(header, 148, 7, checksum);
+        header[155] = ' ';
+
+        out.write(header);
+        out.write(content);
+        out.write(new byte[padding(content.length)]);
+        out.flush();
+    }
+
+    public void finish() throws IOException {
+        out.write(new byte[2 * BLOCK]);
+        out.flush();
+    }
+
+    private static int padding(int length) {
+        return (BLOCK - length % BLOCK) % BLOCK;
+    }
+
+    private static void octal(byte[] header, int offset, int length, long value) {
+        // Zero-padded octal digits followed by a NUL, as ustar expects
+        String digits = Long.toOctalString(value);
+        if (digits.length() > length - 1) {
+            throw new IllegalArgumentException("Value too large for a tar header: " + value);
+        }
+        ascii(header, offset, "0".repeat(length - 1 - digits.length()) + digits);
+        header[offset + length - 1] = 0;
+    }
+
+    private static void ascii(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+}
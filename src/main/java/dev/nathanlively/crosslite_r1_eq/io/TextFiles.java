@@ -0,0 +1,208 @@
+package dev.nathanlively.crosslite_r1_eq.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads text files whose encoding is not known up front. CrossLite machines export UTF-8, UTF-16 (with or
+ * without a BOM) and Windows-1252, so the encoding is sniffed from the bytes and each file is decoded exactly
+ * once. Decoders and byte/char buffers are pooled per thread; malformed input is replaced rather than thrown.
+ */
+public final class TextFiles {
+
+    public static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    private static final int SNIFF_BYTES = 512;
+    // Buffers above this size are not kept in the pool, so one huge file does not pin memory
+    private static final int MAX_POOLED_BYTES = 8 << 20;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private TextFiles() {
+    }
+
+    public static String read(Path path) throws IOException {
+        Buffers buffers = BUFFERS.get();
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            ByteBuffer bytes = buffers.bytes((int) Math.min(Integer.MAX_VALUE - 8, channel.size()));
+            while (channel.read(bytes) >= 0) {
+                if (!bytes.hasRemaining()) {
+                    // The file grew, or the channel does not know its size
+                    bytes = buffers.growBytes();
+                }
+            }
+            bytes.flip();
+            return decode(bytes, buffers);
+        }
+    }
+
+    public static String decode(byte[] bytes, int length) {
+        return decode(ByteBuffer.wrap(bytes, 0, length), BUFFERS.get());
+    }
+
+    /**
+     * Detect the encoding of {@code length} bytes: a BOM wins, then the zero-byte pattern of UTF-16 text,
+     * then a UTF-8 validity scan, with Windows-1252 as the fallback.
+     */
+    public static Charset detect(byte[] bytes, int offset, int length) {
+        int bomLength = bomLength(bytes, offset, length);
+        if (bomLength == 3) {
+            return StandardCharsets.UTF_8;
+        }
+        if (bomLength == 2) {
+            return (bytes[offset] & 0xFF) == 0xFF ? StandardCharsets.UTF_16LE : StandardCharsets.UTF_16BE;
+        }
+        Charset utf16 = sniffUtf16(bytes, offset, Math.min(length, SNIFF_BYTES));
+        if (utf16 != null) {
+            return utf16;
+        }
+        return isValidUtf8(bytes, offset, length) ? StandardCharsets.UTF_8 : WINDOWS_1252;
+    }
+
+    private static String decode(ByteBuffer bytes, Buffers buffers) {
+        byte[] array = bytes.array();
+        int offset = bytes.arrayOffset() + bytes.position();
+        int length = bytes.remaining();
+        Charset charset = detect(array, offset, length);
+        bytes.position(bytes.position() + bomLength(array, offset, length));
+
+        CharsetDecoder decoder = buffers.decoder(charset);
+        CharBuffer chars = buffers.chars((int) Math.ceil(bytes.remaining() * (double) decoder.maxCharsPerByte()));
+        decoder.decode(bytes, chars, true);
+        decoder.flush(chars);
+        chars.flip();
+        String text = chars.toString();
+        buffers.release();
+        return text;
+    }
+
+    private static int bomLength(byte[] bytes, int offset, int length) {
+        if (length >= 3 && (bytes[offset] & 0xFF) == 0xEF && (bytes[offset + 1] & 0xFF) == 0xBB
+                && (bytes[offset + 2] & 0xFF) == 0xBF) {
+            return 3;
+        }
+        if (length >= 2) {
+            int first = bytes[offset] & 0xFF;
+            int second = bytes[offset + 1] & 0xFF;
+            if ((first == 0xFF && second == 0xFE) || (first == 0xFE && second == 0xFF)) {
+                return 2;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Mostly-ASCII UTF-16 text has a zero in every other byte; which half holds the zeros gives the byte order.
+     */
+    private static Charset sniffUtf16(byte[] bytes, int offset, int length) {
+        int pairs = length / 2;
+        if (pairs < 2) {
+            return null;
+        }
+        int evenZeros = 0;
+        int oddZeros = 0;
+        for (int i = 0; i < pairs * 2; i += 2) {
+            if (bytes[offset + i] == 0) {
+                evenZeros++;
+            }
+            if (bytes[offset + i + 1] == 0) {
+                oddZeros++;
+            }
+        }
+        if (oddZeros * 10 >= pairs * 4 && evenZeros * 10 < pairs) {
+            return StandardCharsets.UTF_16LE;
+        }
+        if (evenZeros * 10 >= pairs * 4 && oddZeros * 10 < pairs) {
+            return StandardCharsets.UTF_16BE;
+        }
+        return null;
+    }
+
+    private static boolean isValidUtf8(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            int lead = bytes[i] & 0xFF;
+            if (lead < 0x80) {
+                i++;
+                continue;
+            }
+            int continuation;
+            if (lead >= 0xC2 && lead <= 0xDF) {
+                continuation = 1;
+            } else if (lead >= 0xE0 && lead <= 0xEF) {
+                continuation = 2;
+            } else if (lead >= 0xF0 && lead <= 0xF4) {
+                continuation = 3;
+            } else {
+                return false;
+            }
+            if (i + continuation >= end) {
+                return false;
+            }
+            for (int k = 1; k <= continuation; k++) {
+                if ((bytes[i + k] & 0xC0) != 0x80) {
+                    return false;
+                }
+            }
+            i += continuation + 1;
+        }
+        return true;
+    }
+
+    private static final class Buffers {
+        private final Map<Charset, CharsetDecoder> decoders = new HashMap<>();
+        private ByteBuffer bytes = ByteBuffer.allocate(64 << 10);
+        private CharBuffer chars = CharBuffer.allocate(64 << 10);
+
+        ByteBuffer bytes(int expected) {
+            // One spare byte lets the read loop see end-of-file without growing
+            if (bytes.capacity() < expected + 1) {
+                bytes = ByteBuffer.allocate(expected + 1);
+            }
+            bytes.clear();
+            return bytes;
+        }
+
+        ByteBuffer growBytes() {
+            ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+            bytes.flip();
+            larger.put(bytes);
+            bytes = larger;
+            return bytes;
+        }
+
+        CharBuffer chars(int expected) {
+            if (chars.capacity() < expected) {
+                chars = CharBuffer.allocate(expected);
+            }
+            chars.clear();
+            return chars;
+        }
+
+        CharsetDecoder decoder(Charset charset) {
+            return decoders.computeIfAbsent(charset, key -> key.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)).reset();
+        }
+
+        void release() {
+            if (bytes.capacity() > MAX_POOLED_BYTES) {
+                bytes = ByteBuffer.allocate(64 << 10);
+            }
+            if (chars.capacity() > MAX_POOLED_BYTES) {
+                chars = CharBuffer.allocate(64 << 10);
+            }
+        }
+    }
+}
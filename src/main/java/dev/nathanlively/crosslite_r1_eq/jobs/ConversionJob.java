@@ -0,0 +1,111 @@
+package dev.nathanlively.crosslite_r1_eq.jobs;
+
+import dev.nathanlively.crosslite_r1_eq.progress.ConversionProgress;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A conversion running in the background. State and result are written by the job's own thread
+ * and may be read from any thread.
+ */
+public final class ConversionJob {
+
+    public enum State { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private final int id;
+    private final String description;
+    private final ConversionProgress progress = new ConversionProgress();
+    private final CompletableFuture<String> outcome = new CompletableFuture<>();
+    private final Instant submitted = Instant.now();
+    private volatile State state = State.QUEUED;
+    private volatile @Nullable Instant finished;
+    // The job's thread while it waits for a permit, guarded by this
+    private @Nullable Thread waiter;
+
+    ConversionJob(int id, String description) {
+        this.id = id;
+        this.description = description;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public ConversionProgress progress() {
+        return progress;
+    }
+
+    public boolean isDone() {
+        return outcome.isDone();
+    }
+
+    /**
+     * The result message, or null while the job is still queued or running.
+     */
+    public @Nullable String result() {
+        return outcome.getNow(null);
+    }
+
+    public Duration elapsed() {
+        Instant end = finished;
+        return Duration.between(submitted, end != null ? end : Instant.now());
+    }
+
+    /**
+     * Ask the job to stop. A queued job never starts; a running one stops before its next file or channel.
+     */
+    public void cancel() {
+        progress.cancel();
+        synchronized (this) {
+            if (waiter != null) {
+                waiter.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Block until the job finishes and return its result message.
+     *
+     * @param timeout how long to wait, or {@link Duration#ZERO} to wait indefinitely
+     */
+    public String await(Duration timeout) throws InterruptedException, TimeoutException {
+        try {
+            return timeout.isZero() ? outcome.get() : outcome.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Jobs always complete normally with a message
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    synchronized void waitingOn(Thread thread) {
+        waiter = thread;
+    }
+
+    synchronized void started() {
+        waiter = null;
+        // A cancel that raced with getting the permit must not interrupt the conversion's I/O; the cancelled
+        // progress stops it instead
+        Thread.interrupted();
+        state = State.RUNNING;
+    }
+
+    void finish(State finalState, String message) {
+        finished = Instant.now();
+        state = finalState;
+        outcome.complete(message);
+    }
+}
@@ -0,0 +1,82 @@
+package dev.nathanlively.crosslite_r1_eq.jobs;
+
+import dev.nathanlively.crosslite_r1_eq.progress.ProgressRenderer;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+@Command(group = "Jobs")
+public class JobCommands {
+
+    private final JobManager jobManager;
+
+    public JobCommands(JobManager jobManager) {
+        this.jobManager = jobManager;
+    }
+
+    @Command(command = "jobs", description = "List background conversions")
+    public String jobs() {
+        List<ConversionJob> jobs = jobManager.jobs();
+        if (jobs.isEmpty()) {
+            return "No background jobs. Start one with: convert-directory -i \".\" --background";
+        }
+        StringBuilder result = new StringBuilder();
+        for (ConversionJob job : jobs) {
+            if (!result.isEmpty()) {
+                result.append('\n');
+            }
+            result.append(String.format("#%d %-9s %s", job.id(), job.state(), job.description()))
+                    .append("\n    ").append(job.isDone() ? job.result() : ProgressRenderer.format(job.progress().snapshot()));
+        }
+        return result.toString();
+    }
+
+    @Command(command = "job-status", description = "Show the progress or result of a background conversion")
+    public String jobStatus(
+            @Option(longNames = "job", shortNames = 'j', required = true, description = "Job number") int id) {
+        ConversionJob job = jobManager.job(id);
+        if (job == null) {
+            return "❌ Error: No job #" + id;
+        }
+        return String.format("#%d %s (%ds)\n  %s\n  %s", job.id(), job.state(), job.elapsed().toSeconds(),
+                job.description(), job.isDone() ? job.result() : ProgressRenderer.format(job.progress().snapshot()));
+    }
+
+    @Command(command = "wait", description = "Wait for a background conversion to finish")
+    public String await(
+            @Option(longNames = "job", shortNames = 'j', required = true, description = "Job number") int id,
+            @Option(longNames = "timeout", defaultValue = "0", description = "Seconds to wait (0 = until done)") long timeoutSeconds) {
+        ConversionJob job = jobManager.job(id);
+        if (job == null) {
+            return "❌ Error: No job #" + id;
+        }
+        try {
+            String result = job.await(Duration.ofSeconds(timeoutSeconds));
+            String status = job.state() == ConversionJob.State.SUCCEEDED ? "✅" : "❌";
+            return String.format("%s Job #%d %s: %s", status, id, job.state(), result);
+        } catch (TimeoutException e) {
+            return String.format("⏳ Job #%d still %s: %s", id, job.state(),
+                    ProgressRenderer.format(job.progress().snapshot()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "❌ Wait interrupted; job #" + id + " keeps running";
+        }
+    }
+
+    @Command(command = "cancel", description = "Stop a background conversion")
+    public String cancel(
+            @Option(longNames = "job", shortNames = 'j', required = true, description = "Job number") int id) {
+        ConversionJob job = jobManager.job(id);
+        if (job == null) {
+            return "❌ Error: No job #" + id;
+        }
+        if (job.isDone()) {
+            return String.format("Job #%d already %s", id, job.state());
+        }
+        job.cancel();
+        return String.format("Cancelling job #%d; it stops before its next file", id);
+    }
+}
@@ -0,0 +1,136 @@
+package dev.nathanlively.crosslite_r1_eq.jobs;
+
+import dev.nathanlively.crosslite_r1_eq.DirectoryOptions;
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.report.ConversionReport;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormat;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs directory conversions in the background so the shell stays usable.
+ * <p>
+ * Every job gets its own virtual thread, but only as many jobs as there are processors convert at the same time;
+ * the rest wait in {@link ConversionJob.State#QUEUED} for a permit. Each conversion is single-threaded, so the
+ * permits bound the CPU used by all jobs together. Cancellation is cooperative, via the job's progress, except that
+ * a queued job is interrupted out of its wait for a permit.
+ */
+@Component
+public class JobManager implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JobManager.class);
+
+    private final FileConversionService conversionService;
+    private final Semaphore running;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("conversion-job-", 1).factory());
+    private final Map<Integer, ConversionJob> jobs = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    @Autowired
+    public JobManager(FileConversionService conversionService) {
+        this(conversionService, Runtime.getRuntime().availableProcessors());
+    }
+
+    JobManager(FileConversionService conversionService, int maxRunning) {
+        this(conversionService, new Semaphore(maxRunning, true));
+    }
+
+    JobManager(FileConversionService conversionService, Semaphore running) {
+        this.conversionService = conversionService;
+        this.running = running;
+    }
+
+    public ConversionJob submitDirectory(String inputDir, String outputDir, DirectoryOptions options) {
+        return submit(inputDir, outputDir, null, options);
+    }
+
+    /**
+     * Submit a conversion that writes every file in each of {@code formats}.
+     */
+    public ConversionJob submitDirectory(String inputDir, String outputDir, List<OutputFormat> formats,
+                                         DirectoryOptions options) {
+        return submit(inputDir, outputDir, List.copyOf(formats), options);
+    }
+
+    private ConversionJob submit(String inputDir, String outputDir, @Nullable List<OutputFormat> formats,
+                                 DirectoryOptions options) {
+        ConversionJob job = new ConversionJob(nextId.getAndIncrement(),
+                "convert-directory " + inputDir + " → " + outputDir);
+        jobs.put(job.id(), job);
+        executor.execute(() -> run(job, inputDir, outputDir, formats, options));
+        return job;
+    }
+
+    public List<ConversionJob> jobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    public @Nullable ConversionJob job(int id) {
+        return jobs.get(id);
+    }
+
+    private void run(ConversionJob job, String inputDir, String outputDir, @Nullable List<OutputFormat> formats,
+                     DirectoryOptions options) {
+        // Cancelling a queued job interrupts this wait
+        job.waitingOn(Thread.currentThread());
+        try {
+            if (job.progress().isCancelled()) {
+                throw new InterruptedException();
+            }
+            running.acquire();
+        } catch (InterruptedException e) {
+            job.finish(ConversionJob.State.CANCELLED, "Cancelled before it started");
+            return;
+        }
+        try {
+            if (job.progress().isCancelled()) {
+                job.finish(ConversionJob.State.CANCELLED, "Cancelled before it started");
+                return;
+            }
+            job.started();
+            ConversionReport report = formats == null
+                    ? conversionService.convertDirectory(inputDir, outputDir, job.progress(), options)
+                    : conversionService.convertDirectory(inputDir, outputDir, formats, job.progress(), options);
+            String summary = String.format("Converted %d file(s), %d channel(s)", report.convertedFiles(),
+                    report.convertedChannels());
+            if (report.hasErrors()) {
+                job.finish(ConversionJob.State.SUCCEEDED, summary + ", " + report.failedFiles()
+                        + " failed (details in " + ConversionReport.ERRORS_FILE_NAME + ")");
+            } else {
+                job.finish(ConversionJob.State.SUCCEEDED, summary);
+            }
+        } catch (CancellationException e) {
+            // The journal of the files finished so far stays behind
+            job.finish(ConversionJob.State.CANCELLED, String.format(
+                    "Cancelled after %d file(s); run again with --resume to continue", job.progress().snapshot().files()));
+        } catch (Exception e) {
+            log.warn("Job {} failed", job.id(), e);
+            job.finish(ConversionJob.State.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            running.release();
+        }
+    }
+
+    /**
+     * Cancel every unfinished job and wait for them to stop.
+     */
+    @Override
+    public void close() {
+        jobs.values().forEach(ConversionJob::cancel);
+        executor.close();
+    }
+}
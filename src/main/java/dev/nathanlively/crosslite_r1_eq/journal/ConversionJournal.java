@@ -0,0 +1,227 @@
+package dev.nathanlively.crosslite_r1_eq.journal;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only record of the inputs a directory conversion has finished, so an interrupted run can resume.
+ * <p>
+ * Records are appended into a memory-mapped window of the file and flushed to disk in batches. Each record is
+ * {@code [int pathLength][path UTF-8][long inputSize][long inputModified][long outputBytes][long outputHash]
+ * [int crc]}, where the output bytes and hash are the total size and {@link OutputDigest} of the files written
+ * for the input. A torn or zeroed record marks
+ * the end of the journal, so a crash loses at most the records since the last flush; those inputs are simply
+ * converted again on resume. Closing the journal flushes, unmaps and trims the unused tail of the window.
+ * <p>
+ * On filesystems that cannot memory-map files, such as zipfs or in-memory providers, records are written
+ * straight to the channel instead, with the same format and flushing.
+ */
+public class ConversionJournal implements AutoCloseable {
+
+    public static final String FILE_NAME = ".crosslite-r1-eq.journal";
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final long WINDOW_BYTES = 1 << 20;
+    private static final int FLUSH_EVERY = 256;
+    private static final int FIXED_BYTES = Integer.BYTES + 4 * Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Map<String, Entry> completed;
+    private @Nullable Arena arena;
+    // Null when the filesystem cannot map files
+    private @Nullable MemorySegment window;
+    private long windowStart;
+    private long position;
+    private int unflushed;
+
+    /**
+     * @param inputModified the input's last modification time in milliseconds
+     * @param outputBytes   the total size of the files written for the input
+     */
+    public record Entry(long inputSize, long inputModified, long outputBytes, long outputHash) {
+    }
+
+    private ConversionJournal(FileChannel channel, Map<String, Entry> completed, long end) throws IOException {
+        this.channel = channel;
+        this.completed = completed;
+        mapWindow(end);
+    }
+
+    /**
+     * Open the journal at {@code file}. With {@code resume} the existing records are loaded and new ones are
+     * appended after them; otherwise the journal starts empty.
+     */
+    public static ConversionJournal open(Path file, boolean resume) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            Map<String, Entry> completed = new HashMap<>();
+            long end = resume ? load(channel, completed) : 0;
+            channel.truncate(end);
+            return new ConversionJournal(channel, completed, end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether {@code relativePath} was completed by an earlier run while it had the same size and modification
+     * time. Whether its outputs are still intact is up to the caller to check against {@link #entry}.
+     */
+    public boolean isCompleted(String relativePath, long inputSize, long inputModified) {
+        Entry entry = completed.get(relativePath);
+        return entry != null && entry.inputSize() == inputSize && entry.inputModified() == inputModified;
+    }
+
+    public @Nullable Entry entry(String relativePath) {
+        return completed.get(relativePath);
+    }
+
+    public int completedCount() {
+        return completed.size();
+    }
+
+    /**
+     * The latest record of every completed input, by relative path. Read it only while nothing is being recorded.
+     */
+    public Map<String, Entry> entries() {
+        return Collections.unmodifiableMap(completed);
+    }
+
+    public synchronized void record(String relativePath, long inputSize, long inputModified, long outputBytes,
+                                    long outputHash) throws IOException {
+        byte[] path = relativePath.getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_BYTES + path.length;
+        if (length > WINDOW_BYTES) {
+            throw new IllegalArgumentException("Path too long for journal: " + relativePath);
+        }
+        if (window != null && position + length > WINDOW_BYTES) {
+            window.force();
+            unmapWindow();
+            mapWindow(windowStart + position);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(length)
+                .putInt(path.length)
+                .put(path)
+                .putLong(inputSize)
+                .putLong(inputModified)
+                .putLong(outputBytes)
+                .putLong(outputHash);
+        entry.putInt(crc(entry.array(), length - Integer.BYTES));
+        if (window != null) {
+            MemorySegment.copy(entry.array(), 0, window, ValueLayout.JAVA_BYTE, position, length);
+        } else {
+            entry.flip();
+            while (entry.hasRemaining()) {
+                channel.write(entry, windowStart + position + entry.position());
+            }
+        }
+        position += length;
+        completed.put(relativePath, new Entry(inputSize, inputModified, outputBytes, outputHash));
+
+        if (++unflushed >= FLUSH_EVERY) {
+            force();
+            unflushed = 0;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            force();
+            unmapWindow();
+            channel.truncate(windowStart + position);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void mapWindow(long start) throws IOException {
+        windowStart = start;
+        position = 0;
+        arena = Arena.ofShared();
+        try {
+            window = channel.map(FileChannel.MapMode.READ_WRITE, start, WINDOW_BYTES, arena);
+        } catch (UnsupportedOperationException e) {
+            arena.close();
+            arena = null;
+        }
+    }
+
+    private void unmapWindow() {
+        // Unmap eagerly: a live mapping blocks truncation on Windows
+        if (arena != null) {
+            arena.close();
+            arena = null;
+            window = null;
+        }
+    }
+
+    private void force() throws IOException {
+        if (window != null) {
+            window.force();
+        } else {
+            channel.force(false);
+        }
+    }
+
+    private static long load(FileChannel channel, Map<String, Entry> completed) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment journal = mapOrRead(channel, size, arena);
+            long offset = 0;
+            while (size - offset >= FIXED_BYTES) {
+                int pathLength = journal.get(INT, offset);
+                if (pathLength <= 0 || pathLength > size - offset - FIXED_BYTES) {
+                    break;
+                }
+                int length = FIXED_BYTES + pathLength;
+                ByteBuffer entry = ByteBuffer.wrap(journal.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE));
+                if (entry.getInt(length - Integer.BYTES) != crc(entry.array(), length - Integer.BYTES)) {
+                    break;
+                }
+                String path = new String(entry.array(), Integer.BYTES, pathLength, StandardCharsets.UTF_8);
+                entry.position(Integer.BYTES + pathLength);
+                completed.put(path, new Entry(entry.getLong(), entry.getLong(), entry.getLong(), entry.getLong()));
+                offset += length;
+            }
+            return offset;
+        }
+    }
+
+    private static MemorySegment mapOrRead(FileChannel channel, long size, Arena arena) throws IOException {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+        } catch (UnsupportedOperationException e) {
+            ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(size));
+            while (bytes.hasRemaining() && channel.read(bytes, bytes.position()) >= 0) {
+                // Keep reading until the whole journal is in memory
+            }
+            return MemorySegment.ofArray(bytes.array());
+        }
+    }
+
+    private static int crc(byte[] bytes, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,72 @@
+package dev.nathanlively.crosslite_r1_eq.journal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Checksum of the files written for one input, as recorded in a {@link ConversionJournal}.
+ * <p>
+ * Files are combined in file name order, so the value does not depend on the order they were written in, and
+ * {@link #of(Collection)} computes the same value again from the files on disk. The total size of the files is
+ * kept alongside, for a check that needs no reading.
+ */
+public final class OutputDigest {
+
+    private final SortedMap<String, Long> files = new TreeMap<>();
+    private long bytes;
+
+    public void add(String fileName, byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, content.length);
+        put(fileName, crc.getValue(), content.length);
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized long value() {
+        CRC32C combined = new CRC32C();
+        for (Map.Entry<String, Long> file : files.entrySet()) {
+            combined.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+            combined.update(0);
+            long crc = file.getValue();
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                combined.update((int) (crc >>> shift));
+            }
+        }
+        return combined.getValue();
+    }
+
+    /**
+     * The digest of {@code files} as they are now, keyed by their file names.
+     */
+    public static long of(Collection<Path> files) throws IOException {
+        OutputDigest digest = new OutputDigest();
+        byte[] buffer = new byte[1 << 16];
+        for (Path file : files) {
+            CRC32C crc = new CRC32C();
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, read);
+                }
+            }
+            digest.put(file.getFileName().toString(), crc.getValue(), 0);
+        }
+        return digest.value();
+    }
+
+    private synchronized void put(String fileName, long crc, long size) {
+        files.put(fileName, crc);
+        bytes += size;
+    }
+}
@@ -0,0 +1,92 @@
+package dev.nathanlively.crosslite_r1_eq.merge;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import dev.nathanlively.crosslite_r1_eq.dsp.EqFitter;
+import dev.nathanlively.crosslite_r1_eq.dsp.ResponseCurve;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Averages the responses of several channels in the dB domain and fits one set of filters to the average.
+ */
+@Component
+public class ChannelMerger {
+
+    private final FileConversionService conversionService;
+    private final CrossLiteParser parser;
+    private final EqFitter fitter;
+
+    public ChannelMerger(FileConversionService conversionService, CrossLiteParser parser, EqFitter fitter) {
+        this.conversionService = conversionService;
+        this.parser = parser;
+        this.fitter = fitter;
+    }
+
+    private record Channel(String label, List<EqBand> bands) {
+    }
+
+    /**
+     * Merge the channels named in {@code channelNames} from all {@code inputs}, or every channel if it is empty.
+     */
+    public MergeResult merge(List<Path> inputs, Set<String> channelNames, FilterLimits limits) throws IOException {
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No input files given");
+        }
+        List<Channel> channels;
+        try {
+            channels = inputs.parallelStream()
+                    .flatMap(input -> read(input, channelNames).stream())
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("No channels matching " + channelNames + " in " + inputs);
+        }
+
+        // Each worker sums curves into its own accumulator; the loops are simple enough for the JIT to vectorise
+        double[] sum = channels.parallelStream().collect(
+                () -> new double[ResponseCurve.GRID_POINTS],
+                (total, channel) -> add(total, ResponseCurve.magnitudeDb(channel.bands())),
+                ChannelMerger::add);
+        double[] average = new double[ResponseCurve.GRID_POINTS];
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            average[i] = sum[i] / channels.size();
+        }
+
+        return new MergeResult(channels.stream().map(Channel::label).toList(), average, fitter.fit(average, limits));
+    }
+
+    private List<Channel> read(Path input, Set<String> channelNames) {
+        Map<String, CrossLiteSettings> parsed;
+        try {
+            parsed = parser.parseMultiChannel(conversionService.readContent(input));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Channel> selected = new ArrayList<>();
+        parsed.forEach((name, settings) -> {
+            if (channelNames.isEmpty() || channelNames.contains(name)) {
+                selected.add(new Channel(input.getFileName() + ":" + name, settings.eqBands()));
+            }
+        });
+        return selected;
+    }
+
+    private static void add(double[] total, double[] curve) {
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            total[i] += curve[i];
+        }
+    }
+}
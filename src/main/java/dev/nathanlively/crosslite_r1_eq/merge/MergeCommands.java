@@ -0,0 +1,71 @@
+package dev.nathanlively.crosslite_r1_eq.merge;
+
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormats;
+import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Command(group = "Analysis")
+public class MergeCommands {
+
+    private final ChannelMerger merger;
+    private final EqConverter converter;
+    private final OutputFormats formats;
+
+    public MergeCommands(ChannelMerger merger, EqConverter converter, OutputFormats formats) {
+        this.merger = merger;
+        this.converter = converter;
+        this.formats = formats;
+    }
+
+    @Command(command = "merge", description = "Average several channels' EQ responses into one preset")
+    public String merge(
+            @Option(longNames = "input", shortNames = 'i', required = true, description = "CrossLite .txt file(s), comma separated") String inputs,
+            @Nullable @Option(longNames = "channels", shortNames = 'c', description = "Channel names to merge, comma separated (optional, defaults to all)") String channels,
+            @Nullable @Option(longNames = "output", shortNames = 'o', description = "Output preset (optional, defaults to merged.rcp)") String outputPath,
+            @Option(longNames = "format", shortNames = 'f', defaultValue = "r1", description = "Output format") String formatName) {
+        try {
+            OutputFormat format = formats.get(formatName);
+            List<Path> files = split(inputs).stream().map(Paths::get).toList();
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)) {
+                    return "Error: Input file does not exist: " + file;
+                }
+            }
+            Set<String> names = channels != null ? Set.copyOf(split(channels)) : Set.of();
+
+            MergeResult result = merger.merge(files, names, format.limits());
+
+            Path output = Paths.get(outputPath != null ? outputPath : "merged" + format.extension());
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            Files.write(output, format.render(converter.convertFilters(
+                    new CrossLiteSettings(result.fit().bands()), format.limits())));
+            return String.format(Locale.ROOT,
+                    "✅ Merged %d channel(s) into %d filter(s) in '%s' (fit error RMS %.2f dB, max %.2f dB)",
+                    result.channels().size(), result.fit().bands().size(), output,
+                    result.fit().rmsErrorDb(), result.fit().maxErrorDb());
+        } catch (IllegalArgumentException | IOException e) {
+            return "❌ Error: " + e.getMessage();
+        }
+    }
+
+    private static List<String> split(String list) {
+        return Arrays.stream(list.split(",")).map(String::strip).filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
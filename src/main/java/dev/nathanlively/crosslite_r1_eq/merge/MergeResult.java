@@ -0,0 +1,12 @@
+package dev.nathanlively.crosslite_r1_eq.merge;
+
+import dev.nathanlively.crosslite_r1_eq.dsp.FitResult;
+
+import java.util.List;
+
+/**
+ * The channels that were averaged (as {@code file:channel}), their mean response in dB on the
+ * {@link dev.nathanlively.crosslite_r1_eq.dsp.ResponseCurve} grid, and the filters fitted to it.
+ */
+public record MergeResult(List<String> channels, double[] averageDb, FitResult fit) {
+}
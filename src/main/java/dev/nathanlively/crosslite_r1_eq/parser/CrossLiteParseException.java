@@ -0,0 +1,32 @@
+package dev.nathanlively.crosslite_r1_eq.parser;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A malformed line in a CrossLite export, with its 1-based line number and the channel it belongs to.
+ */
+public class CrossLiteParseException extends IllegalArgumentException {
+
+    private final int lineNumber;
+    private final @Nullable String channel;
+    private final String reason;
+
+    public CrossLiteParseException(int lineNumber, @Nullable String channel, String reason, Throwable cause) {
+        super("Line " + lineNumber + (channel != null ? " (channel '" + channel + "')" : "") + ": " + reason, cause);
+        this.lineNumber = lineNumber;
+        this.channel = channel;
+        this.reason = reason;
+    }
+
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    public @Nullable String channel() {
+        return channel;
+    }
+
+    public String reason() {
+        return reason;
+    }
+}
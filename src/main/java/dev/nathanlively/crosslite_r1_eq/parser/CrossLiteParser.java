@@ -1,13 +1,21 @@
 package dev.nathanlively.crosslite_r1_eq.parser;
 
+import dev.nathanlively.crosslite_r1_eq.domain.BiquadSection;
 import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
 import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Parses CrossLite text exports into EQ bands per channel.
+ * <p>
+ * Thread-safe and stateless: every call works on its own line arrays and coefficient buffers, so a single
+ * instance can be shared by any number of threads.
+ */
 @Component
 public class CrossLiteParser {
 
@@ -15,9 +23,7 @@ public class CrossLiteParser {
             "Frequency=\\s*([\\d.]+)Hz\\s+Gain=\\s*([\\d.-]+)dB\\s+Qbp=\\s*([\\d.]+)"
     );
 
-    private static final Pattern FIRST_CHANNEL_PATTERN = Pattern.compile(
-            "IIR Bypassed\\.(.+)"
-    );
+    private static final String FIRST_CHANNEL_PREFIX = "IIR Bypassed.";
 
     /**
      * Parse a single-channel file (backward compatibility).
@@ -33,82 +39,90 @@ public class CrossLiteParser {
 
     /**
      * Parse a multi-channel file, returning a map of channel names to settings.
+     *
+     * @throws CrossLiteParseException on the first malformed band or coefficient line
      */
     public Map<String, CrossLiteSettings> parseMultiChannel(String content) {
+        return parseMultiChannel(content, null);
+    }
+
+    /**
+     * Parse a multi-channel file, leaving out any channel that contains a malformed line.
+     * Each dropped channel adds its first problem to {@code problems} instead of failing the whole file.
+     */
+    public Map<String, CrossLiteSettings> parseMultiChannel(String content,
+                                                            @Nullable List<CrossLiteParseException> problems) {
         Map<String, CrossLiteSettings> channels = new LinkedHashMap<>();
         List<String> lines = content.lines().toList();
+        String[] trimmed = new String[lines.size()];
+        for (int i = 0; i < trimmed.length; i++) {
+            trimmed[i] = lines.get(i).trim();
+        }
 
         // First, check if this looks like a multi-channel file
-        boolean hasMultipleChannels = detectMultipleChannels(lines);
+        boolean hasMultipleChannels = detectMultipleChannels(trimmed);
 
         if (!hasMultipleChannels) {
             // Single channel file - parse all EQ bands as default
-            List<EqBand> bands = parseAllEqBands(content);
-            if (!bands.isEmpty()) {
-                channels.put("default", new CrossLiteSettings(bands));
+            CrossLiteSettings settings = parseChannel(lines, 0, lines.size(), null, problems);
+            if (settings != null && !settings.eqBands().isEmpty()) {
+                channels.put("default", settings);
             }
             return channels;
         }
 
         // Multi-channel file - parse by sections
-        List<ChannelSection> sections = identifyChannelSections(lines);
+        List<ChannelSection> sections = identifyChannelSections(trimmed);
 
         for (ChannelSection section : sections) {
-            List<EqBand> bands = parseEqBandsFromLines(lines, section.startLine, section.endLine);
-            if (!bands.isEmpty()) {  // Skip channels with no EQ bands
-                channels.put(section.name, new CrossLiteSettings(bands));
+            CrossLiteSettings settings = parseChannel(lines, section.startLine, section.endLine, section.name,
+                    problems);
+            if (settings != null && !settings.eqBands().isEmpty()) {  // Skip channels with no EQ bands
+                channels.put(section.name, settings);
             }
         }
 
         return channels;
     }
 
-    private boolean detectMultipleChannels(List<String> lines) {
+    /*
+     * Channel detection looks at every line a constant number of times: each line is classified once with
+     * plain string scans, and the "next non-empty line" of every line comes from one backward pass, so the
+     * whole parse stays linear in the input size however the lines are arranged.
+     */
+
+    private boolean detectMultipleChannels(String[] lines) {
         // Look for clear indicators of multiple channels:
         // 1. Multiple "IIR Bypassed.XXX" patterns with different names
         // 2. Standalone channel names followed by IIR lines
 
+        int[] nextNonEmpty = nextNonEmptyLines(lines);
         Set<String> channelNames = new HashSet<>();
         boolean foundFirstChannel = false;
 
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
 
             // Check for "IIR Bypassed.channelName"
-            Matcher firstChannelMatcher = FIRST_CHANNEL_PATTERN.matcher(line);
-            if (firstChannelMatcher.matches()) {
-                String name = firstChannelMatcher.group(1);
-                // Ignore metadata-like names
-                if (!looksLikeMetadata(name)) {
-                    channelNames.add(name);
-                    foundFirstChannel = true;
-                }
+            String name = firstChannelName(line);
+            // Ignore metadata-like names
+            if (name != null && !looksLikeMetadata(name)) {
+                channelNames.add(name);
+                foundFirstChannel = true;
             }
 
             // After finding first channel, look for standalone channel names
-            if (foundFirstChannel &&
-                !line.isEmpty() &&
-                !line.startsWith("IIR") &&
-                !line.startsWith("Layer") &&
-                !line.contains("Parametric EQ") &&
-                !line.contains("Magnitude Mode") &&
-                !line.contains("biquad") &&
-                !line.contains("=") &&
-                !line.matches("^\\d+\\).*")) {
-
+            if (foundFirstChannel && isChannelNameCandidate(line)) {
                 // Check if next non-empty line is IIR-related or EQ
-                for (int j = i + 1; j < lines.size(); j++) {
-                    String nextLine = lines.get(j).trim();
-                    if (nextLine.isEmpty()) continue;
-
+                int next = nextNonEmpty[i];
+                if (next >= 0) {
+                    String nextLine = lines[next];
                     if (nextLine.startsWith("IIR") ||
                         nextLine.contains("Parametric EQ") ||
                         nextLine.contains("Frequency=")) {
                         // This could be a channel name
                         channelNames.add(line);
-                        break;
                     }
-                    break; // Stop at first non-empty line
                 }
             }
         }
@@ -116,94 +130,282 @@ public class CrossLiteParser {
         return channelNames.size() > 1;
     }
 
-    private List<ChannelSection> identifyChannelSections(List<String> lines) {
+    private List<ChannelSection> identifyChannelSections(String[] lines) {
         List<ChannelSection> sections = new ArrayList<>();
         String currentChannel = null;
         int channelStartLine = -1;
 
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
 
             if (line.isEmpty()) continue;
 
             // Check for "IIR Bypassed.channelName" (first channel pattern)
-            Matcher firstChannelMatcher = FIRST_CHANNEL_PATTERN.matcher(line);
-            if (firstChannelMatcher.matches()) {
+            String name = firstChannelName(line);
+            if (name != null) {
                 // Save previous section if exists
                 if (currentChannel != null) {
                     sections.add(new ChannelSection(currentChannel, channelStartLine, i));
                 }
-                currentChannel = firstChannelMatcher.group(1);
+                currentChannel = name;
                 channelStartLine = i;
                 continue;
             }
 
             // Check for standalone channel name followed by IIR Crossover
-            if (!line.startsWith("IIR") &&
-                !line.startsWith("Layer") &&
-                !line.contains("Parametric EQ") &&
-                !line.contains("Magnitude Mode") &&
-                !line.contains("biquad") &&
-                !line.contains("=") &&
-                !line.matches("^\\d+\\).*") &&
-                i + 1 < lines.size()) {
-
-                String nextLine = lines.get(i + 1).trim();
-                // In real data, channel names are always followed by IIR Crossover
-                if (nextLine.startsWith("IIR Crossover")) {
-                    // Save previous section
-                    if (currentChannel != null) {
-                        sections.add(new ChannelSection(currentChannel, channelStartLine, i));
-                    }
-                    currentChannel = line;
-                    channelStartLine = i;
+            // In real data, channel names are always followed by IIR Crossover
+            if (isChannelNameCandidate(line) && i + 1 < lines.length && lines[i + 1].startsWith("IIR Crossover")) {
+                // Save previous section
+                if (currentChannel != null) {
+                    sections.add(new ChannelSection(currentChannel, channelStartLine, i));
                 }
+                currentChannel = line;
+                channelStartLine = i;
             }
         }
 
         // Add final section
         if (currentChannel != null) {
-            sections.add(new ChannelSection(currentChannel, channelStartLine, lines.size()));
+            sections.add(new ChannelSection(currentChannel, channelStartLine, lines.length));
         }
 
         return sections;
     }
 
-    private List<EqBand> parseEqBandsFromLines(List<String> lines, int startLine, int endLine) {
-        List<EqBand> bands = new ArrayList<>();
-
-        for (int i = startLine; i < endLine && i < lines.size(); i++) {
-            String line = lines.get(i);
-            Matcher eqMatcher = EQ_PATTERN.matcher(line);
-            if (eqMatcher.find()) {
-                double frequency = Double.parseDouble(eqMatcher.group(1));
-                double gain = Double.parseDouble(eqMatcher.group(2));
-                double qFactor = Double.parseDouble(eqMatcher.group(3));
-                bands.add(new EqBand(frequency, gain, qFactor));
+    /**
+     * For each line, the index of the first non-empty line after it, or -1.
+     */
+    private static int[] nextNonEmptyLines(String[] lines) {
+        int[] next = new int[lines.length];
+        int following = -1;
+        for (int i = lines.length - 1; i >= 0; i--) {
+            next[i] = following;
+            if (!lines[i].isEmpty()) {
+                following = i;
             }
         }
+        return next;
+    }
 
-        return bands;
+    /**
+     * The name in an "IIR Bypassed.name" line, or null for any other line.
+     */
+    private static @Nullable String firstChannelName(String line) {
+        return line.startsWith(FIRST_CHANNEL_PREFIX) && line.length() > FIRST_CHANNEL_PREFIX.length()
+                ? line.substring(FIRST_CHANNEL_PREFIX.length())
+                : null;
+    }
+
+    /**
+     * Whether a trimmed line could be a standalone channel name rather than one of the known export lines.
+     */
+    private static boolean isChannelNameCandidate(String line) {
+        return !line.isEmpty() &&
+               !line.startsWith("IIR") &&
+               !line.startsWith("Layer") &&
+               !line.contains("Parametric EQ") &&
+               !line.contains("Magnitude Mode") &&
+               !line.contains("biquad") &&
+               line.indexOf('=') < 0 &&
+               !isNumberedHeading(line);
     }
 
-    private List<EqBand> parseAllEqBands(String content) {
+    /**
+     * Lines like "1) 1Parametric EQ": one or more digits followed by a closing parenthesis.
+     */
+    private static boolean isNumberedHeading(String line) {
+        int i = 0;
+        while (i < line.length() && isDigit(line.charAt(i))) {
+            i++;
+        }
+        return i > 0 && i < line.length() && line.charAt(i) == ')';
+    }
+
+    /**
+     * Parse EQ bands and biquad coefficient blocks from a range of lines in a single pass.
+     * Returns null if a line is malformed and {@code problems} collects it rather than throwing.
+     */
+    private @Nullable CrossLiteSettings parseChannel(List<String> lines, int startLine, int endLine,
+                                                     @Nullable String channel,
+                                                     @Nullable List<CrossLiteParseException> problems) {
         List<EqBand> bands = new ArrayList<>();
-        Matcher eqMatcher = EQ_PATTERN.matcher(content);
-        while (eqMatcher.find()) {
-            double frequency = Double.parseDouble(eqMatcher.group(1));
-            double gain = Double.parseDouble(eqMatcher.group(2));
-            double qFactor = Double.parseDouble(eqMatcher.group(3));
-            bands.add(new EqBand(frequency, gain, qFactor));
+        CoefficientBuffer coefficients = new CoefficientBuffer();
+
+        for (int i = startLine; i < endLine && i < lines.size(); i++) {
+            String line = lines.get(i);
+            try {
+                if (coefficients.accept(line.trim())) {
+                    continue;
+                }
+                Matcher eqMatcher = EQ_PATTERN.matcher(line);
+                while (eqMatcher.find()) {
+                    double frequency = Double.parseDouble(eqMatcher.group(1));
+                    double gain = Double.parseDouble(eqMatcher.group(2));
+                    double qFactor = Double.parseDouble(eqMatcher.group(3));
+                    bands.add(new EqBand(frequency, gain, qFactor));
+                }
+            } catch (IllegalArgumentException e) {
+                String reason = e instanceof NumberFormatException
+                        ? "Invalid number in '" + line.trim() + "'"
+                        : e.getMessage() + " in '" + line.trim() + "'";
+                CrossLiteParseException problem = new CrossLiteParseException(i + 1, channel, reason, e);
+                if (problems == null) {
+                    throw problem;
+                }
+                problems.add(problem);
+                return null;
+            }
         }
-        return bands;
+
+        return new CrossLiteSettings(bands, coefficients.toList());
     }
 
     private boolean looksLikeMetadata(String channelName) {
         // Check if the channel name looks like metadata rather than a real channel name
         // Examples: "L 1 Ch 1", "Layer 1 Channel 1", etc.
-        return channelName.matches(".*\\bL\\s*\\d+\\s*Ch\\s*\\d+.*") ||
-               channelName.matches(".*Layer\\s*\\d+.*") ||
-               channelName.matches(".*Channel\\s*\\d+.*");
+        return containsLayerChannel(channelName) ||
+               containsWordThenNumber(channelName, "Layer") ||
+               containsWordThenNumber(channelName, "Channel");
+    }
+
+    /**
+     * Whether the text contains "L", optional spaces, digits, optional spaces, "Ch", optional spaces and digits,
+     * with the "L" starting a word. Each attempt only moves over spaces and digits, which never contain the next
+     * "L", so the scan is linear.
+     */
+    private static boolean containsLayerChannel(String text) {
+        for (int l = text.indexOf('L'); l >= 0; l = text.indexOf('L', l + 1)) {
+            if (l > 0 && isWordChar(text.charAt(l - 1))) {
+                continue;
+            }
+            int digits = skipSpaces(text, l + 1);
+            int i = skipDigits(text, digits);
+            if (i == digits) {
+                continue;
+            }
+            i = skipSpaces(text, i);
+            if (!text.startsWith("Ch", i)) {
+                continue;
+            }
+            digits = skipSpaces(text, i + 2);
+            if (skipDigits(text, digits) > digits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsWordThenNumber(String text, String word) {
+        for (int at = text.indexOf(word); at >= 0; at = text.indexOf(word, at + 1)) {
+            int i = skipSpaces(text, at + word.length());
+            if (i < text.length() && isDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipSpaces(String text, int i) {
+        // The whitespace class of java.util.regex: space, tab, newline, vertical tab, form feed, carriage return
+        while (i < text.length() && (text.charAt(i) == ' ' || (text.charAt(i) >= '\t' && text.charAt(i) <= '\r'))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipDigits(String text, int i) {
+        while (i < text.length() && isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    /**
+     * Collects "biquadN," blocks of b0..a2 lines into a flat array, keeping only complete sections.
+     */
+    private static class CoefficientBuffer {
+        private static final String[] NAMES = {"b0=", "b1=", "b2=", "a1=", "a2="};
+
+        // Keyed by the block's biquad number, so a block dropped as incomplete leaves the others paired with their bands
+        private final SortedMap<Integer, BiquadSection> sections = new TreeMap<>();
+        private final double[] pending = new double[CrossLiteSettings.BIQUAD_STRIDE];
+        private int pendingNumber;
+        private int pendingMask;
+        private boolean inBlock;
+
+        boolean accept(String line) {
+            if (line.startsWith("biquad")) {
+                flush();
+                pendingNumber = number(line);
+                inBlock = true;
+                return true;
+            }
+            if (!inBlock || line.length() < 4) {
+                return false;
+            }
+            for (int k = 0; k < NAMES.length; k++) {
+                if (line.startsWith(NAMES[k])) {
+                    int end = line.endsWith(",") ? line.length() - 1 : line.length();
+                    double value = coefficient(line.substring(3, end));
+                    if (Double.isNaN(value)) {
+                        // Unusable like an incomplete block: drop the section rather than the file
+                        pendingNumber = 0;
+                    } else {
+                        pending[k] = value;
+                        pendingMask |= 1 << k;
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<BiquadSection> toList() {
+            flush();
+            return List.copyOf(sections.values());
+        }
+
+        private void flush() {
+            if (pendingNumber > 0 && pendingMask == (1 << CrossLiteSettings.BIQUAD_STRIDE) - 1) {
+                sections.put(pendingNumber, new BiquadSection(pendingNumber,
+                        pending[0], pending[1], pending[2], pending[3], pending[4]));
+            }
+            pendingNumber = 0;
+            pendingMask = 0;
+            inBlock = false;
+        }
+
+        /**
+         * The coefficient on a {@code b0=} to {@code a2=} line, or NaN when it is not a finite number.
+         */
+        private static double coefficient(String value) {
+            try {
+                double parsed = Double.parseDouble(value.trim());
+                return Double.isFinite(parsed) ? parsed : Double.NaN;
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+
+        /**
+         * The N of a {@code biquadN,} header, or 0 when it has none and the block cannot be paired with a band.
+         */
+        private static int number(String line) {
+            int end = line.endsWith(",") ? line.length() - 1 : line.length();
+            try {
+                return Math.max(0, Integer.parseInt(line.substring("biquad".length(), end).trim()));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
     }
 
     private static class ChannelSection {
@@ -0,0 +1,98 @@
+package dev.nathanlively.crosslite_r1_eq.parser;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Settings;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads R1 EQ presets (.rcp) as written by {@link dev.nathanlively.crosslite_r1_eq.writer.R1Format}.
+ * Only the {@code F_n}, {@code Q_n}, {@code G_n} and {@code E_n} elements are used; everything else is skipped.
+ */
+@Component
+public class R1Parser {
+
+    private static final String FIELDS = "FQGE";
+
+    public R1Settings parse(String xml) {
+        double[][] values = new double[FIELDS.length()][R1Settings.MAX_FILTERS];
+        boolean[][] seen = new boolean[FIELDS.length()][R1Settings.MAX_FILTERS];
+
+        int position = xml.indexOf('<');
+        while (position >= 0) {
+            int close = xml.indexOf('>', position);
+            if (close < 0) {
+                break;
+            }
+            int field = fieldOf(xml, position + 1, close);
+            if (field >= 0) {
+                int number = Integer.parseInt(xml, position + 3, close, 10);
+                int end = xml.indexOf('<', close);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated <" + xml.substring(position + 1, close) + ">");
+                }
+                values[field][number - 1] = parseValue(xml, close + 1, end, position + 1);
+                seen[field][number - 1] = true;
+                position = end;
+            } else {
+                position = xml.indexOf('<', close);
+            }
+        }
+
+        List<R1Filter> filters = new ArrayList<>(R1Settings.MAX_FILTERS);
+        for (int i = 0; i < R1Settings.MAX_FILTERS; i++) {
+            for (int field = 0; field < FIELDS.length(); field++) {
+                if (!seen[field][i]) {
+                    throw new IllegalArgumentException("R1 preset is missing <" + FIELDS.charAt(field) + "_" + (i + 1) + ">");
+                }
+            }
+            filters.add(new R1Filter(values[0][i], values[1][i], values[2][i], values[3][i] != 0.0));
+        }
+        return new R1Settings(filters);
+    }
+
+    /**
+     * The enabled filters of a preset as EQ bands, in filter order.
+     */
+    public List<EqBand> parseBands(String xml) {
+        List<EqBand> bands = new ArrayList<>();
+        for (R1Filter filter : parse(xml).filters()) {
+            if (filter.enabled()) {
+                bands.add(new EqBand(filter.frequency(), filter.gain(), filter.qFactor()));
+            }
+        }
+        return bands;
+    }
+
+    /**
+     * Index into {@link #FIELDS} for a tag like {@code F_12} with a number from 1 to 16, or -1 for any other tag.
+     */
+    private static int fieldOf(String xml, int start, int end) {
+        if (end - start < 3 || end - start > 4 || xml.charAt(start + 1) != '_') {
+            return -1;
+        }
+        int number = 0;
+        for (int i = start + 2; i < end; i++) {
+            char c = xml.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        if (number < 1 || number > R1Settings.MAX_FILTERS) {
+            return -1;
+        }
+        return FIELDS.indexOf(xml.charAt(start));
+    }
+
+    private static double parseValue(String xml, int start, int end, int tagStart) {
+        try {
+            return Double.parseDouble(xml.substring(start, end).strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in <" + xml.substring(tagStart, start - 1) + ">", e);
+        }
+    }
+}
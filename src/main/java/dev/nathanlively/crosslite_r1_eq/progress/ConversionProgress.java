@@ -0,0 +1,97 @@
+package dev.nathanlively.crosslite_r1_eq.progress;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free progress counters for a directory conversion. Conversion threads only increment;
+ * a {@link ProgressRenderer} reads {@link #snapshot()} on its own schedule.
+ * <p>
+ * Also carries the cancellation request for the run: any thread may call {@link #cancel()}, and the conversion
+ * stops at its next {@link #checkCancelled()}, between files or channels, so no output is left half written.
+ * <p>
+ * One progress may be shared by several runs, e.g. to show them as one: each run adds its files to the totals.
+ */
+public class ConversionProgress {
+
+    private final LongAdder totalFiles = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile long startNanos = System.nanoTime();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder channels = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean cancelled;
+
+    /**
+     * Add a run's files and bytes to the totals. The elapsed time counts from the first run's start.
+     */
+    public void start(long totalFiles, long totalBytes) {
+        this.totalFiles.add(totalFiles);
+        this.totalBytes.add(totalBytes);
+        if (started.compareAndSet(false, true)) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    public void fileCompleted(long fileBytes, int fileChannels) {
+        bytes.add(fileBytes);
+        channels.add(fileChannels);
+        files.increment();
+    }
+
+    public void fileFailed(long fileBytes) {
+        bytes.add(fileBytes);
+        failures.increment();
+        files.increment();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if {@link #cancel()} has been called
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Conversion cancelled");
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(files.sum(), totalFiles.sum(), channels.sum(), bytes.sum(), totalBytes.sum(),
+                failures.sum(), System.nanoTime() - startNanos);
+    }
+
+    public record Snapshot(
+        long files,
+        long totalFiles,
+        long channels,
+        long bytes,
+        long totalBytes,
+        long failures,
+        long elapsedNanos
+    ) {
+        public double megabytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytes / 1_048_576.0 / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Remaining time extrapolated from the byte rate so far, or -1 before there is a rate to go on.
+         */
+        public long etaSeconds() {
+            if (bytes == 0 || elapsedNanos == 0) {
+                return -1;
+            }
+            double remaining = Math.max(0, totalBytes - bytes);
+            return Math.round(remaining * (elapsedNanos / 1e9) / bytes);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package dev.nathanlively.crosslite_r1_eq.progress;
+
+import java.io.Console;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Redraws a single status line at a fixed rate from a daemon thread, so conversion threads never
+ * touch the terminal. Closing the renderer draws the final state and ends the line.
+ * <p>
+ * When the output is not an interactive terminal (a pipe, a log file, {@code TERM=dumb}) there is no line
+ * to redraw: the renderer then prints a plain line per refresh instead, and only when something changed.
+ */
+public class ProgressRenderer implements AutoCloseable {
+
+    public static final Duration DEFAULT_REFRESH = Duration.ofMillis(200);
+    public static final Duration PLAIN_REFRESH = Duration.ofSeconds(10);
+
+    private final ConversionProgress progress;
+    private final PrintWriter writer;
+    private final IntSupplier width;
+    private final boolean interactive;
+    private final ScheduledExecutorService scheduler;
+    private String lastLine = "";
+
+    public ProgressRenderer(ConversionProgress progress, PrintWriter writer, IntSupplier width, Duration refresh) {
+        this(progress, writer, width, refresh, true);
+    }
+
+    public ProgressRenderer(ConversionProgress progress, PrintWriter writer, IntSupplier width, Duration refresh,
+                            boolean interactive) {
+        this.progress = progress;
+        this.writer = writer;
+        this.width = width;
+        this.interactive = interactive;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = refresh.toMillis();
+        scheduler.scheduleAtFixedRate(this::draw, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        draw();
+        if (interactive) {
+            writer.println();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Whether a terminal of this JLine type can redraw a line in place: it must be a real console that is not dumb.
+     * Since JDK 22 {@link System#console()} is also there when output is redirected, so it must be a terminal too.
+     */
+    public static boolean isInteractive(String terminalType) {
+        Console console = System.console();
+        return console != null
+               && console.isTerminal()
+               && !terminalType.startsWith("dumb")
+               && !"dumb".equals(System.getenv("TERM"));
+    }
+
+    private void draw() {
+        String line = format(progress.snapshot());
+        if (!interactive) {
+            if (!line.equals(lastLine)) {
+                writer.println(line);
+                writer.flush();
+                lastLine = line;
+            }
+            return;
+        }
+        int columns = width.getAsInt();
+        if (columns > 1 && line.length() >= columns) {
+            line = line.substring(0, columns - 1);
+        }
+        writer.print('\r');
+        writer.print(line);
+        // Clear leftovers from a longer previous line
+        writer.print("\u001B[K");
+        writer.flush();
+    }
+
+    /**
+     * One-line summary such as {@code Files 12/40 | Channels 96 | 3.1 MB/s | ETA 0:07}.
+     */
+    public static String format(ConversionProgress.Snapshot snapshot) {
+        String line = String.format(Locale.ROOT, "Files %d/%d | Channels %d | %.1f MB/s | ETA %s",
+                snapshot.files(), snapshot.totalFiles(), snapshot.channels(), snapshot.megabytesPerSecond(),
+                formatEta(snapshot.etaSeconds()));
+        if (snapshot.failures() > 0) {
+            line += " | Failed " + snapshot.failures();
+        }
+        return line;
+    }
+
+    private static String formatEta(long seconds) {
+        if (seconds < 0) {
+            return "--:--";
+        }
+        return seconds >= 3600
+                ? String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60)
+                : String.format(Locale.ROOT, "%d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -0,0 +1,47 @@
+package dev.nathanlively.crosslite_r1_eq.progress;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-limits a high-volume INFO event. At most one event per interval is logged, together with the number
+ * of events dropped since the previous one; every event is still available at DEBUG.
+ */
+public class SampledLog {
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final AtomicLong nextNanos;
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    public SampledLog(Logger log, Duration interval) {
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+        this.nextNanos = new AtomicLong(System.nanoTime());
+    }
+
+    public void info(String format, Object... arguments) {
+        total.increment();
+        long now = System.nanoTime();
+        long next = nextNanos.get();
+        if (now - next >= 0 && nextNanos.compareAndSet(next, now + intervalNanos)) {
+            long dropped = suppressed.sumThenReset();
+            if (log.isInfoEnabled()) {
+                log.info(dropped == 0 ? format : format + " (+" + dropped + " more)", arguments);
+            }
+        } else {
+            suppressed.increment();
+            if (log.isDebugEnabled()) {
+                log.debug(format, arguments);
+            }
+        }
+    }
+
+    public long total() {
+        return total.sum();
+    }
+}
@@ -0,0 +1,37 @@
+package dev.nathanlively.crosslite_r1_eq.report;
+
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParseException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A file or channel that could not be converted. {@code line} is 1-based, or 0 when the problem has no line.
+ */
+public record ConversionError(
+    String file,
+    int line,
+    @Nullable String channel,
+    String reason
+) {
+    public static ConversionError of(String file, CrossLiteParseException problem) {
+        return new ConversionError(file, problem.lineNumber(), problem.channel(), problem.reason());
+    }
+
+    public static ConversionError of(String file, Exception failure) {
+        if (failure instanceof CrossLiteParseException problem) {
+            return of(file, problem);
+        }
+        String reason = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+        return new ConversionError(file, 0, null, reason);
+    }
+
+    public String describe() {
+        StringBuilder text = new StringBuilder(file);
+        if (line > 0) {
+            text.append(':').append(line);
+        }
+        if (channel != null) {
+            text.append(" [").append(channel).append(']');
+        }
+        return text.append(": ").append(reason).toString();
+    }
+}
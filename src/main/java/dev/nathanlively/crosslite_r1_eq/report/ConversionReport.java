@@ -0,0 +1,182 @@
+package dev.nathanlively.crosslite_r1_eq.report;
+
+import dev.nathanlively.crosslite_r1_eq.io.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a directory conversion: what was converted, what was skipped, and every error with its location.
+ * Safe to update from several conversion threads.
+ */
+public class ConversionReport {
+
+    public static final String ERRORS_FILE_NAME = "conversion-errors.json";
+
+    private final List<ConversionError> errors = Collections.synchronizedList(new ArrayList<>());
+    private final OutputWrites writes = new OutputWrites();
+    private int convertedFiles;
+    private int failedFiles;
+    private int skippedFiles;
+    private int convertedChannels;
+
+    public synchronized void fileConverted(int channels) {
+        convertedFiles++;
+        convertedChannels += channels;
+    }
+
+    public synchronized void fileFailed(ConversionError error) {
+        failedFiles++;
+        errors.add(error);
+    }
+
+    public synchronized void filesSkipped(int count) {
+        skippedFiles += count;
+    }
+
+    /**
+     * A channel dropped from a file that was otherwise converted.
+     */
+    public void channelFailed(ConversionError error) {
+        errors.add(error);
+    }
+
+    /**
+     * Add the counts and errors of another report, e.g. one written by a shard of the same conversion.
+     */
+    public void add(ConversionReport other) {
+        List<ConversionError> otherErrors = other.errors();
+        synchronized (this) {
+            convertedFiles += other.convertedFiles();
+            failedFiles += other.failedFiles();
+            skippedFiles += other.skippedFiles();
+            convertedChannels += other.convertedChannels();
+        }
+        errors.addAll(otherErrors);
+        OutputWrites otherWrites = other.writes();
+        writes.add(otherWrites.created(), otherWrites.updated(), otherWrites.unchanged());
+    }
+
+    /**
+     * Read a report written by {@link #toJson()}.
+     */
+    public static ConversionReport fromJson(String json) {
+        if (!(Json.parse(json) instanceof Map<?, ?> object)) {
+            throw new IllegalArgumentException("Conversion report must be a JSON object");
+        }
+        ConversionReport report = new ConversionReport();
+        report.convertedFiles = count(object, "convertedFiles");
+        report.convertedChannels = count(object, "convertedChannels");
+        report.failedFiles = count(object, "failedFiles");
+        report.skippedFiles = count(object, "skippedFiles");
+        // Reports written before output writes were counted have no write counts
+        if (object.containsKey("createdOutputs")) {
+            report.writes.add(count(object, "createdOutputs"), count(object, "updatedOutputs"),
+                    count(object, "unchangedOutputs"));
+        }
+        if (object.get("errors") instanceof List<?> entries) {
+            for (Object entry : entries) {
+                if (!(entry instanceof Map<?, ?> error) || !(error.get("file") instanceof String file)
+                    || !(error.get("reason") instanceof String reason)) {
+                    throw new IllegalArgumentException("Each error needs a \"file\" and a \"reason\"");
+                }
+                int line = error.get("line") instanceof Double value ? value.intValue() : 0;
+                String channel = error.get("channel") instanceof String value ? value : null;
+                report.errors.add(new ConversionError(file, line, channel, reason));
+            }
+        }
+        return report;
+    }
+
+    public synchronized int convertedFiles() {
+        return convertedFiles;
+    }
+
+    public synchronized int failedFiles() {
+        return failedFiles;
+    }
+
+    public synchronized int skippedFiles() {
+        return skippedFiles;
+    }
+
+    public synchronized int convertedChannels() {
+        return convertedChannels;
+    }
+
+    /**
+     * The output files written so far, by whether their content changed.
+     */
+    public OutputWrites writes() {
+        return writes;
+    }
+
+    public List<ConversionError> errors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Human-readable summary listing at most {@code maxErrors} errors.
+     */
+    public String summary(int maxErrors) {
+        List<ConversionError> all = errors();
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d file(s) converted, %d channel(s), %d failed", convertedFiles(),
+                convertedChannels(), failedFiles()));
+        if (skippedFiles() > 0) {
+            text.append(String.format(", %d skipped", skippedFiles()));
+        }
+        if (writes.total() > 0) {
+            text.append("; ").append(writes.summary());
+        }
+        for (int i = 0; i < Math.min(maxErrors, all.size()); i++) {
+            text.append("\n  ").append(all.get(i).describe());
+        }
+        if (all.size() > maxErrors) {
+            text.append(String.format("\n  ... and %d more", all.size() - maxErrors));
+        }
+        return text.toString();
+    }
+
+    public String toJson() {
+        List<ConversionError> all = errors();
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"convertedFiles\": ").append(convertedFiles()).append(",\n");
+        json.append("  \"convertedChannels\": ").append(convertedChannels()).append(",\n");
+        json.append("  \"failedFiles\": ").append(failedFiles()).append(",\n");
+        json.append("  \"skippedFiles\": ").append(skippedFiles()).append(",\n");
+        json.append("  \"createdOutputs\": ").append(writes.created()).append(",\n");
+        json.append("  \"updatedOutputs\": ").append(writes.updated()).append(",\n");
+        json.append("  \"unchangedOutputs\": ").append(writes.unchanged()).append(",\n");
+        json.append("  \"errors\": [");
+        for (int i = 0; i < all.size(); i++) {
+            ConversionError error = all.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"file\": ").append(Json.quote(error.file()))
+                    .append(", \"line\": ").append(error.line());
+            if (error.channel() != null) {
+                json.append(", \"channel\": ").append(Json.quote(error.channel()));
+            }
+            json.append(", \"reason\": ").append(Json.quote(error.reason())).append('}');
+        }
+        json.append(all.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    private static int count(Map<?, ?> object, String key) {
+        if (!(object.get(key) instanceof Double value)) {
+            throw new IllegalArgumentException("Conversion report needs a \"" + key + "\" count");
+        }
+        return value.intValue();
+    }
+}
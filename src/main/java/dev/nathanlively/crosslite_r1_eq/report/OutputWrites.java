@@ -0,0 +1,100 @@
+package dev.nathanlively.crosslite_r1_eq.report;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * How many output files a conversion created, rewrote with new content, or left alone because their bytes were
+ * already up to date. Safe to update from several conversion threads.
+ */
+public class OutputWrites {
+
+    private static final int COMPARE_BUFFER_BYTES = 1 << 16;
+
+    public enum Outcome {
+        CREATED, UPDATED, UNCHANGED
+    }
+
+    private int created;
+    private int updated;
+    private int unchanged;
+
+    public synchronized void record(Outcome outcome) {
+        switch (outcome) {
+            case CREATED -> created++;
+            case UPDATED -> updated++;
+            case UNCHANGED -> unchanged++;
+        }
+    }
+
+    public synchronized void add(int created, int updated, int unchanged) {
+        this.created += created;
+        this.updated += updated;
+        this.unchanged += unchanged;
+    }
+
+    public synchronized int created() {
+        return created;
+    }
+
+    public synchronized int updated() {
+        return updated;
+    }
+
+    public synchronized int unchanged() {
+        return unchanged;
+    }
+
+    public synchronized int total() {
+        return created + updated + unchanged;
+    }
+
+    public synchronized String summary() {
+        return String.format("%d output(s) created, %d updated, %d unchanged", created, updated, unchanged);
+    }
+
+    /**
+     * Write {@code content} to {@code output}, leaving the file untouched when it already holds exactly those
+     * bytes, so unchanged outputs keep their modification time and are not picked up again by sync tools.
+     */
+    public static Outcome write(Path output, byte[] content) throws IOException {
+        Outcome outcome = compare(output, content);
+        if (outcome != Outcome.UNCHANGED) {
+            Files.write(output, content);
+        }
+        return outcome;
+    }
+
+    /**
+     * What writing {@code content} to {@code output} would do. The size is compared first and the bytes only
+     * when it matches.
+     */
+    public static Outcome compare(Path output, byte[] content) throws IOException {
+        if (!Files.exists(output)) {
+            return Outcome.CREATED;
+        }
+        if (Files.size(output) == content.length && hasContent(output, content)) {
+            return Outcome.UNCHANGED;
+        }
+        return Outcome.UPDATED;
+    }
+
+    private static boolean hasContent(Path file, byte[] content) throws IOException {
+        byte[] buffer = new byte[COMPARE_BUFFER_BYTES];
+        try (InputStream in = Files.newInputStream(file)) {
+            int offset = 0;
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                if (offset + read > content.length
+                    || Arrays.mismatch(buffer, 0, read, content, offset, offset + read) >= 0) {
+                    return false;
+                }
+                offset += read;
+            }
+            return offset == content.length;
+        }
+    }
+}
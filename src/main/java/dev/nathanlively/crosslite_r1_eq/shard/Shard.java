@@ -0,0 +1,84 @@
+package dev.nathanlively.crosslite_r1_eq.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * One of {@code count} disjoint parts of a directory conversion, numbered from 1.
+ * <p>
+ * Inputs are assigned by a CRC32C hash of their path relative to the input directory, with {@code /} as the
+ * separator, so every process and host agrees on the partition without sharing any state, and adding or
+ * removing a file never moves the others to another shard.
+ */
+public record Shard(
+    int index,
+    int count
+) {
+    private static final Shard ALL = new Shard(1, 1);
+
+    public Shard {
+        if (count < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        if (index < 1 || index > count) {
+            throw new IllegalArgumentException("Shard index must be between 1 and " + count);
+        }
+    }
+
+    /**
+     * The whole input, i.e. no sharding.
+     */
+    public static Shard all() {
+        return ALL;
+    }
+
+    /**
+     * Parse {@code i/N}, e.g. {@code 2/8}.
+     */
+    public static Shard parse(String text) {
+        int slash = text.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Shard must look like i/N, e.g. 1/4: " + text);
+        }
+        try {
+            return new Shard(Integer.parseInt(text.substring(0, slash).trim()),
+                    Integer.parseInt(text.substring(slash + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Shard must look like i/N, e.g. 1/4: " + text);
+        }
+    }
+
+    public boolean isAll() {
+        return count == 1;
+    }
+
+    /**
+     * Whether this shard converts the input at {@code relativePath} ({@code /}-separated).
+     */
+    public boolean contains(String relativePath) {
+        if (isAll()) {
+            return true;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(relativePath.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue() % count == index - 1;
+    }
+
+    /**
+     * The per-shard variant of a file the conversion writes into the output directory, so shards sharing it
+     * don't overwrite each other: {@code conversion-errors.json} becomes {@code conversion-errors.shard-2-of-8.json}.
+     */
+    public String fileName(String name) {
+        if (isAll()) {
+            return name;
+        }
+        int dot = name.lastIndexOf('.');
+        String suffix = ".shard-" + index + "-of-" + count;
+        return dot > 0 ? name.substring(0, dot) + suffix + name.substring(dot) : name + suffix;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
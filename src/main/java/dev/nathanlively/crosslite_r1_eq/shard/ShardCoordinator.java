@@ -0,0 +1,220 @@
+package dev.nathanlively.crosslite_r1_eq.shard;
+
+import dev.nathanlively.crosslite_r1_eq.Application;
+import dev.nathanlively.crosslite_r1_eq.DirectoryOptions;
+import dev.nathanlively.crosslite_r1_eq.journal.ConversionJournal;
+import dev.nathanlively.crosslite_r1_eq.report.ConversionReport;
+import dev.nathanlively.crosslite_r1_eq.report.OutputWrites;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a directory conversion as {@code N} worker processes of this application, one per {@link Shard}, and
+ * merges what they leave in the output directory.
+ * <p>
+ * Workers share nothing but the output directory: each writes its own journal and error report under a
+ * per-shard name, and its console output to a per-shard {@value #LOG_FILE_NAME} file. Afterwards the shard
+ * journals are merged into the regular journal, so a later unsharded {@code --resume} skips their inputs, and
+ * the shard reports into one {@value ConversionReport#ERRORS_FILE_NAME}. The shard journals are kept so that
+ * an interrupted coordinated run can itself be resumed with the same worker count; once every shard has finished
+ * without errors, all journals are removed.
+ */
+@Component
+public class ShardCoordinator {
+
+    public static final String LOG_FILE_NAME = ".crosslite-r1-eq.log";
+
+    private static final String SCRIPT_FILE_NAME = ".crosslite-r1-eq.script";
+    private static final Logger log = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    private final List<String> propertyArguments;
+
+    public ShardCoordinator(ApplicationArguments arguments) {
+        // Spring properties such as --crosslite-r1-eq.sample-rate=96000 next to an @script, not the shell command
+        this.propertyArguments = Arrays.stream(arguments.getSourceArgs())
+                .filter(arg -> arg.startsWith("--") && arg.contains("="))
+                .toList();
+    }
+
+    /**
+     * Convert {@code inputDir} into {@code outputDir} with {@code workers} processes and return the merged report.
+     *
+     * @throws IOException if a worker stops without finishing its shard; the shards that did finish are merged first
+     */
+    public ConversionReport run(Path inputDir, Path outputDir, int workers, List<OutputFormat> formats,
+                                DirectoryOptions options) throws IOException, InterruptedException {
+        if (workers < 2) {
+            // A single shard is the whole input, which converts without a coordinator
+            throw new IllegalArgumentException("Use at least 2 workers, or convert without --workers");
+        }
+        if (!Files.isDirectory(inputDir)) {
+            throw new IllegalArgumentException("Input directory does not exist: " + inputDir);
+        }
+        Files.createDirectories(outputDir);
+        String formatNames = formats.stream().map(OutputFormat::name).collect(Collectors.joining(","));
+
+        List<Process> processes = new ArrayList<>();
+        try {
+            for (int index = 1; index <= workers; index++) {
+                Shard shard = new Shard(index, workers);
+                // A report left by an earlier run would make a failed worker look finished
+                Files.deleteIfExists(outputDir.resolve(shard.fileName(ConversionReport.ERRORS_FILE_NAME)));
+                Path script = outputDir.resolve(shard.fileName(SCRIPT_FILE_NAME));
+                Files.writeString(script, workerCommand(inputDir, outputDir, shard, formatNames, options) + "\n");
+
+                processes.add(new ProcessBuilder(workerLaunch(script))
+                        .redirectErrorStream(true)
+                        .redirectOutput(outputDir.resolve(shard.fileName(LOG_FILE_NAME)).toFile())
+                        .start());
+            }
+            log.info("Started {} worker(s) converting {} to {}", workers, inputDir, outputDir);
+            for (Process process : processes) {
+                process.waitFor();
+            }
+        } finally {
+            // Only matters when interrupted or a worker failed to start; exited workers ignore it
+            processes.forEach(Process::destroy);
+            for (int index = 1; index <= workers; index++) {
+                Files.deleteIfExists(outputDir.resolve(new Shard(index, workers).fileName(SCRIPT_FILE_NAME)));
+            }
+        }
+
+        List<String> failed = new ArrayList<>();
+        ConversionReport report = merge(outputDir, workers, options, failed);
+        if (!failed.isEmpty()) {
+            throw new IOException("Shard(s) " + String.join(", ", failed) + " did not finish, see their "
+                                  + LOG_FILE_NAME + " files in " + outputDir);
+        }
+        if (!report.hasErrors()) {
+            // Every shard finished cleanly, so there is nothing left to resume
+            Files.deleteIfExists(outputDir.resolve(ConversionJournal.FILE_NAME));
+            for (int index = 1; index <= workers; index++) {
+                Files.deleteIfExists(outputDir.resolve(new Shard(index, workers).fileName(ConversionJournal.FILE_NAME)));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Merge the journals and error reports the {@code workers} shards left in {@code outputDir}. Shards without a
+     * report did not finish and are added to {@code failed}; their journals are still merged.
+     */
+    public ConversionReport merge(Path outputDir, int workers, DirectoryOptions options, List<String> failed)
+            throws IOException {
+        ConversionReport report = new ConversionReport();
+        // Loaded even without --resume, so records already merged are not appended again. Stale records are
+        // harmless: a resume also checks the outputs they describe
+        try (ConversionJournal merged = ConversionJournal.open(outputDir.resolve(ConversionJournal.FILE_NAME),
+                true)) {
+            for (int index = 1; index <= workers; index++) {
+                Shard shard = new Shard(index, workers);
+                Path journalFile = outputDir.resolve(shard.fileName(ConversionJournal.FILE_NAME));
+                if (Files.exists(journalFile)) {
+                    try (ConversionJournal journal = ConversionJournal.open(journalFile, true)) {
+                        for (Map.Entry<String, ConversionJournal.Entry> entry : journal.entries().entrySet()) {
+                            ConversionJournal.Entry done = entry.getValue();
+                            if (!done.equals(merged.entries().get(entry.getKey()))) {
+                                merged.record(entry.getKey(), done.inputSize(), done.inputModified(),
+                                        done.outputBytes(), done.outputHash());
+                            }
+                        }
+                    }
+                }
+
+                Path reportFile = outputDir.resolve(shard.fileName(ConversionReport.ERRORS_FILE_NAME));
+                if (!Files.exists(reportFile)) {
+                    failed.add(shard.toString());
+                    continue;
+                }
+                report.add(ConversionReport.fromJson(Files.readString(reportFile)));
+                Files.delete(reportFile);
+                Files.deleteIfExists(outputDir.resolve(shard.fileName(LOG_FILE_NAME)));
+            }
+        }
+        if (options.keepGoing()) {
+            OutputWrites.write(outputDir.resolve(ConversionReport.ERRORS_FILE_NAME),
+                    report.toJson().getBytes(StandardCharsets.UTF_8));
+        }
+        log.info("Merged {} of {} shard(s): {} file(s) converted, {} failed", workers - failed.size(), workers,
+                report.convertedFiles(), report.failedFiles());
+        return report;
+    }
+
+    private static String workerCommand(Path inputDir, Path outputDir, Shard shard, String formatNames,
+                                        DirectoryOptions options) {
+        StringBuilder command = new StringBuilder("convert-directory")
+                .append(" -i ").append(quote(inputDir))
+                .append(" -o ").append(quote(outputDir))
+                .append(" --shard ").append(shard)
+                .append(" -f ").append(formatNames);
+        if (options.resume()) {
+            command.append(" --resume");
+        }
+        if (options.keepGoing()) {
+            command.append(" --keep-going");
+        }
+        if (options.verify()) {
+            command.append(" --verify");
+        }
+        return command.toString();
+    }
+
+    static String quote(Path path) {
+        // Forward slashes work on every platform and need no escaping in the shell's parser; quotes do
+        String absolute = path.toAbsolutePath().toString().replace('\\', '/');
+        return '"' + absolute.replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * The command that starts a worker on {@code script}: this process's own command, followed by the Spring
+     * properties it was started with.
+     */
+    List<String> workerLaunch(Path script) {
+        List<String> command = new ArrayList<>(currentCommand());
+        // The script must come first for the shell to run it; Spring reads the properties wherever they are
+        command.add("@" + script.toAbsolutePath());
+        command.addAll(propertyArguments);
+        return command;
+    }
+
+    /**
+     * The command that started this process: the native executable, or the JVM with its options and this jar or
+     * class path.
+     */
+    private static List<String> currentCommand() {
+        if (System.getProperty("org.graalvm.nativeimage.imagecode") != null) {
+            return List.of(ProcessHandle.current().info().command()
+                    .orElseThrow(() -> new IllegalStateException("Cannot find the running executable")));
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            // Every worker would try to open the same debugger port
+            if (!option.startsWith("-agentlib:jdwp") && !option.startsWith("-Xrunjdwp")) {
+                command.add(option);
+            }
+        }
+        String classPath = System.getProperty("java.class.path");
+        if (!classPath.contains(File.pathSeparator) && classPath.endsWith(".jar")) {
+            command.addAll(List.of("-jar", classPath));
+        } else {
+            command.addAll(List.of("-cp", classPath, Application.class.getName()));
+        }
+        return command;
+    }
+}
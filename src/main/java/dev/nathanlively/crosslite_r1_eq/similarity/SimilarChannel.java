@@ -0,0 +1,7 @@
+package dev.nathanlively.crosslite_r1_eq.similarity;
+
+/**
+ * An archived channel and its RMS response difference from the target, in dB.
+ */
+public record SimilarChannel(String file, String channel, float distance) {
+}
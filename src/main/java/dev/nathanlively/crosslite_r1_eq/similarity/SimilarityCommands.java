@@ -0,0 +1,73 @@
+package dev.nathanlively.crosslite_r1_eq.similarity;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.jspecify.annotations.Nullable;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+
+@Command(group = "Analysis")
+public class SimilarityCommands {
+
+    private final SimilaritySearch search;
+    private final FileConversionService conversionService;
+    private final CrossLiteParser parser;
+
+    public SimilarityCommands(SimilaritySearch search, FileConversionService conversionService,
+                              CrossLiteParser parser) {
+        this.search = search;
+        this.conversionService = conversionService;
+        this.parser = parser;
+    }
+
+    @Command(command = "similar", description = "Find archived channels whose EQ response is closest to a channel")
+    public String similar(
+            @Option(longNames = "input", shortNames = 'i', required = true, description = "CrossLite file with the target EQ") String inputPath,
+            @Nullable @Option(longNames = "channel", shortNames = 'c', description = "Target channel (optional, defaults to the first)") String channel,
+            @Option(longNames = "dir", shortNames = 'd', defaultValue = ".", description = "Archive directory") String dir,
+            @Option(longNames = "top", shortNames = 'k', defaultValue = "10", description = "Number of matches") int top,
+            @Option(longNames = "threads", defaultValue = "0", description = "Scan threads (0 = available processors)") int threads) {
+        try {
+            Path input = Paths.get(inputPath);
+            if (!Files.isRegularFile(input)) {
+                return "Error: Input file does not exist: " + inputPath;
+            }
+            Map<String, CrossLiteSettings> channels = parser.parseMultiChannel(conversionService.readContent(input));
+            if (channels.isEmpty()) {
+                return "❌ Error: No EQ bands found in " + inputPath;
+            }
+            String targetName = channel != null ? channel : channels.keySet().iterator().next();
+            CrossLiteSettings target = channels.get(targetName);
+            if (target == null) {
+                return "❌ Error: No channel '" + targetName + "' in " + inputPath + ", found " + channels.keySet();
+            }
+
+            int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+            SimilarityResult result = search.find(target.eqBands(), Paths.get(dir), input, top, workers);
+
+            StringBuilder output = new StringBuilder(String.format(Locale.ROOT,
+                    "Closest to %s [%s] among %d channel(s) in %d file(s), %d ms:",
+                    input.getFileName(), targetName, result.channelsScanned(), result.filesScanned(),
+                    result.elapsedMillis()));
+            int rank = 1;
+            for (SimilarChannel match : result.matches()) {
+                output.append(String.format(Locale.ROOT, "\n  %2d. %s [%s]  %.2f dB RMS",
+                        rank++, match.file(), match.channel(), match.distance()));
+            }
+            return output.toString();
+        } catch (IllegalArgumentException | IOException e) {
+            return "❌ Error: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "❌ Search interrupted";
+        }
+    }
+}
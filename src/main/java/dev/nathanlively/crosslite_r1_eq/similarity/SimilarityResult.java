@@ -0,0 +1,10 @@
+package dev.nathanlively.crosslite_r1_eq.similarity;
+
+import java.util.List;
+
+/**
+ * The closest channels, best first, and how much of the archive was scanned to find them.
+ */
+public record SimilarityResult(List<SimilarChannel> matches, long filesScanned, long channelsScanned,
+                               long elapsedMillis) {
+}
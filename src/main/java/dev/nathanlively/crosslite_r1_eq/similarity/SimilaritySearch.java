@@ -0,0 +1,135 @@
+package dev.nathanlively.crosslite_r1_eq.similarity;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.dsp.ResponseCurve;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Finds the archived channels whose response curve is closest to a target curve.
+ * <p>
+ * This is a flat scan: every worker pulls the next file, turns each channel into a {@link ResponseCurve}
+ * in a reused buffer and compares it straight away. Nothing is kept per channel except a candidate in the
+ * worker's own top-k heap, so memory stays at k entries per worker however large the archive is.
+ */
+@Component
+public class SimilaritySearch {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilaritySearch.class);
+
+    private static final Comparator<SimilarChannel> BEST_FIRST = Comparator.comparingDouble(SimilarChannel::distance)
+            .thenComparing(SimilarChannel::file)
+            .thenComparing(SimilarChannel::channel);
+
+    private final FileConversionService conversionService;
+    private final CrossLiteParser parser;
+
+    public SimilaritySearch(FileConversionService conversionService, CrossLiteParser parser) {
+        this.conversionService = conversionService;
+        this.parser = parser;
+    }
+
+    /**
+     * Return the {@code k} channels in {@code archive} closest to {@code target}, leaving out {@code exclude}
+     * (normally the file the target came from).
+     */
+    public SimilarityResult find(List<EqBand> target, Path archive, Path exclude, int k, int threads)
+            throws IOException, InterruptedException {
+        if (k < 1 || threads < 1) {
+            throw new IllegalArgumentException("Match count and threads must be at least 1");
+        }
+        if (!Files.isDirectory(archive)) {
+            throw new IllegalArgumentException("Archive directory does not exist: " + archive);
+        }
+        long start = System.nanoTime();
+        float[] targetCurve = new float[ResponseCurve.GRID_POINTS];
+        ResponseCurve.magnitudeDb(target, targetCurve, new double[ResponseCurve.GRID_POINTS]);
+
+        List<Path> files;
+        Path excluded = exclude.toAbsolutePath().normalize();
+        try (Stream<Path> paths = Files.walk(archive)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().toLowerCase().endsWith(".txt"))
+                    .filter(path -> !path.toAbsolutePath().normalize().equals(excluded))
+                    .toList();
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        LongAdder channels = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<PriorityQueue<SimilarChannel>> heaps = new ArrayList<>();
+        try {
+            List<Future<PriorityQueue<SimilarChannel>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> scan(archive, files, next, targetCurve, k, channels)));
+            }
+            for (Future<PriorityQueue<SimilarChannel>> future : futures) {
+                try {
+                    heaps.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Similarity worker failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<SimilarChannel> matches = new ArrayList<>();
+        heaps.forEach(matches::addAll);
+        matches.sort(BEST_FIRST);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new SimilarityResult(List.copyOf(matches.subList(0, Math.min(k, matches.size()))),
+                files.size(), channels.sum(), elapsedMillis);
+    }
+
+    private PriorityQueue<SimilarChannel> scan(Path archive, List<Path> files, AtomicInteger next,
+                                               float[] targetCurve, int k, LongAdder channels) {
+        // Worst match on top, so it is the one evicted
+        PriorityQueue<SimilarChannel> best = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+        float[] curve = new float[ResponseCurve.GRID_POINTS];
+        double[] scratch = new double[ResponseCurve.GRID_POINTS];
+        for (int i = next.getAndIncrement(); i < files.size(); i = next.getAndIncrement()) {
+            Path file = files.get(i);
+            Map<String, CrossLiteSettings> parsed;
+            try {
+                parsed = parser.parseMultiChannel(conversionService.readContent(file), new ArrayList<>());
+            } catch (IOException e) {
+                log.warn("Skipping {}: {}", file, e.getMessage());
+                continue;
+            }
+            String name = archive.relativize(file).toString().replace('\\', '/');
+            for (Map.Entry<String, CrossLiteSettings> channel : parsed.entrySet()) {
+                ResponseCurve.magnitudeDb(channel.getValue().eqBands(), curve, scratch);
+                float distance = ResponseCurve.rmsDistance(targetCurve, curve);
+                channels.increment();
+                if (best.size() < k || distance < best.peek().distance()) {
+                    best.add(new SimilarChannel(name, channel.getKey(), distance));
+                    if (best.size() > k) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        return best;
+    }
+}
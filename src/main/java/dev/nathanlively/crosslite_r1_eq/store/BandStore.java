@@ -0,0 +1,398 @@
+package dev.nathanlively.crosslite_r1_eq.store;
+
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.index.BandHit;
+import dev.nathanlively.crosslite_r1_eq.index.BandQuery;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+/**
+ * Bands kept off the heap in a memory-mapped file of fixed-width records, for archive-wide analytics.
+ * <p>
+ * Scans read straight from the mapping, so heap use stays the same however many bands the store holds; only
+ * the names of channels that are actually looked up are decoded. All values are little-endian:
+ * <pre>
+ * header   "XLSTORE1", long band count, long channel count, long offset of the names
+ * records  per band: double frequency, double gain, double Q, int channel id, int band number (1-based)
+ * names    long[channels] offsets relative to the first entry, then per channel:
+ *          int length, file UTF-8, int length, channel UTF-8
+ * </pre>
+ * An open store may be read from any number of threads; {@link #close()} unmaps it, after which reads fail.
+ */
+public final class BandStore implements AutoCloseable {
+
+    static final byte[] MAGIC = "XLSTORE1".getBytes(StandardCharsets.US_ASCII);
+    static final long HEADER_BYTES = 32;
+
+    static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt UNALIGNED_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    static final StructLayout RECORD = MemoryLayout.structLayout(
+            DOUBLE.withName("frequency"),
+            DOUBLE.withName("gain"),
+            DOUBLE.withName("q"),
+            INT.withName("channel"),
+            INT.withName("band"));
+
+    private static final long FREQUENCY = offset("frequency");
+    private static final long GAIN = offset("gain");
+    private static final long Q = offset("q");
+    private static final long CHANNEL = offset("channel");
+    private static final long BAND = offset("band");
+    private static final long RECORD_BYTES = RECORD.byteSize();
+
+    // Rows per task when counting in parallel
+    private static final long SCAN_CHUNK = 1 << 16;
+
+    private final Arena arena;
+    private final MemorySegment records;
+    private final MemorySegment names;
+    private final long size;
+    private final int channelCount;
+
+    private BandStore(Arena arena, MemorySegment records, MemorySegment names, long size, int channelCount) {
+        this.arena = arena;
+        this.records = records;
+        this.names = names;
+        this.size = size;
+        this.channelCount = channelCount;
+    }
+
+    /**
+     * Receives each matching band during a {@link #scan}.
+     */
+    @FunctionalInterface
+    public interface BandVisitor {
+        void band(long row, int channelId, int bandNumber, double frequency, double gain, double qFactor);
+    }
+
+    /**
+     * Map the store at {@code path}. The file must be on a filesystem that supports memory mapping.
+     */
+    public static BandStore open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a band store: " + path);
+            }
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, arena);
+            byte[] magic = file.asSlice(0, MAGIC.length).toArray(ValueLayout.JAVA_BYTE);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a band store: " + path);
+            }
+            long size = file.get(LONG, 8);
+            long channels = file.get(LONG, 16);
+            long namesOffset = file.get(LONG, 24);
+            if (size < 0 || channels < 0 || channels > Integer.MAX_VALUE
+                    || namesOffset != HEADER_BYTES + size * RECORD_BYTES || namesOffset > fileSize) {
+                throw new IOException("Corrupt band store: " + path);
+            }
+            return new BandStore(arena, file.asSlice(HEADER_BYTES, size * RECORD_BYTES),
+                    file.asSlice(namesOffset), size, (int) channels);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int channelCount() {
+        return channelCount;
+    }
+
+    public double frequency(long row) {
+        return records.get(DOUBLE, row * RECORD_BYTES + FREQUENCY);
+    }
+
+    public double gain(long row) {
+        return records.get(DOUBLE, row * RECORD_BYTES + GAIN);
+    }
+
+    public double qFactor(long row) {
+        return records.get(DOUBLE, row * RECORD_BYTES + Q);
+    }
+
+    public int channelId(long row) {
+        return records.get(INT, row * RECORD_BYTES + CHANNEL);
+    }
+
+    public int bandNumber(long row) {
+        return records.get(INT, row * RECORD_BYTES + BAND);
+    }
+
+    /**
+     * The source file, relative to the archive, of a channel.
+     */
+    public String file(int channelId) {
+        return readString(entry(channelId));
+    }
+
+    public String channel(int channelId) {
+        long entry = entry(channelId);
+        return readString(entry + Integer.BYTES + names.get(UNALIGNED_INT, entry));
+    }
+
+    /**
+     * Number of bands matching {@code query}, counted in parallel straight from the mapping.
+     */
+    public long count(BandQuery query) {
+        long chunks = (size + SCAN_CHUNK - 1) / SCAN_CHUNK;
+        return LongStream.range(0, chunks)
+                .parallel()
+                .map(chunk -> count(query, chunk * SCAN_CHUNK, Math.min(size, (chunk + 1) * SCAN_CHUNK)))
+                .sum();
+    }
+
+    /**
+     * Visit every band matching {@code query} in row order, without materializing any records.
+     */
+    public void scan(BandQuery query, BandVisitor visitor) {
+        for (long row = 0, offset = 0; row < size; row++, offset += RECORD_BYTES) {
+            double frequency = records.get(DOUBLE, offset + FREQUENCY);
+            double gain = records.get(DOUBLE, offset + GAIN);
+            double qFactor = records.get(DOUBLE, offset + Q);
+            if (matches(query, frequency, gain, qFactor)) {
+                visitor.band(row, records.get(INT, offset + CHANNEL), records.get(INT, offset + BAND),
+                        frequency, gain, qFactor);
+            }
+        }
+    }
+
+    /**
+     * The first {@code limit} matching bands, with their file and channel names.
+     */
+    public List<BandHit> search(BandQuery query, int limit) {
+        List<BandHit> hits = new ArrayList<>();
+        for (long row = 0; row < size && hits.size() < limit; row++) {
+            if (matches(query, frequency(row), gain(row), qFactor(row))) {
+                int channelId = channelId(row);
+                hits.add(new BandHit(file(channelId), channel(channelId), bandNumber(row), frequency(row),
+                        gain(row), qFactor(row)));
+            }
+        }
+        return hits;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long count(BandQuery query, long from, long to) {
+        long matches = 0;
+        for (long offset = from * RECORD_BYTES; offset < to * RECORD_BYTES; offset += RECORD_BYTES) {
+            if (matches(query, records.get(DOUBLE, offset + FREQUENCY), records.get(DOUBLE, offset + GAIN),
+                    records.get(DOUBLE, offset + Q))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static boolean matches(BandQuery query, double frequency, double gain, double qFactor) {
+        return frequency >= query.minFrequency() && frequency <= query.maxFrequency()
+               && gain >= query.minGain() && gain <= query.maxGain()
+               && qFactor >= query.minQ() && qFactor <= query.maxQ();
+    }
+
+    private long entry(int channelId) {
+        if (channelId < 0 || channelId >= channelCount) {
+            throw new IndexOutOfBoundsException("Channel id " + channelId + " out of range 0.." + channelCount);
+        }
+        return (long) channelCount * Long.BYTES + names.get(LONG, (long) channelId * Long.BYTES);
+    }
+
+    private String readString(long offset) {
+        int length = names.get(UNALIGNED_INT, offset);
+        return new String(names.asSlice(offset + Integer.BYTES, length).toArray(ValueLayout.JAVA_BYTE),
+                StandardCharsets.UTF_8);
+    }
+
+    private static long offset(String name) {
+        return RECORD.byteOffset(MemoryLayout.PathElement.groupElement(name));
+    }
+
+    /**
+     * Streams bands into a new store. Records go straight to a temporary file and channel names to spill files
+     * next to it, so writing also needs no heap in proportion to the archive. {@link #finish()} assembles the
+     * store and moves it into place; closing without finishing discards it and leaves any existing store as it
+     * was. Not thread-safe.
+     */
+    public static final class Writer implements AutoCloseable {
+        private static final int BUFFER_BYTES = 1 << 16;
+
+        private final Path path;
+        private final Path storeFile;
+        private final FileChannel out;
+        private final Path offsetsFile;
+        private final Path entriesFile;
+        private final FileChannel offsets;
+        private final FileChannel entries;
+        private final ByteBuffer records = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer offsetBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer entryBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long size;
+        private int channels;
+        private long entriesSize;
+        private boolean finished;
+
+        public Writer(Path path) throws IOException {
+            Path directory = path.toAbsolutePath().getParent();
+            this.path = path;
+            this.storeFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            this.offsetsFile = Files.createTempFile(directory, path.getFileName().toString(), ".offsets");
+            this.entriesFile = Files.createTempFile(directory, path.getFileName().toString(), ".names");
+            this.out = FileChannel.open(storeFile, StandardOpenOption.WRITE);
+            this.offsets = FileChannel.open(offsetsFile, StandardOpenOption.WRITE);
+            this.entries = FileChannel.open(entriesFile, StandardOpenOption.WRITE);
+            out.position(HEADER_BYTES);
+        }
+
+        /**
+         * Add every channel of a parsed file, as returned by
+         * {@link dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser#parseMultiChannel}.
+         */
+        public void addFile(String file, Map<String, CrossLiteSettings> parsed) throws IOException {
+            for (Map.Entry<String, CrossLiteSettings> channel : parsed.entrySet()) {
+                addChannel(file, channel.getKey(), channel.getValue().eqBands());
+            }
+        }
+
+        /**
+         * @return the id of the new channel
+         */
+        public int addChannel(String file, String channel, List<EqBand> bands) throws IOException {
+            if (channels == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Band store is full");
+            }
+            int id = channels++;
+            for (int band = 0; band < bands.size(); band++) {
+                if (records.remaining() < RECORD_BYTES) {
+                    drain(records, out);
+                }
+                EqBand eqBand = bands.get(band);
+                records.putDouble(eqBand.frequency())
+                        .putDouble(eqBand.gain())
+                        .putDouble(eqBand.qFactor())
+                        .putInt(id)
+                        .putInt(band + 1);
+                size++;
+            }
+
+            if (offsetBuffer.remaining() < Long.BYTES) {
+                drain(offsetBuffer, offsets);
+            }
+            offsetBuffer.putLong(entriesSize);
+            writeString(file);
+            writeString(channel);
+            return id;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Assemble the store, sync it to disk and atomically replace the file at the writer's path with it.
+         */
+        public void finish() throws IOException {
+            if (finished) {
+                throw new IllegalStateException("Band store already finished");
+            }
+            drain(records, out);
+            drain(offsetBuffer, offsets);
+            drain(entryBuffer, entries);
+            long namesOffset = HEADER_BYTES + size * RECORD_BYTES;
+            append(offsetsFile, namesOffset);
+            append(entriesFile, namesOffset + (long) channels * Long.BYTES);
+
+            ByteBuffer header = ByteBuffer.allocate((int) HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .put(MAGIC)
+                    .putLong(size)
+                    .putLong(channels)
+                    .putLong(namesOffset)
+                    .flip();
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+            out.force(true);
+            out.close();
+            Files.move(storeFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (out; offsets; entries) {
+                // Nothing to do but close the channels
+            } finally {
+                Files.deleteIfExists(offsetsFile);
+                Files.deleteIfExists(entriesFile);
+                if (!finished) {
+                    Files.deleteIfExists(storeFile);
+                }
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (entryBuffer.remaining() < Integer.BYTES + bytes.length) {
+                drain(entryBuffer, entries);
+            }
+            if (entryBuffer.remaining() < Integer.BYTES + bytes.length) {
+                // Longer than the buffer: write it directly
+                ByteBuffer large = ByteBuffer.allocate(Integer.BYTES + bytes.length).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt(bytes.length).put(bytes).flip();
+                while (large.hasRemaining()) {
+                    entries.write(large);
+                }
+            } else {
+                entryBuffer.putInt(bytes.length).put(bytes);
+            }
+            entriesSize += Integer.BYTES + bytes.length;
+        }
+
+        private void append(Path spill, long position) throws IOException {
+            try (FileChannel in = FileChannel.open(spill, StandardOpenOption.READ)) {
+                long length = in.size();
+                long copied = 0;
+                while (copied < length) {
+                    copied += in.transferTo(copied, length - copied, out.position(position + copied));
+                }
+            }
+        }
+
+        private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
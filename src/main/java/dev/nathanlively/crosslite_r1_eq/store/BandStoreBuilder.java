@@ -0,0 +1,95 @@
+package dev.nathanlively.crosslite_r1_eq.store;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParseException;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Parses every .txt file under an archive directory straight into a {@link BandStore} file.
+ */
+@Component
+public class BandStoreBuilder {
+
+    private static final int BATCH_FILES = 256;
+    private static final Logger log = LoggerFactory.getLogger(BandStoreBuilder.class);
+
+    private final FileConversionService conversionService;
+    private final CrossLiteParser parser;
+
+    public BandStoreBuilder(FileConversionService conversionService, CrossLiteParser parser) {
+        this.conversionService = conversionService;
+        this.parser = parser;
+    }
+
+    public record Build(int files, int channels, long bands) {
+    }
+
+    private record ParsedFile(String path, Map<String, CrossLiteSettings> channels) {
+    }
+
+    public Build build(Path archive, Path store) throws IOException {
+        if (!Files.isDirectory(archive)) {
+            throw new IllegalArgumentException("Archive directory does not exist: " + archive);
+        }
+        List<Path> sources;
+        try (Stream<Path> files = Files.walk(archive)) {
+            sources = files.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().toLowerCase().endsWith(".txt"))
+                    .sorted()
+                    .toList();
+        }
+
+        int files = 0;
+        int channels = 0;
+        try (BandStore.Writer writer = new BandStore.Writer(store)) {
+            // Files are parsed in parallel a batch at a time but appended in path order, so rebuilding an
+            // unchanged archive produces the same store, and only one batch of parsed files is held at once
+            for (int from = 0; from < sources.size(); from += BATCH_FILES) {
+                List<ParsedFile> batch = sources.subList(from, Math.min(from + BATCH_FILES, sources.size()))
+                        .parallelStream()
+                        .map(path -> parse(archive, path))
+                        .filter(Objects::nonNull)
+                        .toList();
+                for (ParsedFile file : batch) {
+                    writer.addFile(file.path(), file.channels());
+                    files++;
+                    channels += file.channels().size();
+                }
+            }
+            writer.finish();
+            Build build = new Build(files, channels, writer.size());
+            log.info("Stored {} band(s) from {} channel(s) in {} file(s)", build.bands(), build.channels(), build.files());
+            return build;
+        }
+    }
+
+    private @Nullable ParsedFile parse(Path archive, Path path) {
+        String relative = archive.relativize(path).toString().replace('\\', '/');
+        Map<String, CrossLiteSettings> channels;
+        List<CrossLiteParseException> problems = new ArrayList<>();
+        try {
+            channels = parser.parseMultiChannel(conversionService.readContent(path), problems);
+        } catch (IOException e) {
+            log.warn("Not storing {}: {}", relative, e.getMessage());
+            return null;
+        }
+        for (CrossLiteParseException problem : problems) {
+            log.warn("Not storing a channel of {}: {}", relative, problem.getMessage());
+        }
+        return new ParsedFile(relative, channels);
+    }
+}
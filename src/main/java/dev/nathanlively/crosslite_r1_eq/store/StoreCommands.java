@@ -0,0 +1,62 @@
+package dev.nathanlively.crosslite_r1_eq.store;
+
+import dev.nathanlively.crosslite_r1_eq.index.BandHit;
+import dev.nathanlively.crosslite_r1_eq.index.BandHits;
+import dev.nathanlively.crosslite_r1_eq.index.BandQuery;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+@Command(group = "Analysis")
+public class StoreCommands {
+
+    private final BandStoreBuilder builder;
+
+    public StoreCommands(BandStoreBuilder builder) {
+        this.builder = builder;
+    }
+
+    @Command(command = "store-build", description = "Parse an archive into an off-heap band store file")
+    public String build(
+            @Option(longNames = "dir", shortNames = 'd', defaultValue = ".", description = "Archive directory") String dir,
+            @Option(longNames = "output", shortNames = 'o', defaultValue = "bands.store", description = "Store file to write") String output) {
+        try {
+            long start = System.nanoTime();
+            BandStoreBuilder.Build build = builder.build(Paths.get(dir), Paths.get(output));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return String.format(Locale.ROOT, "✅ Stored %d band(s) from %d channel(s) in %d file(s) in %.1f s: %s",
+                    build.bands(), build.channels(), build.files(), seconds, output);
+        } catch (IllegalArgumentException | IOException e) {
+            return "❌ Error: " + e.getMessage();
+        }
+    }
+
+    @Command(command = "store-search", description = "Find EQ bands in a frequency, gain and Q range in a band store")
+    public String search(
+            @Option(longNames = "store", shortNames = 's', defaultValue = "bands.store", description = "Store file written by store-build") String store,
+            @Option(longNames = "min-freq", defaultValue = "0", description = "Lowest frequency in Hz") double minFrequency,
+            @Option(longNames = "max-freq", defaultValue = "Infinity", description = "Highest frequency in Hz") double maxFrequency,
+            @Option(longNames = "min-gain", defaultValue = "-Infinity", description = "Lowest gain in dB") double minGain,
+            @Option(longNames = "max-gain", defaultValue = "Infinity", description = "Highest gain in dB") double maxGain,
+            @Option(longNames = "min-q", defaultValue = "0", description = "Lowest Q") double minQ,
+            @Option(longNames = "max-q", defaultValue = "Infinity", description = "Highest Q") double maxQ,
+            @Option(longNames = "limit", defaultValue = "50", description = "Maximum bands to list") int limit) {
+        try (BandStore bands = BandStore.open(Paths.get(store))) {
+            BandQuery query = new BandQuery(minFrequency, maxFrequency, minGain, maxGain, minQ, maxQ);
+
+            long start = System.nanoTime();
+            long total = bands.count(query);
+            List<BandHit> hits = bands.search(query, limit);
+            double millis = (System.nanoTime() - start) / 1e6;
+
+            return BandHits.format(String.format(Locale.ROOT, "Found %d band(s) among %d stored in %.2f ms",
+                    total, bands.size(), millis), hits, total);
+        } catch (IllegalArgumentException | IOException e) {
+            return "❌ Error: " + e.getMessage();
+        }
+    }
+}
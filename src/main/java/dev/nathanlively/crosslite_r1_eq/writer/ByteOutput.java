@@ -0,0 +1,146 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with allocation-free number formatting for rendering templates.
+ * Not thread-safe; callers keep one per thread.
+ */
+public final class ByteOutput {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private final byte[] digits = new byte[20];
+    private byte[] buffer;
+    private int size;
+
+    public ByteOutput() {
+        this(1024);
+    }
+
+    public ByteOutput(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    public void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public void write(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+    }
+
+    public void writeString(String text) {
+        write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeString(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            write((byte) '-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensureCapacity(count);
+        while (count > 0) {
+            buffer[size++] = digits[--count];
+        }
+    }
+
+    /**
+     * Write {@code value} with exactly {@code decimals} fraction digits.
+     * Produces the same text as {@code String.format(Locale.ROOT, "%.<decimals>f", value)}.
+     */
+    public void writeFixed(double value, int decimals) {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length || !Double.isFinite(value)) {
+            writeSlow(value, decimals);
+            return;
+        }
+        double abs = Math.abs(value);
+        double scaled = abs * POWERS_OF_TEN[decimals];
+        if (scaled >= 0x1p52) {
+            writeSlow(value, decimals);
+            return;
+        }
+
+        long whole = (long) scaled;
+        double fraction = scaled - whole;
+        // Formatter rounds half-up on the shortest decimal representation; only ties need the exact path
+        if (Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) {
+            writeSlow(value, decimals);
+            return;
+        }
+        if (fraction > 0.5) {
+            whole++;
+        }
+
+        if (Double.doubleToRawLongBits(value) < 0) {
+            write((byte) '-');
+        }
+        long power = POWERS_OF_TEN[decimals];
+        writeLong(whole / power);
+        if (decimals > 0) {
+            write((byte) '.');
+            long fractionDigits = whole % power;
+            ensureCapacity(decimals);
+            for (int i = decimals - 1; i >= 0; i--) {
+                buffer[size + i] = (byte) ('0' + fractionDigits % 10);
+                fractionDigits /= 10;
+            }
+            size += decimals;
+        }
+    }
+
+    private void writeSlow(double value, int decimals) {
+        if (!Double.isFinite(value) || decimals < 0) {
+            writeString(String.valueOf(value));
+            return;
+        }
+        String text = new BigDecimal(Double.toString(Math.abs(value)))
+                .setScale(decimals, RoundingMode.HALF_UP)
+                .toPlainString();
+        if (Double.doubleToRawLongBits(value) < 0) {
+            write((byte) '-');
+        }
+        writeString(text);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
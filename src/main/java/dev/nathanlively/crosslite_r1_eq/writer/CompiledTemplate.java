@@ -0,0 +1,77 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A text template compiled once into static byte segments and value slots.
+ * Placeholders are written as {@code {name}} and literal braces doubled as <code>{{</code> and <code>}}</code>;
+ * rendering copies the segments and asks a {@link Slots} callback to write each value, so no parsing happens
+ * per render.
+ */
+public final class CompiledTemplate {
+
+    /**
+     * Writes the value for a slot, identified by its index in the declared slot names.
+     */
+    public interface Slots {
+        void write(int slot, ByteOutput out);
+    }
+
+    private final byte[][] segments;
+    private final int[] slots;
+
+    private CompiledTemplate(byte[][] segments, int[] slots) {
+        this.segments = segments;
+        this.slots = slots;
+    }
+
+    public static CompiledTemplate compile(String template, List<String> slotNames) {
+        List<byte[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        StringBuilder segment = new StringBuilder();
+        int position = 0;
+        while (position < template.length()) {
+            char c = template.charAt(position);
+            if ((c == '{' || c == '}') && template.startsWith(c == '{' ? "{{" : "}}", position)) {
+                // Doubled braces are literal, e.g. for JSON templates
+                segment.append(c);
+                position += 2;
+                continue;
+            }
+            if (c != '{') {
+                segment.append(c);
+                position++;
+                continue;
+            }
+            int close = template.indexOf('}', position);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + position + " in template");
+            }
+            String name = template.substring(position + 1, close);
+            int slot = slotNames.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder '{" + name + "}', expected one of " + slotNames);
+            }
+            segments.add(segment.toString().getBytes(StandardCharsets.UTF_8));
+            segment.setLength(0);
+            slots.add(slot);
+            position = close + 1;
+        }
+        segments.add(segment.toString().getBytes(StandardCharsets.UTF_8));
+
+        return new CompiledTemplate(
+                segments.toArray(byte[][]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public void render(ByteOutput out, Slots values) {
+        for (int i = 0; i < slots.length; i++) {
+            out.write(segments[i]);
+            values.write(slots[i], out);
+        }
+        out.write(segments[slots.length]);
+    }
+}
@@ -0,0 +1,20 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import org.springframework.stereotype.Component;
+
+/**
+ * The converted R1 filters as CSV, one row per filter, for tuning reports and spreadsheets.
+ */
+@Component
+public class CsvFormat extends TemplateOutputFormat {
+
+    public CsvFormat() {
+        super("csv", ".csv", FilterLimits.R1,
+                "filter,frequency,q,gain,enabled\n",
+                "{number},{frequency},{q},{gain},{enabled}\n",
+                "",
+                "",
+                6, "1", "0");
+    }
+}
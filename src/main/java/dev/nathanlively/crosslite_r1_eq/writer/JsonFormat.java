@@ -0,0 +1,20 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import org.springframework.stereotype.Component;
+
+/**
+ * The converted R1 filters as a JSON document, for show-control databases.
+ */
+@Component
+public class JsonFormat extends TemplateOutputFormat {
+
+    public JsonFormat() {
+        super("json", ".json", FilterLimits.R1,
+                "{\"filters\":[",
+                "{{\"number\":{number},\"frequency\":{frequency},\"q\":{q},\"gain\":{gain},\"enabled\":{enabled}}}",
+                ",",
+                "]}",
+                6, "true", "false");
+    }
+}
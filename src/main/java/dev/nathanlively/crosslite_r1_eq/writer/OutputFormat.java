@@ -0,0 +1,35 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A preset file format that converted filters can be rendered to.
+ * Implementations registered as Spring beans are picked up by {@link OutputFormats}. They are shared by all
+ * conversions, so rendering must be safe to call from several threads at once.
+ */
+public interface OutputFormat {
+
+    /**
+     * Short identifier used on the command line, e.g. "r1".
+     */
+    String name();
+
+    /**
+     * File extension including the dot, e.g. ".rcp".
+     */
+    String extension();
+
+    /**
+     * Ranges and filter count the target platform accepts.
+     */
+    FilterLimits limits();
+
+    void render(List<R1Filter> filters, OutputStream out) throws IOException;
+
+    byte[] render(List<R1Filter> filters);
+}
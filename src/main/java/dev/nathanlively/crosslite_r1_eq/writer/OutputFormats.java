@@ -0,0 +1,37 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of all {@link OutputFormat} beans, looked up by name.
+ */
+@Component
+public class OutputFormats {
+
+    private final Map<String, OutputFormat> formats = new LinkedHashMap<>();
+
+    public OutputFormats(List<OutputFormat> formats) {
+        for (OutputFormat format : formats) {
+            if (this.formats.putIfAbsent(format.name(), format) != null) {
+                throw new IllegalStateException("Duplicate output format name: " + format.name());
+            }
+        }
+    }
+
+    public OutputFormat get(String name) {
+        OutputFormat format = formats.get(name.toLowerCase());
+        if (format == null) {
+            throw new IllegalArgumentException("Unknown output format '" + name + "', available: " + names());
+        }
+        return format;
+    }
+
+    public Set<String> names() {
+        return formats.keySet();
+    }
+}
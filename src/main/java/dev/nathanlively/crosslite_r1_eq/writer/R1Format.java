@@ -0,0 +1,24 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import org.springframework.stereotype.Component;
+
+/**
+ * d&b audiotechnik R1 EQ preset (.rcp).
+ */
+@Component
+public class R1Format extends TemplateOutputFormat {
+
+    public R1Format() {
+        super("r1", ".rcp", FilterLimits.R1,
+                "<R1EQSETTINGS_20><EQ><REMARKS></REMARKS><EQx_ON>1.0</EQx_ON>",
+                "<FILTER_{number}>1.000000</FILTER_{number}>"
+                + "<F_{number}>{frequency}</F_{number}>"
+                + "<Q_{number}>{q}</Q_{number}>"
+                + "<G_{number}>{gain}</G_{number}>"
+                + "<E_{number}>{enabled}</E_{number}>",
+                "",
+                "</EQ></R1EQSETTINGS_20>",
+                6, "1.000000", "0.000000");
+    }
+}
@@ -0,0 +1,115 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Base class for formats made of a header, one block per filter and a footer.
+ * Filter blocks may use the placeholders {number}, {frequency}, {q}, {gain} and {enabled}.
+ * Templates are compiled once at construction; rendering reuses a per-thread buffer, so one instance can render
+ * on many threads at once.
+ */
+public abstract class TemplateOutputFormat implements OutputFormat {
+
+    private static final List<String> SLOT_NAMES = List.of("number", "frequency", "q", "gain", "enabled");
+    private static final int NUMBER = 0;
+    private static final int FREQUENCY = 1;
+    private static final int Q = 2;
+    private static final int GAIN = 3;
+    private static final int ENABLED = 4;
+
+    private final String name;
+    private final String extension;
+    private final FilterLimits limits;
+    private final byte[] header;
+    private final CompiledTemplate filterTemplate;
+    private final byte[] separator;
+    private final byte[] footer;
+    private final int decimals;
+    private final byte[] enabledValue;
+    private final byte[] disabledValue;
+    private final ThreadLocal<FilterSlots> slots = ThreadLocal.withInitial(FilterSlots::new);
+
+    protected TemplateOutputFormat(String name, String extension, FilterLimits limits,
+                                   String header, String filterTemplate, String separator, String footer,
+                                   int decimals, String enabledValue, String disabledValue) {
+        this.name = name;
+        this.extension = extension;
+        this.limits = limits;
+        this.header = header.getBytes(StandardCharsets.UTF_8);
+        this.filterTemplate = CompiledTemplate.compile(filterTemplate, SLOT_NAMES);
+        this.separator = separator.getBytes(StandardCharsets.UTF_8);
+        this.footer = footer.getBytes(StandardCharsets.UTF_8);
+        this.decimals = decimals;
+        this.enabledValue = enabledValue.getBytes(StandardCharsets.UTF_8);
+        this.disabledValue = disabledValue.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String extension() {
+        return extension;
+    }
+
+    @Override
+    public FilterLimits limits() {
+        return limits;
+    }
+
+    @Override
+    public void render(List<R1Filter> filters, OutputStream out) throws IOException {
+        FilterSlots values = slots.get();
+        renderInto(filters, values);
+        values.out.writeTo(out);
+    }
+
+    @Override
+    public byte[] render(List<R1Filter> filters) {
+        FilterSlots values = slots.get();
+        renderInto(filters, values);
+        return values.out.toByteArray();
+    }
+
+    private void renderInto(List<R1Filter> filters, FilterSlots values) {
+        ByteOutput out = values.out;
+        out.reset();
+        out.write(header);
+        for (int i = 0; i < filters.size(); i++) {
+            if (i > 0) {
+                out.write(separator);
+            }
+            values.number = i + 1;
+            values.filter = filters.get(i);
+            filterTemplate.render(out, values);
+        }
+        out.write(footer);
+        values.filter = null;
+    }
+
+    private final class FilterSlots implements CompiledTemplate.Slots {
+        private final ByteOutput out = new ByteOutput(2048);
+        private int number;
+        private R1Filter filter;
+
+        @Override
+        public void write(int slot, ByteOutput target) {
+            switch (slot) {
+                case NUMBER -> target.writeLong(number);
+                case FREQUENCY -> target.writeFixed(filter.frequency(), decimals);
+                case Q -> target.writeFixed(filter.qFactor(), decimals);
+                case GAIN -> target.writeFixed(filter.gain(), decimals);
+                case ENABLED -> target.write(filter.enabled() ? enabledValue : disabledValue);
+                default -> throw new IllegalStateException("Unknown slot " + slot);
+            }
+        }
+    }
+}
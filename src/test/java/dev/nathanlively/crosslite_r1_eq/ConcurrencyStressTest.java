@@ -0,0 +1,195 @@
+package dev.nathanlively.crosslite_r1_eq;
+
+import dev.nathanlively.crosslite_r1_eq.benchmark.CorpusGenerator;
+import dev.nathanlively.crosslite_r1_eq.benchmark.CorpusSpec;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.progress.ConversionProgress;
+import dev.nathanlively.crosslite_r1_eq.writer.CsvFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.JsonFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers one shared instance of each singleton from many threads released at the same moment and checks every
+ * result byte for byte against a single-threaded run.
+ */
+class ConcurrencyStressTest {
+
+    private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int ITERATIONS = 400;
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+    private final EqConverter converter = new EqConverter();
+    private final R1Writer writer = new R1Writer(new R1Format());
+    private final FileConversionService service = new FileConversionService(parser, converter, writer,
+            new BiquadSolver(), new BiquadDesigner());
+    private final List<OutputFormat> formats = List.of(new R1Format(), new JsonFormat(), new CsvFormat());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Timeout(60)
+    void shouldParseConvertAndRenderLikeSingleThreadedUnderContention() throws Exception {
+        List<String> inputs = new ArrayList<>();
+        for (String example : List.of("example1.txt", "example2.txt", "example3.txt", "example4.txt")) {
+            inputs.add(new String(new ClassPathResource(example).getInputStream().readAllBytes(),
+                    StandardCharsets.UTF_8));
+        }
+        CorpusGenerator generator = new CorpusGenerator();
+        CorpusSpec spec = new CorpusSpec(8, 2, 6, 12, true, false, 0, 11);
+        for (int i = 0; i < spec.fileCount(); i++) {
+            inputs.add(generator.generateContent(spec, i));
+        }
+        List<List<byte[]>> expected = new ArrayList<>();
+        for (String input : inputs) {
+            expected.add(renderAll(input));
+        }
+
+        List<Integer> mismatches = runConcurrently(() -> {
+            int failures = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                int pick = ThreadLocalRandom.current().nextInt(inputs.size());
+                List<byte[]> actual = renderAll(inputs.get(pick));
+                if (!sameBytes(actual, expected.get(pick))) {
+                    failures++;
+                }
+            }
+            return failures;
+        });
+
+        assertThat(mismatches).containsOnly(0);
+    }
+
+    @Test
+    @Timeout(60)
+    void shouldConvertDirectoriesConcurrentlyLikeSingleThreaded() throws Exception {
+        Path inputDir = tempDir.resolve("input");
+        new CorpusGenerator().generate(new CorpusSpec(12, 2, 4, 10, true, false, 0, 5), inputDir);
+        Files.copy(new ClassPathResource("example4.txt").getInputStream(), inputDir.resolve("example4.txt"));
+
+        Path baselineDir = tempDir.resolve("baseline");
+        service.convertDirectory(inputDir.toString(), baselineDir.toString(), formats, new ConversionProgress(),
+                DirectoryOptions.defaults());
+        Map<Path, byte[]> baseline = outputs(baselineDir);
+
+        // One progress shared by all runs, as a dashboard aggregating them would
+        ConversionProgress shared = new ConversionProgress();
+        List<Integer> mismatches = runConcurrently(() -> {
+            Path outputDir = Files.createTempDirectory(tempDir, "run");
+            service.convertDirectory(inputDir.toString(), outputDir.toString(), formats, shared,
+                    DirectoryOptions.defaults());
+            Map<Path, byte[]> actual = outputs(outputDir);
+            int failures = actual.keySet().equals(baseline.keySet()) ? 0 : 1;
+            for (Map.Entry<Path, byte[]> entry : baseline.entrySet()) {
+                byte[] content = actual.get(entry.getKey());
+                if (content == null || !Arrays.equals(content, entry.getValue())) {
+                    failures++;
+                }
+            }
+            return failures;
+        });
+
+        assertThat(baseline).isNotEmpty();
+        assertThat(mismatches).containsOnly(0);
+        long inputBytes;
+        try (Stream<Path> files = Files.walk(inputDir)) {
+            inputBytes = files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+        ConversionProgress.Snapshot snapshot = shared.snapshot();
+        assertThat(snapshot.files()).isEqualTo(13L * THREADS);
+        assertThat(snapshot.totalFiles()).isEqualTo(13L * THREADS);
+        assertThat(snapshot.bytes()).isEqualTo(inputBytes * THREADS);
+        assertThat(snapshot.totalBytes()).isEqualTo(inputBytes * THREADS);
+        assertThat(snapshot.failures()).isZero();
+    }
+
+    private List<byte[]> renderAll(String content) {
+        List<byte[]> rendered = new ArrayList<>();
+        for (CrossLiteSettings settings : parser.parseMultiChannel(content).values()) {
+            rendered.add(writer.writeToBytes(converter.convert(settings)));
+            for (OutputFormat format : formats) {
+                rendered.add(format.render(converter.convertFilters(settings, format.limits())));
+            }
+        }
+        return rendered;
+    }
+
+    private static boolean sameBytes(List<byte[]> actual, List<byte[]> expected) {
+        if (actual.size() != expected.size()) {
+            return false;
+        }
+        for (int i = 0; i < actual.size(); i++) {
+            if (!Arrays.equals(actual.get(i), expected.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<Path, byte[]> outputs(Path root) throws IOException {
+        Map<Path, byte[]> contents = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".rcp") || name.endsWith(".json") || name.endsWith(".csv")) {
+                    contents.put(root.relativize(file), Files.readAllBytes(file));
+                }
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * Run {@code task} on {@link #THREADS} platform threads that all start together, returning each result.
+     */
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return task.call();
+                }));
+            }
+            ready.await();
+            start.countDown();
+        }
+        List<T> values = new ArrayList<>();
+        for (Future<T> result : results) {
+            values.add(result.get());
+        }
+        return values;
+    }
+}
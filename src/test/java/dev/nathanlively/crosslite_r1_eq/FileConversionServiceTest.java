@@ -1,16 +1,37 @@
 package dev.nathanlively.crosslite_r1_eq;
 
 import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.journal.ConversionJournal;
 import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.progress.ConversionProgress;
+import dev.nathanlively.crosslite_r1_eq.report.ConversionReport;
+import dev.nathanlively.crosslite_r1_eq.shard.Shard;
+import dev.nathanlively.crosslite_r1_eq.writer.CsvFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.JsonFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
 import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.core.io.ClassPathResource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -26,8 +47,8 @@ class FileConversionServiceTest {
     void setUp() {
         parser = new CrossLiteParser();
         converter = new EqConverter();
-        writer = new R1Writer();
-        service = new FileConversionService(parser, converter, writer);
+        writer = new R1Writer(new R1Format());
+        service = new FileConversionService(parser, converter, writer, new BiquadSolver(), new BiquadDesigner());
     }
 
     @TempDir
@@ -116,6 +137,308 @@ class FileConversionServiceTest {
         assertThat(content).contains("<F_1>1001.000000</F_1>");
     }
 
+    @Test
+    void shouldSkipJournaledFilesOnResume() throws IOException {
+        Path inputDir = tempDir.resolve("input");
+        Path outputDir = tempDir.resolve("output");
+        Files.createDirectories(inputDir);
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputDir.resolve("example1.txt"));
+        Files.copy(new ClassPathResource("example2.txt").getInputStream(), inputDir.resolve("example2.txt"));
+        Files.copy(new ClassPathResource("example4.txt").getInputStream(), inputDir.resolve("example4.txt"));
+        Files.writeString(inputDir.resolve("broken.txt"), "Frequency= 0.0Hz Gain= 4.3dB Qbp= 1.200\n");
+        Path journal = outputDir.resolve(ConversionJournal.FILE_NAME);
+
+        // The broken file keeps the run from finishing cleanly, so its journal stays for a resume, even though
+        // this run was not started with --resume
+        service.convertDirectory(inputDir.toString(), outputDir.toString(), new ConversionProgress(),
+                new DirectoryOptions(false, true));
+        assertThat(Files.exists(journal)).isTrue();
+        Files.delete(outputDir.resolve("example1.rcp"));
+        Files.writeString(outputDir.resolve("example4/ml.rcp"), "edited");
+        Files.setLastModifiedTime(inputDir.resolve("example2.txt"), FileTime.fromMillis(1_000_000));
+
+        ConversionProgress progress = new ConversionProgress();
+        ConversionReport resumed = service.convertDirectory(inputDir.toString(), outputDir.toString(), progress,
+                new DirectoryOptions(true, true));
+
+        // Missing or resized outputs and touched inputs are converted again, as is the file that failed
+        assertThat(resumed.skippedFiles()).isEqualTo(0);
+        assertThat(progress.snapshot().totalFiles()).isEqualTo(4L);
+        assertThat(Files.exists(outputDir.resolve("example1.rcp"))).isTrue();
+        assertThat(Files.readString(outputDir.resolve("example4/ml.rcp"))).contains("<R1EQSETTINGS_20>");
+
+        Files.delete(inputDir.resolve("broken.txt"));
+        ConversionReport clean = service.convertDirectory(inputDir.toString(), outputDir.toString(),
+                new ConversionProgress(), new DirectoryOptions(true, true));
+        assertThat(clean.skippedFiles()).isEqualTo(3);
+        assertThat(Files.exists(journal)).isFalse();
+
+        // A run that finishes cleanly leaves no journal behind
+        service.convertDirectory(inputDir.toString(), outputDir.toString());
+        assertThat(Files.exists(journal)).isFalse();
+    }
+
+    @Test
+    void shouldOnlyCompareOutputContentOnResumeWhenVerifying() throws IOException {
+        Path inputDir = Files.createDirectory(tempDir.resolve("input"));
+        Path outputDir = tempDir.resolve("output");
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputDir.resolve("example1.txt"));
+        Files.writeString(inputDir.resolve("broken.txt"), "Frequency= 0.0Hz Gain= 4.3dB Qbp= 1.200\n");
+        service.convertDirectory(inputDir.toString(), outputDir.toString(), new ConversionProgress(),
+                new DirectoryOptions(false, true));
+        Path single = outputDir.resolve("example1.rcp");
+        // Same size, different bytes
+        Files.writeString(single, Files.readString(single).replace("<F_1>1001", "<F_1>1002"));
+
+        ConversionReport trusted = service.convertDirectory(inputDir.toString(), outputDir.toString(),
+                new ConversionProgress(), new DirectoryOptions(true, true));
+        assertThat(trusted.skippedFiles()).isEqualTo(1);
+        assertThat(Files.readString(single)).contains("<F_1>1002.000000</F_1>");
+
+        ConversionReport verified = service.convertDirectory(inputDir.toString(), outputDir.toString(),
+                new ConversionProgress(), new DirectoryOptions(true, true, Shard.all(), true));
+        assertThat(verified.skippedFiles()).isEqualTo(0);
+        assertThat(Files.readString(single)).contains("<F_1>1001.000000</F_1>");
+    }
+
+    @Test
+    void shouldConvertFilesWithDroppedChannelsAgainOnResume() throws IOException {
+        Path inputDir = tempDir.resolve("input");
+        Path outputDir = tempDir.resolve("output");
+        Files.createDirectories(inputDir);
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputDir.resolve("example1.txt"));
+        String example4 = new String(new ClassPathResource("example4.txt").getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+        Files.writeString(inputDir.resolve("example4.txt"), example4.replace("Frequency= 126.0Hz", "Frequency= 0.0Hz"));
+
+        ConversionReport first = service.convertDirectory(inputDir.toString(), outputDir.toString(),
+                new ConversionProgress(), new DirectoryOptions(true, true));
+        ConversionReport resumed = service.convertDirectory(inputDir.toString(), outputDir.toString(),
+                new ConversionProgress(), new DirectoryOptions(true, true));
+
+        assertThat(first.convertedFiles()).isEqualTo(2);
+        assertThat(first.hasErrors()).isTrue();
+        // Only the complete file was journaled
+        assertThat(resumed.skippedFiles()).isEqualTo(1);
+        assertThat(resumed.convertedFiles()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIsolateMalformedFilesWhenKeepingGoing() throws IOException {
+        Path inputDir = tempDir.resolve("input");
+        Path outputDir = tempDir.resolve("output");
+        Files.createDirectories(inputDir);
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputDir.resolve("example1.txt"));
+        Files.writeString(inputDir.resolve("broken.txt"), """
+                Frequency= 1001.0Hz Gain= -6.0dB Qbp= 0.750
+                Frequency= 0.0Hz Gain= 4.3dB Qbp= 1.200
+                """);
+
+        ConversionReport report = service.convertDirectory(inputDir.toString(), outputDir.toString(),
+                new ConversionProgress(), new DirectoryOptions(false, true));
+
+        assertThat(report.convertedFiles()).isEqualTo(1);
+        assertThat(report.failedFiles()).isEqualTo(1);
+        assertThat(report.errors().getFirst().describe()).isEqualTo(
+                "broken.txt:2: Frequency must be positive in 'Frequency= 0.0Hz Gain= 4.3dB Qbp= 1.200'");
+        assertThat(Files.exists(outputDir.resolve("example1.rcp"))).isTrue();
+        assertThat(Files.readString(outputDir.resolve(ConversionReport.ERRORS_FILE_NAME)))
+                .contains("\"file\": \"broken.txt\", \"line\": 2");
+
+        // A second run reports unchanged outputs, a third the same again, so its report is left alone
+        service.convertDirectory(inputDir.toString(), outputDir.toString(), new ConversionProgress(),
+                new DirectoryOptions(false, true));
+        Path errors = outputDir.resolve(ConversionReport.ERRORS_FILE_NAME);
+        FileTime earlier = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(errors, earlier);
+        service.convertDirectory(inputDir.toString(), outputDir.toString(), new ConversionProgress(),
+                new DirectoryOptions(false, true));
+        assertThat(Files.getLastModifiedTime(errors)).isEqualTo(earlier);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                service.convertDirectory(inputDir.toString(), tempDir.resolve("strict").toString()));
+    }
+
+    @Test
+    void shouldWriteBiquadCoefficientsAtEachSampleRate() throws IOException {
+        Path inputFile = tempDir.resolve("example1.txt");
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputFile);
+
+        Path coefficients = service.convertFileWithBiquads(inputFile.toString(),
+                tempDir.resolve("example1.rcp").toString());
+
+        assertThat(coefficients).isEqualTo(tempDir.resolve("example1" + FileConversionService.BIQUADS_SUFFIX));
+        String content = Files.readString(coefficients);
+        assertThat(content).contains("48000 Hz\nbiquad1,\nb0=0.926144439211431", "96000 Hz", "192000 Hz",
+                "biquad16,\nb0=1.000000000000000000,\nb1=0.000000000000000000,");
+        assertThat(content).doesNotContain("E-");
+        assertThat(Files.exists(tempDir.resolve("example1.rcp"))).isTrue();
+    }
+
+    @Test
+    void shouldWriteEveryFormatFromOneConversion() throws IOException {
+        Path inputDir = tempDir.resolve("input");
+        Path outputDir = tempDir.resolve("output");
+        Files.createDirectories(inputDir);
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputDir.resolve("example1.txt"));
+        Files.copy(new ClassPathResource("example4.txt").getInputStream(), inputDir.resolve("example4.txt"));
+
+        ConversionReport report = service.convertDirectory(inputDir.toString(), outputDir.toString(),
+                List.of(new R1Format(), new JsonFormat(), new CsvFormat()), new ConversionProgress(),
+                DirectoryOptions.defaults());
+
+        assertThat(report.convertedFiles()).isEqualTo(2);
+        assertThat(Files.readString(outputDir.resolve("example1.rcp"))).contains("<F_1>1001.000000</F_1>");
+        assertThat(Files.readString(outputDir.resolve("example1.json")))
+                .contains("{\"number\":1,\"frequency\":1001.000000,\"q\":0.750000,\"gain\":-6.000000");
+        assertThat(Files.readString(outputDir.resolve("example1.csv")))
+                .contains("1,1001.000000,0.750000,-6.000000,1\n");
+        try (var channels = Files.list(outputDir.resolve("example4"))) {
+            List<String> names = channels.map(path -> path.getFileName().toString()).toList();
+            assertThat(names.stream().filter(name -> name.endsWith(".rcp")).count())
+                    .isEqualTo(names.stream().filter(name -> name.endsWith(".json")).count())
+                    .isEqualTo(names.stream().filter(name -> name.endsWith(".csv")).count());
+        }
+
+        Path single = tempDir.resolve("single.rcp");
+        service.convertFile(inputDir.resolve("example1.txt").toString(), single.toString(),
+                List.of(new R1Format(), new CsvFormat()));
+        assertThat(Files.readString(single)).isEqualTo(Files.readString(outputDir.resolve("example1.rcp")));
+        assertThat(Files.readString(tempDir.resolve("single.csv")))
+                .isEqualTo(Files.readString(outputDir.resolve("example1.csv")));
+    }
+
+    @Test
+    void shouldWriteNoFormatWhenAnotherCannotBeWritten() throws IOException {
+        Path input = tempDir.resolve("example1.txt");
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), input);
+        // The CSV cannot be staged where a directory is in the way
+        Files.createDirectories(tempDir.resolve("single.csv.part/keep"));
+
+        assertThrows(IOException.class, () -> service.convertFile(input.toString(),
+                tempDir.resolve("single.rcp").toString(), List.of(new R1Format(), new CsvFormat())));
+
+        assertThat(Files.exists(tempDir.resolve("single.rcp"))).isFalse();
+        assertThat(Files.exists(tempDir.resolve("single.rcp.part"))).isFalse();
+        assertThat(Files.exists(tempDir.resolve("single.csv"))).isFalse();
+    }
+
+    @Test
+    void shouldConvertInsideZipFileSystem() throws IOException {
+        try (FileSystem zip = FileSystems.newFileSystem(tempDir.resolve("archive.zip"), Map.of("create", "true"))) {
+            Path inputDir = zip.getPath("/venues/input");
+            Files.createDirectories(inputDir.resolve("tuesday"));
+            Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputDir.resolve("example1.txt"));
+            Files.copy(new ClassPathResource("example4.txt").getInputStream(),
+                    inputDir.resolve("tuesday/example4.txt"));
+            Path outputDir = zip.getPath("/venues/output");
+
+            Files.writeString(inputDir.resolve("broken.txt"), "Frequency= 0.0Hz Gain= 4.3dB Qbp= 1.200\n");
+
+            ConversionReport report = service.convertDirectory(inputDir, outputDir, new ConversionProgress(),
+                    new DirectoryOptions(true, true));
+            ConversionProgress resumed = new ConversionProgress();
+            service.convertDirectory(inputDir, outputDir, resumed, new DirectoryOptions(true, true));
+
+            assertThat(report.convertedFiles()).isEqualTo(2);
+            assertThat(Files.readString(outputDir.resolve("example1.rcp"))).contains("<F_1>1001.000000</F_1>");
+            assertThat(Files.isDirectory(outputDir.resolve("tuesday/example4"))).isTrue();
+            // The journal works without memory mapping, so the second run only retries the broken file
+            assertThat(resumed.snapshot().totalFiles()).isEqualTo(1L);
+
+            // Zip input, default filesystem output
+            Path single = tempDir.resolve("example1.rcp");
+            service.convertFile(inputDir.resolve("example1.txt"), single);
+            assertThat(Files.readString(single)).isEqualTo(Files.readString(outputDir.resolve("example1.rcp")));
+        }
+    }
+
+    @Test
+    void shouldStreamSingleChannelAsPlainOutput() throws IOException {
+        byte[] input = new ClassPathResource("example1.txt").getInputStream().readAllBytes();
+        Path inputFile = Files.write(tempDir.resolve("example1.txt"), input);
+        Path outputFile = tempDir.resolve("example1.rcp");
+        service.convertFile(inputFile, outputFile);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        int channels = service.writeChannels(service.readChannels(new ByteArrayInputStream(input)), "<stdin>",
+                output, List.of(writer.format()));
+
+        assertThat(channels).isEqualTo(1);
+        assertThat(output.toByteArray()).isEqualTo(Files.readAllBytes(outputFile));
+    }
+
+    @Test
+    void shouldStreamMultiChannelAsTarEntries() throws IOException {
+        byte[] input = new ClassPathResource("example4.txt").getInputStream().readAllBytes();
+        Path inputFile = Files.write(tempDir.resolve("example4.txt"), input);
+        Path outputDir = tempDir.resolve("example4");
+        int written = service.convertFile(inputFile, outputDir, List.of(writer.format()));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        int channels = service.writeChannels(service.readChannels(new ByteArrayInputStream(input)), "<stdin>",
+                output, List.of(writer.format()));
+
+        byte[] tar = output.toByteArray();
+        int offset = 0;
+        int entries = 0;
+        while (tar[offset] != 0) {
+            String name = new String(tar, offset, 100, StandardCharsets.UTF_8).replace("\0", "");
+            int size = Integer.parseInt(new String(tar, offset + 124, 11, StandardCharsets.US_ASCII), 8);
+            byte[] content = Arrays.copyOfRange(tar, offset + 512, offset + 512 + size);
+            assertThat(content).isEqualTo(Files.readAllBytes(outputDir.resolve(name)));
+            offset += 512 + (size + 511) / 512 * 512;
+            entries++;
+        }
+        assertThat(channels).isEqualTo(written);
+        assertThat(entries).isEqualTo(written);
+        assertThat(tar.length).isEqualTo(offset + 1024);
+    }
+
+    @Test
+    void shouldNotEndTheTarStreamWhenAChannelFails() throws IOException {
+        Map<String, CrossLiteSettings> channels = new LinkedHashMap<>();
+        channels.put("Main L", new CrossLiteSettings(List.of(new EqBand(250, -5, 4)), List.of()));
+        // Too long for a tar entry name
+        channels.put("x".repeat(120), new CrossLiteSettings(List.of(new EqBand(80, 3, 1)), List.of()));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.writeChannels(channels, "<stdin>", output, List.of(writer.format())));
+
+        byte[] tar = output.toByteArray();
+        int size = Integer.parseInt(new String(tar, 124, 11, StandardCharsets.US_ASCII), 8);
+        assertThat(tar.length).isEqualTo(512 + (size + 511) / 512 * 512);
+    }
+
+    @Test
+    void shouldOnlyRewriteOutputsWhoseBytesChanged() throws IOException {
+        Path inputDir = Files.createDirectory(tempDir.resolve("input"));
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), inputDir.resolve("example1.txt"));
+        Files.copy(new ClassPathResource("example4.txt").getInputStream(), inputDir.resolve("example4.txt"));
+        Path outputDir = tempDir.resolve("output");
+
+        ConversionReport first = service.convertDirectory(inputDir.toString(), outputDir.toString());
+        Path single = outputDir.resolve("example1.rcp");
+        FileTime earlier = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(single, earlier);
+        ConversionReport second = service.convertDirectory(inputDir.toString(), outputDir.toString());
+        FileTime afterSecondRun = Files.getLastModifiedTime(single);
+        // Same size, different bytes
+        Files.writeString(single, Files.readString(single).replace("<F_1>1001", "<F_1>1002"));
+        ConversionReport third = service.convertDirectory(inputDir.toString(), outputDir.toString());
+
+        int outputs = first.writes().created();
+        assertThat(outputs).isGreaterThan(1);
+        assertThat(first.writes().total()).isEqualTo(outputs);
+        assertThat(second.writes().unchanged()).isEqualTo(outputs);
+        assertThat(afterSecondRun).isEqualTo(earlier);
+        assertThat(third.writes().updated()).isEqualTo(1);
+        assertThat(third.writes().unchanged()).isEqualTo(outputs - 1);
+        assertThat(Files.readString(single)).contains("<F_1>1001.000000</F_1>");
+        assertThat(ConversionReport.fromJson(third.toJson()).writes().updated()).isEqualTo(1);
+    }
+
     @Test
     void shouldThrowExceptionForNonExistentFile() {
         
@@ -1,7 +1,10 @@
 package dev.nathanlively.crosslite_r1_eq;
 
 import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
 import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
 import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,8 +26,8 @@ class ManualConversionTest {
     void setUp() {
         CrossLiteParser parser = new CrossLiteParser();
         EqConverter converter = new EqConverter();
-        R1Writer writer = new R1Writer();
-        service = new FileConversionService(parser, converter, writer);
+        R1Writer writer = new R1Writer(new R1Format());
+        service = new FileConversionService(parser, converter, writer, new BiquadSolver(), new BiquadDesigner());
     }
 
     @Test
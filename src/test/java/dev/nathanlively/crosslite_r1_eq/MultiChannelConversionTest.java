@@ -1,7 +1,10 @@
 package dev.nathanlively.crosslite_r1_eq;
 
 import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
 import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
 import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,7 +28,9 @@ class MultiChannelConversionTest {
         service = new FileConversionService(
                 new CrossLiteParser(),
                 new EqConverter(),
-                new R1Writer()
+                new R1Writer(new R1Format()),
+                new BiquadSolver(),
+                new BiquadDesigner()
         );
     }
 
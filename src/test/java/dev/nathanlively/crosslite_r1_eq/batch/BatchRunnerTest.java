@@ -0,0 +1,91 @@
+package dev.nathanlively.crosslite_r1_eq.batch;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormats;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+    private final BatchRunner runner = new BatchRunner(
+            new FileConversionService(parser, new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner()),
+            parser, new OutputFormats(List.of(new R1Format())));
+
+    @Test
+    void shouldReadSharedInputsOnceAndIsolateFailures() throws Exception {
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), tempDir.resolve("example1.txt"));
+        Path manifest = tempDir.resolve("jobs.csv");
+        Files.writeString(manifest, """
+                input,output,options
+                example1.txt,out/a.rcp,
+                example1.txt,"out/b.rcp",format=r1
+                example1.txt,out/c.rcp,format=bogus
+                missing.txt,,
+                """);
+
+        BatchReport report = runner.run(BatchManifest.read(manifest), 2, 2);
+
+        assertThat(report.reads()).isEqualTo(1);
+        assertThat(report.succeeded()).isEqualTo(2L);
+        assertThat(report.failed()).isEqualTo(2L);
+        assertThat(report.results().get(2).error()).contains("Unknown output format");
+        assertThat(report.results().get(3).output()).isEqualTo(tempDir.resolve("missing.rcp"));
+        assertThat(Files.readString(tempDir.resolve("out/a.rcp")))
+                .isEqualTo(Files.readString(tempDir.resolve("out/b.rcp")));
+    }
+
+    @Test
+    void shouldParseJsonManifestAndReportResults() throws Exception {
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), tempDir.resolve("example1.txt"));
+        Path manifest = tempDir.resolve("jobs.json");
+        Files.writeString(manifest, """
+                [
+                  {"input": "example1.txt", "options": {"format": "r1"}}
+                ]
+                """);
+
+        BatchReport report = runner.run(BatchManifest.read(manifest), 1, 1);
+
+        assertThat(Files.exists(tempDir.resolve("example1.rcp"))).isTrue();
+        assertThat(report.toJson()).contains("\"succeeded\": 1", "\"status\": \"ok\"");
+    }
+
+    @Test
+    void shouldRejectUnknownOptionsWithTheirRow() throws Exception {
+        Path csv = Files.writeString(tempDir.resolve("jobs.csv"), """
+                input,output,options
+                example1.txt,out/a.rcp,format=r1
+                example1.txt,out/b.rcp,keep-goin=true
+                """);
+        Path json = Files.writeString(tempDir.resolve("jobs.json"), """
+                [{"input": "example1.txt", "options": {"fromat": "r1"}}]
+                """);
+
+        assertThatThrownBy(() -> BatchManifest.read(csv))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("row 3")
+                .hasMessageContaining("'keep-goin'")
+                .hasMessageContaining("example1.txt,out/b.rcp,keep-goin=true");
+        assertThatThrownBy(() -> BatchManifest.read(json))
+                .hasMessageContaining("row 1 has unknown option 'fromat'");
+    }
+}
@@ -0,0 +1,79 @@
+package dev.nathanlively.crosslite_r1_eq.benchmark;
+
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorpusGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CorpusGenerator generator = new CorpusGenerator();
+    private final CrossLiteParser parser = new CrossLiteParser();
+
+    @Test
+    void shouldGenerateParseableMultiChannelFile() {
+        CorpusSpec spec = new CorpusSpec(1, 2, 3, 4, true, false, 0, 7);
+
+        String content = generator.generateContent(spec, 0);
+        Map<String, CrossLiteSettings> channels = parser.parseMultiChannel(content);
+
+        assertThat(channels).hasSize(6);
+        assertThat(channels).containsKeys("ml", "c", "mr", "rUs", "rDs", "s");
+        assertThat(channels.get("ml").eqBands()).hasSize(4);
+        assertThat(content).contains("biquad4,");
+    }
+
+    @Test
+    void shouldUseMetadataLikeChannelNames() {
+        CorpusSpec spec = new CorpusSpec(1, 3, 1, 2, false, true, 0, 7);
+
+        String content = generator.generateContent(spec, 0);
+
+        assertThat(content).contains("IIR Bypassed.L 1 Ch 1");
+        assertThat(content).contains("IIR Bypassed.L 3 Ch 1");
+        assertThat(content).doesNotContain("biquad");
+        assertThat(parser.parse(content).eqBands()).hasSize(6);
+    }
+
+    @Test
+    void shouldBeDeterministicForSameSeed() {
+        CorpusSpec spec = new CorpusSpec(2, 1, 2, 5, true, false, 0, 99);
+
+        assertThat(generator.generateContent(spec, 1)).isEqualTo(generator.generateContent(spec, 1));
+        assertThat(generator.generateContent(spec, 0)).isNotEqualTo(generator.generateContent(spec, 1));
+    }
+
+    @Test
+    void shouldGrowFilesToTargetSize() {
+        CorpusSpec spec = new CorpusSpec(1, 1, 1, 2, true, false, 64 * 1024, 1);
+
+        String content = generator.generateContent(spec, 0);
+
+        assertThat(content.length()).isGreaterThanOrEqualTo(64 * 1024);
+    }
+
+    @Test
+    void shouldWriteCorpusAndReportTotals() throws IOException {
+        CorpusSpec spec = new CorpusSpec(3, 1, 4, 5, true, false, 0, 3);
+
+        CorpusStats stats = generator.generate(spec, tempDir);
+
+        assertThat(stats.files()).isEqualTo(3);
+        assertThat(stats.channels()).isEqualTo(12L);
+        assertThat(stats.bands()).isEqualTo(60L);
+        assertThat(Files.exists(tempDir.resolve("show_00003.txt"))).isTrue();
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.mapToLong(path -> path.toFile().length()).sum()).isEqualTo(stats.bytes());
+        }
+    }
+}
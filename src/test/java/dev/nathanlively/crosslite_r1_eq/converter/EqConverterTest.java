@@ -2,6 +2,7 @@ package dev.nathanlively.crosslite_r1_eq.converter;
 
 import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
 import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
 import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
 import dev.nathanlively.crosslite_r1_eq.domain.R1Settings;
 import org.junit.jupiter.api.Test;
@@ -130,4 +131,20 @@ class EqConverterTest {
             assertThat(result.filters().get(i).enabled()).isTrue();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldApplyFormatSpecificLimits() {
+        CrossLiteSettings input = new CrossLiteSettings(List.of(
+            new EqBand(100, -20.0, 0.2), new EqBand(200, 20.0, 40.0), new EqBand(300, 1, 1)
+        ));
+        FilterLimits limits = new FilterLimits(-15.0, 15.0, 0.5, 20.0, 2);
+
+        List<R1Filter> result = converter.convertFilters(input, limits);
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).gain()).isEqualTo(-15.0);
+        assertThat(result.get(0).qFactor()).isEqualTo(0.5);
+        assertThat(result.get(1).gain()).isEqualTo(15.0);
+        assertThat(result.get(1).qFactor()).isEqualTo(20.0);
+    }
+}
@@ -0,0 +1,145 @@
+package dev.nathanlively.crosslite_r1_eq.daemon;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.jobs.JobManager;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.shard.ShardCoordinator;
+import dev.nathanlively.crosslite_r1_eq.writer.CsvFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.JsonFormat;
+import dev.nathanlively.crosslite_r1_eq.writer.OutputFormats;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversionDaemonTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final FileConversionService conversionService = new FileConversionService(
+            new CrossLiteParser(), new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner());
+    private final ConversionDaemon daemon = new ConversionDaemon(conversionService,
+            new JobManager(conversionService),
+            new OutputFormats(List.of(new R1Format(), new JsonFormat(), new CsvFormat())),
+            new ShardCoordinator(new DefaultApplicationArguments()));
+
+    @Test
+    void shouldConvertForClientAndStopWhenIdle() throws Exception {
+        Path socket = tempDir.resolve("d.sock");
+        Path input = tempDir.resolve("example1.txt");
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), input);
+
+        CountDownLatch listening = new CountDownLatch(1);
+        CompletableFuture<Long> served = CompletableFuture.supplyAsync(() -> {
+            try {
+                return daemon.serve(socket, Duration.ofMillis(500), listening::countDown);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(listening.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exitCode = DaemonClient.run(
+                new String[]{"client", "--socket", socket.toString(), "convert-file", "-i", input.toString()},
+                new PrintStream(out, true, StandardCharsets.UTF_8), System.err);
+
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("Successfully converted");
+        assertThat(Files.readString(tempDir.resolve("example1.rcp"))).contains("<F_1>1001.000000</F_1>");
+
+        assertThat(served.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+        assertThat(Files.exists(socket)).isFalse();
+    }
+
+    @Test
+    void shouldForwardFormatsAndFlagsLikeTheShell() throws Exception {
+        Path socket = tempDir.resolve("f.sock");
+        Path input = tempDir.resolve("in");
+        Path good = input.resolve("example1.txt");
+        Path output = tempDir.resolve("out");
+        Files.createDirectories(input);
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), good);
+        Files.writeString(input.resolve("broken.txt"), "Frequency= 0.0Hz Gain= 4.3dB Qbp= 1.200\n");
+        CountDownLatch listening = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> {
+            try {
+                daemon.serve(socket, Duration.ofMillis(500), listening::countDown);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(listening.await(5, TimeUnit.SECONDS)).isTrue();
+
+        int fileExit = DaemonClient.run(new String[]{"client", "--socket", socket.toString(),
+                "convert-file", "-i", good.toString(), "-f", "json"}, System.out, System.err);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int directoryExit = DaemonClient.run(new String[]{"client", "--socket", socket.toString(),
+                        "convert-directory", "-i", input.toString(), "-o", output.toString(), "--keep-going", "--formats", "csv"},
+                System.out, new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertThat(fileExit).isEqualTo(0);
+        assertThat(input.resolve("example1.json")).exists();
+        assertThat(input.resolve("example1.rcp")).doesNotExist();
+        // --keep-going converted the good file despite the broken one, and reported the broken one
+        assertThat(directoryExit).isEqualTo(1);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("broken.txt");
+        assertThat(output.resolve("example1.csv")).exists();
+        assertThat(output.resolve("example1.rcp")).doesNotExist();
+    }
+
+    @Test
+    void shouldReportUsageErrorsWithExitCode() throws Exception {
+        Path socket = tempDir.resolve("u.sock");
+        CountDownLatch listening = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> {
+            try {
+                daemon.serve(socket, Duration.ofMillis(500), listening::countDown);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(listening.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = DaemonClient.run(
+                new String[]{"client", "--socket", socket.toString(), "convert-file", "--bogus", "x"},
+                System.out, new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertThat(exitCode).isEqualTo(2);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("Unknown option --bogus");
+    }
+
+    @Test
+    void shouldFailFastWhenNoDaemonIsRunning() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = DaemonClient.run(
+                new String[]{"client", "--socket", tempDir.resolve("none.sock").toString(), "convert-file", "-i", "x.txt"},
+                System.out, new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertThat(exitCode).isEqualTo(DaemonClient.EXIT_NOT_RUNNING);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("No daemon listening");
+    }
+}
@@ -0,0 +1,79 @@
+package dev.nathanlively.crosslite_r1_eq.diff;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.parser.R1Parser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EqDifferTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+    private final FileConversionService conversionService =
+            new FileConversionService(parser, new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner());
+    private final EqDiffer differ = new EqDiffer(conversionService, parser, new R1Parser());
+
+    @Test
+    void shouldOnlyReportClampedBandsBetweenCrossLiteTreeAndItsConversion() throws Exception {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        for (String example : List.of("example1.txt", "example2.txt", "example3.txt", "example4.txt")) {
+            Files.copy(new ClassPathResource(example).getInputStream(), source.resolve(example));
+        }
+        conversionService.convertDirectory(source.toString(), tempDir.resolve("r1").toString());
+        List<ChannelDiff> diffs = new ArrayList<>();
+
+        DiffSummary summary = differ.diff(source, tempDir.resolve("r1"), EqDiffer.DEFAULT_TOLERANCE_OCTAVES, 2,
+                diffs::add);
+
+        // example3 has gains and Qs beyond what R1 accepts, so conversion clamps them
+        assertThat(diffs.stream().map(ChannelDiff::key).toList()).containsExactly("example3");
+        assertThat(diffs.getFirst().changes().getFirst().after().gain()).isEqualTo(-18.0);
+        assertThat(summary.unchanged()).isEqualTo(summary.compared() - 1);
+        assertThat(summary.compared()).isGreaterThan(4L);
+    }
+
+    @Test
+    void shouldReportBandAndChannelChangesInKeyOrder() throws Exception {
+        Path left = Files.createDirectories(tempDir.resolve("left"));
+        Path right = Files.createDirectories(tempDir.resolve("right"));
+        Files.writeString(left.resolve("a.txt"), """
+                Frequency= 250.0Hz Gain= -5.0dB Qbp= 4.000
+                Frequency= 1000.0Hz Gain= -2.0dB Qbp= 1.000
+                """);
+        Files.writeString(right.resolve("a.txt"), """
+                Frequency= 260.0Hz Gain= -3.0dB Qbp= 4.000
+                Frequency= 8000.0Hz Gain= 2.0dB Qbp= 2.000
+                """);
+        Files.writeString(left.resolve("b.txt"), "Frequency= 100.0Hz Gain= -1.0dB Qbp= 1.000\n");
+        Files.writeString(right.resolve("c.txt"), "Frequency= 100.0Hz Gain= -1.0dB Qbp= 1.000\n");
+        List<ChannelDiff> diffs = new ArrayList<>();
+
+        DiffSummary summary = differ.diff(left, right, EqDiffer.DEFAULT_TOLERANCE_OCTAVES, 3, diffs::add);
+
+        assertThat(diffs.stream().map(ChannelDiff::key).toList()).containsExactly("a", "b", "c");
+        ChannelDiff changed = diffs.getFirst();
+        assertThat(changed.changes().stream().map(BandChange::kind).toList()).containsExactly(
+                BandChange.Kind.CHANGED, BandChange.Kind.REMOVED, BandChange.Kind.ADDED);
+        assertThat(changed.maxDeltaDb()).isGreaterThan(1.5);
+        assertThat(diffs.get(1).status()).isEqualTo(ChannelDiff.Status.REMOVED);
+        assertThat(diffs.get(2).status()).isEqualTo(ChannelDiff.Status.ADDED);
+        assertThat(summary.changed()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,63 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Settings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BiquadDesignerTest {
+
+    private final BiquadDesigner designer = new BiquadDesigner();
+    private final BiquadSolver solver = new BiquadSolver();
+
+    @Test
+    void shouldMatchCrossLiteCoefficients() {
+        // example1.txt: 1001 Hz, -6 dB, Q 0.75 and its biquad1 block
+        double[] coefficients = designer.design(List.of(settings(R1Filter.enabled(1001.0, 0.75, -6.0))), 48000.0);
+
+        assertThat(coefficients[0]).isCloseTo(0.926144439211431525, within(1e-12));
+        assertThat(coefficients[1]).isCloseTo(-1.68926860667212719, within(1e-12));
+        assertThat(coefficients[2]).isCloseTo(0.777730177608694673, within(1e-12));
+        assertThat(coefficients[3]).isCloseTo(-1.68926860667212719, within(1e-12));
+        assertThat(coefficients[4]).isCloseTo(0.703874616820126309, within(1e-12));
+    }
+
+    @Test
+    void shouldRoundTripThroughSolverAtEverySampleRate() {
+        List<R1Settings> channels = List.of(
+                settings(R1Filter.enabled(31.5, 4.0, -12.0), R1Filter.enabled(2500.0, 1.4, 6.0)),
+                settings(R1Filter.enabled(16000.0, 0.7, 3.0)));
+        int sections = channels.size() * R1Settings.MAX_FILTERS;
+
+        for (double rate : BiquadDesigner.SAMPLE_RATES) {
+            double[] coefficients = designer.design(channels, rate);
+            double[] frequencies = new double[sections];
+            double[] gains = new double[sections];
+            double[] qFactors = new double[sections];
+            solver.solvePeaking(coefficients, sections, rate, frequencies, gains, qFactors);
+
+            assertThat(frequencies[0]).isCloseTo(31.5, within(1e-6));
+            assertThat(gains[0]).isCloseTo(-12.0, within(1e-9));
+            assertThat(qFactors[1]).isCloseTo(1.4, within(1e-9));
+            assertThat(frequencies[R1Settings.MAX_FILTERS]).isCloseTo(16000.0, within(1e-6));
+            // Disabled filters are pass-through
+            int disabled = 5 * CrossLiteSettings.BIQUAD_STRIDE;
+            assertThat(coefficients[disabled]).isEqualTo(1.0);
+            assertThat(coefficients[disabled + 3]).isEqualTo(0.0);
+        }
+    }
+
+    private static R1Settings settings(R1Filter... enabled) {
+        List<R1Filter> filters = new ArrayList<>(List.of(enabled));
+        while (filters.size() < R1Settings.MAX_FILTERS) {
+            filters.add(R1Filter.disabled());
+        }
+        return new R1Settings(filters);
+    }
+}
@@ -0,0 +1,153 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.benchmark.CorpusGenerator;
+import dev.nathanlively.crosslite_r1_eq.benchmark.CorpusSpec;
+import dev.nathanlively.crosslite_r1_eq.domain.BiquadSection;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BiquadSolverTest {
+
+    private final BiquadSolver solver = new BiquadSolver();
+    private final CrossLiteParser parser = new CrossLiteParser();
+
+    @Test
+    void shouldSolveCutSection() {
+        // ml band 1 from example4: 126.0 Hz, -2.0 dB, Q 6.463
+        double[] coefficients = {
+                0.999670160271526109, -1.99652097334232237, 0.997122401624057963,
+                -1.99652097334232237, 0.996792561895584073
+        };
+        double[] frequencies = new double[1];
+        double[] gains = new double[1];
+        double[] qFactors = new double[1];
+
+        int solved = solver.solvePeaking(coefficients, 1, 48000.0, frequencies, gains, qFactors);
+
+        assertThat(solved).isEqualTo(1);
+        assertThat(frequencies[0]).isCloseTo(126.0, within(0.01));
+        assertThat(gains[0]).isCloseTo(-2.0, within(0.001));
+        assertThat(qFactors[0]).isCloseTo(6.463, within(0.001));
+    }
+
+    @Test
+    void shouldMarkNonPeakingSectionsAsNaN() {
+        double[] coefficients = {0.5, 1.0, 0.5, -0.2, 0.1};
+        double[] frequencies = new double[1];
+        double[] gains = new double[1];
+        double[] qFactors = new double[1];
+
+        int solved = solver.solvePeaking(coefficients, 1, 48000.0, frequencies, gains, qFactors);
+
+        assertThat(solved).isEqualTo(0);
+        assertThat(Double.isNaN(frequencies[0])).isTrue();
+    }
+
+    @Test
+    void shouldAgreeWithHeadersInExampleExport() throws IOException {
+        String content = new String(new ClassPathResource("example4.txt").getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+        Map<String, CrossLiteSettings> channels = parser.parseMultiChannel(content);
+
+        for (CrossLiteSettings settings : channels.values()) {
+            assertThat(settings.biquadCount()).isEqualTo(settings.eqBands().size());
+            BiquadCheck check = solver.check(settings, BiquadSolver.DEFAULT_SAMPLE_RATE);
+            assertThat(check.mismatches()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldAgreeWithGeneratedBoostsAndCuts() {
+        CorpusSpec spec = new CorpusSpec(1, 1, 4, 12, true, false, 0, 5);
+        String content = new CorpusGenerator().generateContent(spec, 0);
+
+        for (CrossLiteSettings settings : parser.parseMultiChannel(content).values()) {
+            BiquadCheck check = solver.check(settings, BiquadSolver.DEFAULT_SAMPLE_RATE);
+            assertThat(check.mismatches()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldReplaceHeaderValuesWithExactValues() {
+        String content = """
+                Frequency= 1188.1Hz Gain= 1.0dB Qbp= 3.000
+                biquad1,
+                b0=1.00307074895483272,
+                b1=-1.92613658142305821,
+                b2=0.946596717783707797,
+                a1=-1.92613658142305821,
+                a2=0.949667466738540522,
+                """;
+        CrossLiteSettings settings = parser.parse(content);
+
+        BiquadCheck check = solver.check(settings, BiquadSolver.DEFAULT_SAMPLE_RATE);
+
+        assertThat(check.mismatches()).isEmpty();
+        EqBand band = check.refined().eqBands().getFirst();
+        assertThat(band.frequency()).isCloseTo(1188.1, within(0.05));
+        assertThat(band.gain()).isCloseTo(1.0, within(0.01));
+    }
+
+    @Test
+    void shouldFlagHeaderThatDisagreesWithCoefficients() {
+        CrossLiteSettings settings = new CrossLiteSettings(
+                List.of(new EqBand(500.0, -2.0, 6.463)),
+                List.of(new BiquadSection(1, 0.999670160271526109, -1.99652097334232237, 0.997122401624057963,
+                        -1.99652097334232237, 0.996792561895584073)));
+
+        BiquadCheck check = solver.check(settings, BiquadSolver.DEFAULT_SAMPLE_RATE);
+
+        assertThat(check.mismatches()).hasSize(1);
+        assertThat(check.mismatches().getFirst().band()).isEqualTo(1);
+        assertThat(check.refined().eqBands().getFirst().frequency()).isEqualTo(500.0);
+    }
+
+    @Test
+    void shouldPairSectionsWithBandsByBiquadNumber() {
+        // biquad1 is incomplete and dropped, so biquad2 must still be checked against band 2
+        String content = """
+                Frequency= 500.0Hz Gain= 3.0dB Qbp= 1.000
+                Frequency= 126.0Hz Gain= -2.0dB Qbp= 6.463
+                biquad1,
+                b0=1.0,
+                biquad2,
+                b0=0.999670160271526109,
+                b1=-1.99652097334232237,
+                b2=0.997122401624057963,
+                a1=-1.99652097334232237,
+                a2=0.996792561895584073,
+                """;
+        CrossLiteSettings settings = parser.parse(content);
+
+        BiquadCheck check = solver.check(settings);
+
+        assertThat(settings.biquadCount()).isEqualTo(1);
+        assertThat(settings.biquads().getFirst().number()).isEqualTo(2);
+        assertThat(check.mismatches()).isEmpty();
+        assertThat(check.refined().eqBands().get(0)).isEqualTo(new EqBand(500.0, 3.0, 1.0));
+        assertThat(check.refined().eqBands().get(1).qFactor()).isCloseTo(6.463, within(0.001));
+    }
+
+    @Test
+    void shouldSolveAtTheConfiguredSampleRate() {
+        CrossLiteSettings settings = new CrossLiteSettings(
+                List.of(new EqBand(252.0, -2.0, 6.463)),
+                List.of(new BiquadSection(1, 0.999670160271526109, -1.99652097334232237, 0.997122401624057963,
+                        -1.99652097334232237, 0.996792561895584073)));
+
+        // The same coefficients describe twice the frequency at twice the rate
+        assertThat(new BiquadSolver(96000.0).check(settings).mismatches()).isEmpty();
+        assertThat(solver.check(settings).mismatches()).hasSize(1);
+    }
+}
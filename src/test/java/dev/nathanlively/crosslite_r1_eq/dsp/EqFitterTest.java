@@ -0,0 +1,51 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EqFitterTest {
+
+    private final EqFitter fitter = new EqFitter();
+
+    @Test
+    void shouldRecoverCurveMadeOfPeakingBands() {
+        double[] target = ResponseCurve.magnitudeDb(List.of(
+                new EqBand(120.0, -6.0, 2.0),
+                new EqBand(900.0, 3.0, 1.0),
+                new EqBand(6000.0, -4.0, 5.0)));
+
+        FitResult result = fitter.fit(target, FilterLimits.R1);
+
+        assertThat(result.bands().size()).isLessThanOrEqualTo(FilterLimits.R1.maxFilters());
+        assertThat(result.rmsErrorDb()).isLessThan(0.1);
+        assertThat(result.maxErrorDb()).isLessThan(0.3);
+    }
+
+    @Test
+    void shouldKeepFittedBandsWithinLimits() {
+        double[] target = ResponseCurve.magnitudeDb(List.of(
+                new EqBand(300.0, -40.0, 0.5),
+                new EqBand(3000.0, 30.0, 40.0)));
+        FilterLimits limits = new FilterLimits(-12.0, 6.0, 0.5, 10.0, 4);
+
+        FitResult result = fitter.fit(target, limits);
+
+        assertThat(result.bands().size()).isLessThanOrEqualTo(4);
+        for (EqBand band : result.bands()) {
+            assertThat(band.gain()).isBetween(-12.0, 6.0);
+            assertThat(band.qFactor()).isBetween(0.5, 10.0);
+        }
+    }
+
+    @Test
+    void shouldFitFlatCurveWithNoBands() {
+        FitResult result = fitter.fit(new double[ResponseCurve.GRID_POINTS], FilterLimits.R1);
+
+        assertThat(result.bands()).isEmpty();
+    }
+}
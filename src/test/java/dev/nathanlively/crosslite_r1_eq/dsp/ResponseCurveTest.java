@@ -0,0 +1,45 @@
+package dev.nathanlively.crosslite_r1_eq.dsp;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ResponseCurveTest {
+
+    @Test
+    void shouldReachBandGainAtCentreFrequency() {
+        int point = ResponseCurve.GRID_POINTS / 2;
+        double centre = ResponseCurve.frequency(point);
+
+        double[] cut = ResponseCurve.magnitudeDb(List.of(new EqBand(centre, -6.0, 2.0)));
+        double[] boost = ResponseCurve.magnitudeDb(List.of(new EqBand(centre, 6.0, 2.0)));
+
+        assertThat(cut[point]).isCloseTo(-6.0, within(1e-6));
+        // Cuts and boosts of the same Q are mirror images
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            assertThat(boost[i]).isCloseTo(-cut[i], within(1e-6));
+        }
+        assertThat(Math.abs(cut[0])).isLessThan(0.01);
+    }
+
+    @Test
+    void shouldAddBandResponsesInDecibels() {
+        EqBand low = new EqBand(100.0, -4.0, 1.0);
+        EqBand high = new EqBand(5000.0, 3.0, 4.0);
+
+        double[] combined = ResponseCurve.magnitudeDb(List.of(low, high));
+        double[] lowOnly = ResponseCurve.magnitudeDb(List.of(low));
+        double[] highOnly = ResponseCurve.magnitudeDb(List.of(high));
+        float[] single = new float[ResponseCurve.GRID_POINTS];
+        ResponseCurve.magnitudeDb(List.of(low, high), single, new double[ResponseCurve.GRID_POINTS]);
+
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            assertThat(combined[i]).isCloseTo(lowOnly[i] + highOnly[i], within(1e-9));
+            assertThat((double) single[i]).isCloseTo(combined[i], within(1e-4));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package dev.nathanlively.crosslite_r1_eq.export;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BandExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+    private final BandExporter exporter = new BandExporter(
+            new FileConversionService(parser, new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner()), parser);
+
+    @Test
+    void shouldProduceTheSameFileForAnyShardCount() throws Exception {
+        Path input = copyExamples();
+
+        ExportStats single = exporter.export(input, tempDir.resolve("one.xlb"), BandExporter.Format.BINARY, 1);
+        ExportStats sharded = exporter.export(input, tempDir.resolve("four.xlb"), BandExporter.Format.BINARY, 4);
+
+        assertThat(sharded.bands()).isEqualTo(single.bands());
+        assertThat(Files.readAllBytes(tempDir.resolve("four.xlb")))
+                .isEqualTo(Files.readAllBytes(tempDir.resolve("one.xlb")));
+        assertThat(Files.exists(tempDir.resolve("four.xlb.part-0"))).isFalse();
+    }
+
+    @Test
+    void shouldRoundTripBandsWithFileAndChannelNames() throws Exception {
+        Path input = copyExamples();
+
+        ExportStats stats = exporter.export(input, tempDir.resolve("bands.xlb"), BandExporter.Format.BINARY, 3);
+        BandColumns columns = BandFile.readAll(tempDir.resolve("bands.xlb"));
+
+        assertThat((long) columns.size()).isEqualTo(stats.bands());
+        assertThat(columns.file(0)).isEqualTo("example1.txt");
+        assertThat(columns.channel(0)).isEqualTo("default");
+        assertThat(columns.bandIndex(0)).isEqualTo(1);
+        assertThat(columns.frequency(0)).isEqualTo(1001.0);
+        assertThat(columns.gain(0)).isEqualTo(-6.0);
+        assertThat(columns.qFactor(0)).isEqualTo(0.75);
+        assertThat(columns.channels().names()).contains("ml", "c", "mr");
+    }
+
+    @Test
+    void shouldWriteCsvWithOneHeader() throws Exception {
+        Path input = copyExamples();
+
+        ExportStats stats = exporter.export(input, tempDir.resolve("bands.csv"), BandExporter.Format.CSV, 2);
+        List<String> lines = Files.readAllLines(tempDir.resolve("bands.csv"));
+
+        assertThat(lines.getFirst()).isEqualTo("file,channel,band,frequency,gain,q");
+        assertThat((long) lines.size()).isEqualTo(stats.bands() + 1);
+        assertThat(lines.get(1)).isEqualTo("example1.txt,default,1,1001.000000,-6.000000,0.750000");
+    }
+
+    @Test
+    void shouldCountFilesWithoutAnyParsableChannelAsFailed() throws Exception {
+        Path input = copyExamples();
+        Files.writeString(input.resolve("broken.txt"), "Frequency= 10.0.2Hz Gain= 4.3dB Qbp= 1.200\n");
+
+        ExportStats stats = exporter.export(input, tempDir.resolve("bands.csv"), BandExporter.Format.CSV, 2);
+
+        assertThat(stats.files()).isEqualTo(5);
+        assertThat(stats.failedFiles()).isEqualTo(1);
+    }
+
+    private Path copyExamples() throws Exception {
+        Path input = tempDir.resolve("shows");
+        Files.createDirectories(input);
+        for (String name : List.of("example1.txt", "example2.txt", "example3.txt", "example4.txt")) {
+            Files.copy(new ClassPathResource(name).getInputStream(), input.resolve(name));
+        }
+        return input;
+    }
+}
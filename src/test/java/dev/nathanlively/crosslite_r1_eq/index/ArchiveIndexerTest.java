@@ -0,0 +1,47 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveIndexerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+    private final ArchiveIndexer indexer = new ArchiveIndexer(
+            new FileConversionService(parser, new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner()), parser);
+
+    @Test
+    void shouldOnlyReindexChangedFiles() throws Exception {
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), tempDir.resolve("example1.txt"));
+        Files.copy(new ClassPathResource("example4.txt").getInputStream(), tempDir.resolve("example4.txt"));
+
+        ArchiveIndexer.Refresh first = indexer.refresh(tempDir);
+        ArchiveIndexer.Refresh unchanged = indexer.refresh(tempDir);
+        Files.writeString(tempDir.resolve("example1.txt"), "Frequency= 250.0Hz Gain= -5.0dB Qbp= 4.000\n");
+        Files.delete(tempDir.resolve("example4.txt"));
+        ArchiveIndexer.Refresh changed = indexer.refresh(tempDir);
+
+        assertThat(first.indexed()).isEqualTo(2);
+        assertThat(unchanged.indexed()).isEqualTo(0);
+        assertThat(changed.indexed()).isEqualTo(1);
+        assertThat(changed.removed()).isEqualTo(1);
+        assertThat(indexer.load(tempDir).search(BandQuery.any(), 10))
+                .containsExactly(new BandHit("example1.txt", "default", 1, 250, -5, 4));
+    }
+}
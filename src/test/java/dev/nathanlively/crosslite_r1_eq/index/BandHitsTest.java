@@ -0,0 +1,27 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BandHitsTest {
+
+    @Test
+    void shouldGroupHitsByChannelAndCountTheRest() {
+        List<BandHit> hits = List.of(
+                new BandHit("a.txt", "Main L", 1, 250, -5, 4),
+                new BandHit("a.txt", "Main L", 3, 1000, -6, 0.75),
+                new BandHit("b.txt", "Sub", 2, 80, -4.5, 3.5));
+
+        assertThat(BandHits.format("Found 5 band(s)", hits, 5)).isEqualTo("""
+                Found 5 band(s)
+                  a.txt [Main L]
+                    band 1: 250.0 Hz, -5.0 dB, Q 4.000
+                    band 3: 1000.0 Hz, -6.0 dB, Q 0.750
+                  b.txt [Sub]
+                    band 2: 80.0 Hz, -4.5 dB, Q 3.500
+                  ... 2 more (use --limit)""");
+    }
+}
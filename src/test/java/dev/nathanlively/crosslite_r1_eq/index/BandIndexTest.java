@@ -0,0 +1,83 @@
+package dev.nathanlively.crosslite_r1_eq.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BandIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldFindCutsInFrequencyRangeWithQFilter() {
+        BandIndex index = BandIndex.empty().update(List.of(), List.of(
+                file("a.txt", new double[]{250, 300, 1000}, new double[]{-5, -2, -6}, new double[]{4, 4, 4}),
+                file("b.txt", new double[]{399, 401, 220}, new double[]{-4.5, -8, -7}, new double[]{3.5, 5, 2})));
+
+        List<BandHit> hits = index.search(new BandQuery(200, 400, Double.NEGATIVE_INFINITY, -4, 3,
+                Double.POSITIVE_INFINITY), 10);
+
+        assertThat(hits).hasSize(2);
+        assertThat(hits.get(0)).isEqualTo(new BandHit("a.txt", "ml", 1, 250, -5, 4));
+        assertThat(hits.get(1)).isEqualTo(new BandHit("b.txt", "ml", 1, 399, -4.5, 3.5));
+    }
+
+    @Test
+    void shouldReplaceChangedFilesAndDropRemovedOnes() {
+        BandIndex index = BandIndex.empty().update(List.of(), List.of(
+                file("a.txt", new double[]{100, 200}, new double[]{-1, -1}, new double[]{1, 1}),
+                file("b.txt", new double[]{150}, new double[]{-1}, new double[]{1}),
+                file("c.txt", new double[]{50}, new double[]{-1}, new double[]{1})));
+
+        BandIndex updated = index.update(List.of("c.txt"), List.of(
+                file("a.txt", new double[]{175}, new double[]{-3}, new double[]{2})));
+
+        List<BandHit> hits = updated.search(BandQuery.any(), 10);
+        assertThat(hits).hasSize(2);
+        assertThat(hits.get(0).file()).isEqualTo("b.txt");
+        assertThat(hits.get(1)).isEqualTo(new BandHit("a.txt", "ml", 1, 175, -3, 2));
+        assertThat(updated.files()).hasSize(2);
+    }
+
+    @Test
+    void shouldKeepRowsSortedAcrossSaveAndLoad() throws Exception {
+        Random random = new Random(7);
+        double[] frequencies = new double[100_000];
+        double[] gains = new double[frequencies.length];
+        double[] qs = new double[frequencies.length];
+        for (int i = 0; i < frequencies.length; i++) {
+            // Many values collide as floats, which exercises the insertion pass of the sort
+            frequencies[i] = 1000 + random.nextInt(1000) * 1e-9;
+            gains[i] = -random.nextDouble() * 12;
+            qs[i] = 0.5 + random.nextDouble() * 8;
+        }
+        BandIndex index = BandIndex.empty().update(List.of(), List.of(file("big.txt", frequencies, gains, qs)));
+        Path stored = tempDir.resolve("index");
+
+        index.save(stored);
+        BandIndex loaded = BandIndex.load(stored);
+
+        List<BandHit> all = loaded.search(BandQuery.any(), Integer.MAX_VALUE);
+        assertThat(all).hasSize(frequencies.length);
+        for (int i = 1; i < all.size(); i++) {
+            assertThat(all.get(i).frequency()).isGreaterThanOrEqualTo(all.get(i - 1).frequency());
+        }
+        BandQuery cuts = new BandQuery(1000, 1000 + 500e-9, Double.NEGATIVE_INFINITY, -6, 4, Double.POSITIVE_INFINITY);
+        assertThat(loaded.count(cuts)).isEqualTo(index.count(cuts));
+    }
+
+    private static BandIndex.FileBands file(String path, double[] frequencies, double[] gains, double[] qs) {
+        int[] bands = new int[frequencies.length];
+        for (int i = 0; i < bands.length; i++) {
+            bands[i] = i + 1;
+        }
+        return new BandIndex.FileBands(new BandIndex.SourceFile(path, 1, 1), List.of("ml"),
+                new int[frequencies.length], bands, frequencies, gains, qs);
+    }
+}
@@ -0,0 +1,41 @@
+package dev.nathanlively.crosslite_r1_eq.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TarStreamWriterTest {
+
+    @Test
+    void shouldWriteUstarHeadersWithValidChecksums() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TarStreamWriter tar = new TarStreamWriter(out);
+        tar.add("Main L.rcp", "<R1/>".getBytes(StandardCharsets.UTF_8));
+        tar.add("empty.csv", new byte[0]);
+        tar.finish();
+
+        byte[] bytes = out.toByteArray();
+        assertThat(bytes.length).isEqualTo(512 + 512 + 512 + 1024);
+        assertThat(new String(bytes, 0, 10, StandardCharsets.UTF_8)).isEqualTo("Main L.rcp");
+        assertThat(new String(bytes, 257, 5, StandardCharsets.US_ASCII)).isEqualTo("ustar");
+        assertThat(new String(bytes, 512, 5, StandardCharsets.UTF_8)).isEqualTo("<R1/>");
+
+        int stored = Integer.parseInt(new String(bytes, 148, 6, StandardCharsets.US_ASCII), 8);
+        int computed = 0;
+        for (int i = 0; i < 512; i++) {
+            computed += i >= 148 && i < 156 ? ' ' : bytes[i] & 0xFF;
+        }
+        assertThat(stored).isEqualTo(computed);
+    }
+
+    @Test
+    void shouldRejectNamesThatDoNotFitTheHeader() {
+        TarStreamWriter tar = new TarStreamWriter(new ByteArrayOutputStream());
+
+        assertThatThrownBy(() -> tar.add("x".repeat(101), new byte[0])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
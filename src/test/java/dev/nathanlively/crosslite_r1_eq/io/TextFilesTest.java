@@ -0,0 +1,65 @@
+package dev.nathanlively.crosslite_r1_eq.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextFilesTest {
+
+    private static final String TEXT = "IIR Bypassed.Délai 1°\nFrequency= 126.0Hz Gain= -2.0dB Qbp= 6.463\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldDecodeEveryExportEncodingToTheSameText() throws IOException {
+        assertThat(readBack(TEXT.getBytes(StandardCharsets.UTF_8))).isEqualTo(TEXT);
+        assertThat(readBack(withBom(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, StandardCharsets.UTF_8)))
+                .isEqualTo(TEXT);
+        assertThat(readBack(withBom(new byte[]{(byte) 0xFF, (byte) 0xFE}, StandardCharsets.UTF_16LE)))
+                .isEqualTo(TEXT);
+        assertThat(readBack(withBom(new byte[]{(byte) 0xFE, (byte) 0xFF}, StandardCharsets.UTF_16BE)))
+                .isEqualTo(TEXT);
+        assertThat(readBack(TEXT.getBytes(StandardCharsets.UTF_16LE))).isEqualTo(TEXT);
+        assertThat(readBack(TEXT.getBytes(TextFiles.WINDOWS_1252))).isEqualTo(TEXT);
+    }
+
+    @Test
+    void shouldDetectEncodingFromLeadingBytes() {
+        byte[] latin = "Gain= -2.0dB é".getBytes(TextFiles.WINDOWS_1252);
+        byte[] utf16 = "Gain= -2.0dB".getBytes(StandardCharsets.UTF_16BE);
+
+        assertThat(TextFiles.detect(latin, 0, latin.length)).isEqualTo(TextFiles.WINDOWS_1252);
+        assertThat(TextFiles.detect(utf16, 0, utf16.length)).isEqualTo(StandardCharsets.UTF_16BE);
+        assertThat(TextFiles.detect(new byte[0], 0, 0)).isEqualTo(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldReadFilesLargerThanThePooledBuffer() throws IOException {
+        String large = TEXT.repeat(20_000);
+
+        assertThat(readBack(large.getBytes(TextFiles.WINDOWS_1252))).isEqualTo(large);
+        assertThat(readBack(TEXT.getBytes(StandardCharsets.UTF_8))).isEqualTo(TEXT);
+    }
+
+    private byte[] withBom(byte[] bom, Charset charset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(bom);
+        out.write(TEXT.getBytes(charset));
+        return out.toByteArray();
+    }
+
+    private String readBack(byte[] content) throws IOException {
+        Path file = tempDir.resolve("export.txt");
+        Files.write(file, content);
+        return TextFiles.read(file);
+    }
+}
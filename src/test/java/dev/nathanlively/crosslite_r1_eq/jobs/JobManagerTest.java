@@ -0,0 +1,96 @@
+package dev.nathanlively.crosslite_r1_eq.jobs;
+
+import dev.nathanlively.crosslite_r1_eq.DirectoryOptions;
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final FileConversionService conversionService = new FileConversionService(new CrossLiteParser(),
+            new EqConverter(), new R1Writer(new R1Format()), new BiquadSolver(), new BiquadDesigner());
+    private final JobManager jobManager = new JobManager(conversionService, 1);
+
+    @AfterEach
+    void tearDown() {
+        jobManager.close();
+    }
+
+    @Test
+    void shouldConvertDirectoryInBackground() throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), input.resolve("example1.txt"));
+
+        ConversionJob job = jobManager.submitDirectory(input.toString(), tempDir.resolve("out").toString(),
+                DirectoryOptions.defaults());
+        String result = job.await(Duration.ofSeconds(30));
+
+        assertThat(job.state()).isEqualTo(ConversionJob.State.SUCCEEDED);
+        assertThat(result).contains("Converted 1 file(s)");
+        assertThat(Files.exists(tempDir.resolve("out/example1.rcp"))).isTrue();
+        assertThat(jobManager.jobs()).containsExactly(job);
+    }
+
+    @Test
+    void shouldCancelRunningAndQueuedJobs() throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        String example = new String(new ClassPathResource("example4.txt").getInputStream().readAllBytes());
+        for (int i = 0; i < 200; i++) {
+            Files.writeString(input.resolve("venue" + i + ".txt"), example);
+        }
+
+        ConversionJob first = jobManager.submitDirectory(input.toString(), tempDir.resolve("a").toString(),
+                DirectoryOptions.defaults());
+        ConversionJob second = jobManager.submitDirectory(input.toString(), tempDir.resolve("b").toString(),
+                DirectoryOptions.defaults());
+        first.cancel();
+        second.cancel();
+        first.await(Duration.ofSeconds(30));
+        second.await(Duration.ofSeconds(30));
+
+        assertThat(first.state()).isEqualTo(ConversionJob.State.CANCELLED);
+        assertThat(second.state()).isEqualTo(ConversionJob.State.CANCELLED);
+        assertThat(first.progress().snapshot().files()).isLessThan(200L);
+        assertThat(second.result()).contains("before it started");
+    }
+
+    @Test
+    void shouldFinishJobCancelledWhileWaitingForAPermit() throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), input.resolve("example1.txt"));
+        Semaphore permits = new Semaphore(1);
+        permits.acquire();
+
+        try (JobManager full = new JobManager(conversionService, permits)) {
+            ConversionJob job = full.submitDirectory(input.toString(), tempDir.resolve("out").toString(),
+                    DirectoryOptions.defaults());
+            Thread.sleep(100);
+            assertThat(job.state()).isEqualTo(ConversionJob.State.QUEUED);
+
+            job.cancel();
+
+            assertThat(job.await(Duration.ofSeconds(5))).contains("before it started");
+            assertThat(job.state()).isEqualTo(ConversionJob.State.CANCELLED);
+            assertThat(permits.availablePermits()).isZero();
+            assertThat(Files.exists(tempDir.resolve("out"))).isFalse();
+        }
+    }
+}
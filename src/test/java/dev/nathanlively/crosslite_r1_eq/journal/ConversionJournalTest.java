@@ -0,0 +1,71 @@
+package dev.nathanlively.crosslite_r1_eq.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReloadRecordsAcrossWindowsOnResume() throws IOException {
+        Path file = tempDir.resolve(ConversionJournal.FILE_NAME);
+        try (ConversionJournal journal = ConversionJournal.open(file, false)) {
+            for (int i = 0; i < 40_000; i++) {
+                journal.record("venue/show_" + i + ".txt", i, 1_000L * i, 2L * i, i * 31L);
+            }
+        }
+
+        try (ConversionJournal journal = ConversionJournal.open(file, true)) {
+            assertThat(journal.completedCount()).isEqualTo(40_000);
+            assertThat(journal.isCompleted("venue/show_123.txt", 123, 123_000)).isTrue();
+            assertThat(journal.isCompleted("venue/show_123.txt", 124, 123_000)).isFalse();
+            assertThat(journal.isCompleted("venue/show_123.txt", 123, 124_000)).isFalse();
+            assertThat(journal.isCompleted("venue/show_40000.txt", 40_000, 40_000_000)).isFalse();
+            assertThat(journal.entry("venue/show_123.txt"))
+                    .isEqualTo(new ConversionJournal.Entry(123, 123_000, 246, 123 * 31L));
+        }
+    }
+
+    @Test
+    void shouldStopAtTornRecordAndAppendAfterLastGoodOne() throws IOException {
+        Path file = tempDir.resolve(ConversionJournal.FILE_NAME);
+        try (ConversionJournal journal = ConversionJournal.open(file, false)) {
+            journal.record("a.txt", 10, 0, 10, 1);
+            journal.record("b.txt", 20, 0, 20, 2);
+        }
+        long goodLength = Files.size(file);
+        // Simulate a crash in the middle of writing a third record
+        Files.write(file, new byte[]{0, 0, 0, 5, 'c', '.', 't'}, StandardOpenOption.APPEND);
+
+        try (ConversionJournal journal = ConversionJournal.open(file, true)) {
+            assertThat(journal.completedCount()).isEqualTo(2);
+            journal.record("c.txt", 30, 0, 30, 3);
+        }
+
+        try (ConversionJournal journal = ConversionJournal.open(file, true)) {
+            assertThat(journal.isCompleted("c.txt", 30, 0)).isTrue();
+        }
+        assertThat(Files.size(file)).isGreaterThanOrEqualTo(goodLength);
+    }
+
+    @Test
+    void shouldStartEmptyWithoutResume() throws IOException {
+        Path file = tempDir.resolve(ConversionJournal.FILE_NAME);
+        try (ConversionJournal journal = ConversionJournal.open(file, false)) {
+            journal.record("a.txt", 10, 0, 10, 1);
+        }
+
+        try (ConversionJournal journal = ConversionJournal.open(file, false)) {
+            assertThat(journal.completedCount()).isEqualTo(0);
+        }
+    }
+}
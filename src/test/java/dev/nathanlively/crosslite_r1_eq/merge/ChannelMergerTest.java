@@ -0,0 +1,67 @@
+package dev.nathanlively.crosslite_r1_eq.merge;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.FilterLimits;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.dsp.EqFitter;
+import dev.nathanlively.crosslite_r1_eq.dsp.ResponseCurve;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ChannelMergerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+    private final ChannelMerger merger = new ChannelMerger(
+            new FileConversionService(parser, new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner()),
+            parser, new EqFitter());
+
+    @Test
+    void shouldAverageSelectedChannelsInDecibels() throws Exception {
+        Path left = tempDir.resolve("left.txt");
+        Files.writeString(left, """
+                IIR Bypassed.ml
+                Frequency= 250.0Hz Gain= -6.0dB Qbp= 2.000
+
+                sub
+                IIR Crossover HPF: Bypassed.
+                Frequency= 60.0Hz Gain= 6.0dB Qbp= 1.000
+                """);
+        Path right = tempDir.resolve("right.txt");
+        Files.writeString(right, """
+                IIR Bypassed.mr
+                Frequency= 250.0Hz Gain= -2.0dB Qbp= 2.000
+
+                sub
+                IIR Crossover HPF: Bypassed.
+                Frequency= 60.0Hz Gain= 6.0dB Qbp= 1.000
+                """);
+
+        MergeResult result = merger.merge(List.of(left, right), Set.of("ml", "mr"), FilterLimits.R1);
+
+        assertThat(result.channels()).containsExactlyInAnyOrder("left.txt:ml", "right.txt:mr");
+        double[] left6 = ResponseCurve.magnitudeDb(List.of(new EqBand(250.0, -6.0, 2.0)));
+        double[] right2 = ResponseCurve.magnitudeDb(List.of(new EqBand(250.0, -2.0, 2.0)));
+        for (int i = 0; i < ResponseCurve.GRID_POINTS; i++) {
+            assertThat(result.averageDb()[i]).isCloseTo((left6[i] + right2[i]) / 2, within(1e-9));
+        }
+        assertThat(result.fit().rmsErrorDb()).isLessThan(0.1);
+    }
+}
@@ -0,0 +1,76 @@
+package dev.nathanlively.crosslite_r1_eq.parser;
+
+import dev.nathanlively.crosslite_r1_eq.benchmark.AdversarialInputs;
+import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inputs of several megabytes shaped to trigger quadratic scans or regex backtracking. A linear parser handles
+ * each one well within the time limit; a quadratic one would take minutes.
+ */
+class CrossLiteParserAdversarialTest {
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+
+    @Test
+    @Timeout(10)
+    void shouldParseHundredsOfThousandsOfChannelsInLinearTime() {
+        Map<String, CrossLiteSettings> channels = parse(AdversarialInputs.CHANNEL_NAMES.generate(200_000));
+
+        assertThat(channels).hasSize(200_000);
+        assertThat(channels).containsKey("Channel name 199999");
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldFindNextLineAcrossLongRunsOfEmptyLines() {
+        String content = AdversarialInputs.EMPTY_LINES.generate(500_000);
+
+        assertThat(parse(content)).isEmpty();
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldScanHugeLineWithoutNewlines() {
+        String content = AdversarialInputs.HUGE_LINE.generate(500_000);
+
+        assertThat(content.indexOf('\n')).isEqualTo(-1);
+        assertThat(parse(content)).isEmpty();
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldRecognizeMetadataAtEndOfHugeChannelName() {
+        Map<String, CrossLiteSettings> channels = parse(AdversarialInputs.METADATA_NAME.generate(1_000_000));
+
+        assertThat(channels).containsOnlyKeys("default");
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldRejectLongDigitRunsAsNumberedHeadings() {
+        String content = AdversarialInputs.DIGIT_RUNS.generate(200_000);
+
+        assertThat(parse(content)).isEmpty();
+    }
+
+    @Test
+    void shouldStillTreatMetadataNamesAsSingleChannel() {
+        String content = """
+            IIR Bypassed.L 1 Ch 1
+            Frequency= 1001.0Hz Gain= -6.0dB Qbp= 0.750
+            """;
+
+        assertThat(parse(content)).containsOnlyKeys("default");
+    }
+
+    private Map<String, CrossLiteSettings> parse(String content) {
+        return parser.parseMultiChannel(content, new ArrayList<>());
+    }
+}
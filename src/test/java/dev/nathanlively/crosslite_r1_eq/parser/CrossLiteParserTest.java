@@ -4,9 +4,12 @@ import dev.nathanlively.crosslite_r1_eq.domain.CrossLiteSettings;
 import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class CrossLiteParserTest {
 
@@ -153,4 +156,103 @@ class CrossLiteParserTest {
         assertThat(result).containsKey("default");
         assertThat(result.get("default").eqBands()).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCaptureBiquadCoefficientsPerChannel() {
+        String content = """
+        IIR Bypassed.ml
+        1) 1Parametric EQ
+        Frequency= 126.0Hz Gain= -2.0dB Qbp= 6.463
+
+        biquad1,
+        b0=0.999670160271526109,
+        b1=-1.99652097334232237,
+        b2=0.997122401624057963,
+        a1=-1.99652097334232237,
+        a2=0.996792561895584073,
+
+        c
+        IIR Crossover HPF: Bypassed.
+        1) 1Parametric EQ
+        Frequency= 818.0Hz Gain= 1.0dB Qbp= 3.688
+
+        biquad1,
+        b0=1.0,
+        """;
+
+        Map<String, CrossLiteSettings> result = parser.parseMultiChannel(content);
+
+        assertThat(result.get("ml").biquadCount()).isEqualTo(1);
+        assertThat(result.get("ml").biquads().getFirst().a2()).isEqualTo(0.996792561895584073);
+        // Incomplete blocks are dropped
+        assertThat(result.get("c").biquadCount()).isEqualTo(0);
+        // Settings are values, so parsing the same export twice gives equal settings
+        assertThat(parser.parseMultiChannel(content)).isEqualTo(result);
+    }
+
+    @Test
+    void shouldDropOnlyTheBiquadWithAMalformedCoefficient() {
+        String content = """
+        Frequency= 126.0Hz Gain= -2.0dB Qbp= 6.463
+        Frequency= 818.0Hz Gain= 1.0dB Qbp= 3.688
+
+        biquad1,
+        b0=1.0,
+        b1=0.5x,
+        b2=0.0,
+        a1=0.0,
+        a2=0.0,
+
+        biquad2,
+        b0=1.0,
+        b1=0.0,
+        b2=0.0,
+        a1=0.0,
+        a2=0.0,
+        """;
+
+        CrossLiteSettings settings = parser.parseMultiChannel(content).get("default");
+
+        assertThat(settings.eqBands()).hasSize(2);
+        assertThat(settings.biquadCount()).isEqualTo(1);
+        assertThat(settings.biquads().getFirst().number()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReportLineNumberOfMalformedBand() {
+        String content = """
+            Frequency= 1001.0Hz Gain= -6.0dB Qbp= 0.750
+            Frequency= 10.0.2Hz Gain= 4.3dB Qbp= 1.200
+            """;
+
+        CrossLiteParseException problem = assertThrows(CrossLiteParseException.class,
+                () -> parser.parseMultiChannel(content));
+
+        assertThat(problem.lineNumber()).isEqualTo(2);
+        assertThat(problem.reason()).contains("Invalid number");
+    }
+
+    @Test
+    void shouldDropOnlyTheMalformedChannelWhenCollectingProblems() {
+        String content = """
+        IIR Bypassed.ml
+        1) 1Parametric EQ
+        Frequency= 126.0Hz Gain= -2.0dB Qbp= 6.463
+
+        c
+        IIR Crossover HPF: Bypassed.
+        1) 1Parametric EQ
+        Frequency= 818.0Hz Gain= 1.0dB Qbp= 0.0
+        """;
+        List<CrossLiteParseException> problems = new ArrayList<>();
+
+        Map<String, CrossLiteSettings> result = parser.parseMultiChannel(content, problems);
+
+        assertThat(result).containsKeys("ml");
+        assertThat(result).hasSize(1);
+        assertThat(problems).hasSize(1);
+        assertThat(problems.getFirst().lineNumber()).isEqualTo(8);
+        assertThat(problems.getFirst().channel()).isEqualTo("c");
+        assertThat(problems.getFirst().reason()).contains("Q factor must be positive");
+    }
+}
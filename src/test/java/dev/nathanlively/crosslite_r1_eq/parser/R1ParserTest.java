@@ -0,0 +1,51 @@
+package dev.nathanlively.crosslite_r1_eq.parser;
+
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
+import dev.nathanlively.crosslite_r1_eq.domain.R1Settings;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class R1ParserTest {
+
+    private final R1Parser parser = new R1Parser();
+
+    @Test
+    void shouldReadWhatTheWriterWrites() {
+        List<R1Filter> filters = new ArrayList<>();
+        filters.add(R1Filter.enabled(250.5, 4.0, -5.5));
+        filters.add(R1Filter.enabled(12000.0, 0.7, 3.0));
+        while (filters.size() < R1Settings.MAX_FILTERS) {
+            filters.add(R1Filter.disabled());
+        }
+        String xml = new R1Writer(new R1Format()).writeToXml(new R1Settings(filters));
+
+        assertThat(parser.parse(xml)).isEqualTo(new R1Settings(filters));
+        assertThat(parser.parseBands(xml)).containsExactly(new EqBand(250.5, -5.5, 4.0), new EqBand(12000.0, 3.0, 0.7));
+    }
+
+    @Test
+    void shouldReadExamplePreset() throws Exception {
+        String xml = new String(new ClassPathResource("example1.rcp").getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+
+        assertThat(parser.parseBands(xml)).containsExactly(new EqBand(1001.0, -6.0, 0.75));
+    }
+
+    @Test
+    void shouldRejectIncompletePreset() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> parser.parse("<R1EQSETTINGS_20><EQ><F_1>100</F_1></EQ></R1EQSETTINGS_20>"));
+
+        assertThat(error.getMessage()).contains("<Q_1>");
+    }
+}
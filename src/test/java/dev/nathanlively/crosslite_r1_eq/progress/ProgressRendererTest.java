@@ -0,0 +1,76 @@
+package dev.nathanlively.crosslite_r1_eq.progress;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressRendererTest {
+
+    @Test
+    void shouldCountConcurrentUpdatesWithoutLosingAny() throws InterruptedException {
+        ConversionProgress progress = new ConversionProgress();
+        progress.start(8_000, 8_000_000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    progress.fileCompleted(1_000, 3);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        ConversionProgress.Snapshot snapshot = progress.snapshot();
+        assertThat(snapshot.files()).isEqualTo(8_000L);
+        assertThat(snapshot.channels()).isEqualTo(24_000L);
+        assertThat(snapshot.etaSeconds()).isEqualTo(0L);
+    }
+
+    @Test
+    void shouldFormatRateAndEta() {
+        ConversionProgress.Snapshot snapshot = new ConversionProgress.Snapshot(
+                25, 100, 200, 2 * 1_048_576L, 8 * 1_048_576L, 1, 1_000_000_000L);
+
+        assertThat(ProgressRenderer.format(snapshot))
+                .isEqualTo("Files 25/100 | Channels 200 | 2.0 MB/s | ETA 0:03 | Failed 1");
+    }
+
+    @Test
+    void shouldDrawFinalLineOnClose() {
+        ConversionProgress progress = new ConversionProgress();
+        progress.start(1, 10);
+        StringWriter out = new StringWriter();
+
+        try (ProgressRenderer ignored = new ProgressRenderer(progress, new PrintWriter(out), () -> 80,
+                Duration.ofSeconds(10))) {
+            progress.fileCompleted(10, 4);
+        }
+
+        assertThat(out.toString()).contains("Files 1/1 | Channels 4");
+    }
+
+    @Test
+    void shouldPrintPlainLinesWithoutControlCharactersWhenNotInteractive() {
+        ConversionProgress progress = new ConversionProgress();
+        progress.start(2, 20);
+        StringWriter out = new StringWriter();
+
+        try (ProgressRenderer ignored = new ProgressRenderer(progress, new PrintWriter(out), () -> 80,
+                Duration.ofSeconds(10), false)) {
+            progress.fileCompleted(10, 4);
+            progress.fileCompleted(10, 4);
+        }
+
+        assertThat(out.toString()).doesNotContain("\r", "\u001B");
+        assertThat(out.toString().lines().toList()).hasSize(1);
+        assertThat(out.toString()).startsWith("Files 2/2 | Channels 8 |");
+    }
+}
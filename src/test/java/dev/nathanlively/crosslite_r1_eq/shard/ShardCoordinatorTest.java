@@ -0,0 +1,113 @@
+package dev.nathanlively.crosslite_r1_eq.shard;
+
+import dev.nathanlively.crosslite_r1_eq.DirectoryOptions;
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.benchmark.CorpusGenerator;
+import dev.nathanlively.crosslite_r1_eq.benchmark.CorpusSpec;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.journal.ConversionJournal;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.progress.ConversionProgress;
+import dev.nathanlively.crosslite_r1_eq.report.ConversionReport;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardCoordinatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final FileConversionService service = new FileConversionService(
+            new CrossLiteParser(), new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner());
+    private final ShardCoordinator coordinator = new ShardCoordinator(new DefaultApplicationArguments());
+    private Path input;
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        input = tempDir.resolve("archive");
+        output = tempDir.resolve("converted");
+        new CorpusGenerator().generate(new CorpusSpec(30, 1, 1, 4, false, false, 0, 5), input);
+    }
+
+    @Test
+    void shouldConvertEveryFileOnceAcrossShardsAndMergeTheirResults() throws Exception {
+        int converted = 0;
+        for (int index = 1; index <= 3; index++) {
+            DirectoryOptions options = new DirectoryOptions(false, true, new Shard(index, 3));
+            converted += service.convertDirectory(input, output, List.of(new R1Format()),
+                    new ConversionProgress(), options).convertedFiles();
+        }
+
+        List<String> failed = new ArrayList<>();
+        ConversionReport merged = coordinator.merge(output, 3, new DirectoryOptions(false, true), failed);
+
+        assertThat(converted).isEqualTo(30);
+        assertThat(failed).isEmpty();
+        assertThat(merged.convertedFiles()).isEqualTo(30);
+        assertThat(Files.exists(output.resolve(ConversionReport.ERRORS_FILE_NAME))).isTrue();
+        assertThat(Files.exists(output.resolve(new Shard(2, 3).fileName(ConversionReport.ERRORS_FILE_NAME)))).isFalse();
+        try (ConversionJournal journal = ConversionJournal.open(output.resolve(ConversionJournal.FILE_NAME), true)) {
+            assertThat(journal.completedCount()).isEqualTo(30);
+        }
+        // An unsharded resume finds everything done
+        ConversionReport resumed = service.convertDirectory(input, output, List.of(new R1Format()),
+                new ConversionProgress(), new DirectoryOptions(true, false));
+        assertThat(resumed.skippedFiles()).isEqualTo(30);
+    }
+
+    @Test
+    void shouldReportShardsThatDidNotFinish() throws Exception {
+        int converted = 0;
+        for (int index = 1; index <= 2; index++) {
+            converted += service.convertDirectory(input, output, List.of(new R1Format()),
+                    new ConversionProgress(), new DirectoryOptions(false, false, new Shard(index, 3))).convertedFiles();
+        }
+
+        List<String> failed = new ArrayList<>();
+        ConversionReport merged = coordinator.merge(output, 3, new DirectoryOptions(false, false), failed);
+
+        assertThat(failed).containsExactly("3/3");
+        assertThat(merged.convertedFiles()).isEqualTo(converted);
+        assertThat(converted).isLessThan(30);
+        assertThat(Files.exists(output.resolve(ConversionReport.ERRORS_FILE_NAME))).isFalse();
+    }
+
+    @Test
+    void shouldStartWorkersWithTheSameJvmOptionsAndSpringProperties() {
+        ShardCoordinator launched = new ShardCoordinator(new DefaultApplicationArguments(
+                "--crosslite-r1-eq.sample-rate=96000", "convert-directory", "-i", "archive", "--workers", "4"));
+        Path script = tempDir.resolve("worker.script");
+
+        List<String> command = launched.workerLaunch(script);
+
+        List<String> jvmOptions = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(option -> !option.startsWith("-agentlib:jdwp"))
+                .toList();
+        assertThat(command).containsAll(jvmOptions);
+        assertThat(command).endsWith("@" + script.toAbsolutePath(), "--crosslite-r1-eq.sample-rate=96000");
+        // The shell command is what the script replaces
+        assertThat(command).doesNotContain("convert-directory", "--workers");
+    }
+
+    @Test
+    void shouldEscapeQuotesInPaths() {
+        assertThat(ShardCoordinator.quote(Path.of("/archive/12\" venue")))
+                .isEqualTo("\"/archive/12\\\" venue\"");
+    }
+}
@@ -0,0 +1,42 @@
+package dev.nathanlively.crosslite_r1_eq.shard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardTest {
+
+    @Test
+    void shouldAssignEveryPathToExactlyOneShard() {
+        int[] counts = new int[4];
+        for (int file = 0; file < 1000; file++) {
+            String path = "venue" + file % 7 + "/tuning_" + file + ".txt";
+            int owners = 0;
+            for (int index = 1; index <= 4; index++) {
+                if (new Shard(index, 4).contains(path)) {
+                    counts[index - 1]++;
+                    owners++;
+                }
+            }
+            assertThat(owners).isEqualTo(1);
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(200, 300);
+        }
+    }
+
+    @Test
+    void shouldParseAndNameShardFiles() {
+        Shard shard = Shard.parse("2/8");
+
+        assertThat(shard).isEqualTo(new Shard(2, 8));
+        assertThat(shard.fileName("conversion-errors.json")).isEqualTo("conversion-errors.shard-2-of-8.json");
+        assertThat(shard.fileName(".crosslite-r1-eq.journal")).isEqualTo(".crosslite-r1-eq.shard-2-of-8.journal");
+        assertThat(Shard.all().fileName("conversion-errors.json")).isEqualTo("conversion-errors.json");
+        assertThat(Shard.all().contains("anything.txt")).isTrue();
+        assertThatThrownBy(() -> Shard.parse("0/4")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Shard.parse("3/2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Shard.parse("half")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
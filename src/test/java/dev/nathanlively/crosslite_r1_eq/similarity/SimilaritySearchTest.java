@@ -0,0 +1,55 @@
+package dev.nathanlively.crosslite_r1_eq.similarity;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilaritySearchTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CrossLiteParser parser = new CrossLiteParser();
+    private final SimilaritySearch search = new SimilaritySearch(
+            new FileConversionService(parser, new EqConverter(), new R1Writer(new R1Format()),
+                    new BiquadSolver(), new BiquadDesigner()), parser);
+
+    @Test
+    void shouldRankChannelsByResponseDistance() throws Exception {
+        Path archive = Files.createDirectories(tempDir.resolve("archive"));
+        write(archive.resolve("exact.txt"), 250.0, -5.0, 4.0);
+        write(archive.resolve("close.txt"), 260.0, -5.0, 4.0);
+        write(archive.resolve("far.txt"), 4000.0, 6.0, 1.0);
+        Files.createDirectories(archive.resolve("older"));
+        write(archive.resolve("older/shifted.txt"), 400.0, -5.0, 4.0);
+        Path target = archive.resolve("target.txt");
+        write(target, 250.0, -5.0, 4.0);
+
+        SimilarityResult result = search.find(List.of(new EqBand(250.0, -5.0, 4.0)), archive, target, 3, 2);
+
+        assertThat(result.filesScanned()).isEqualTo(4L);
+        assertThat(result.channelsScanned()).isEqualTo(4L);
+        assertThat(result.matches().stream().map(SimilarChannel::file).toList())
+                .containsExactly("exact.txt", "close.txt", "older/shifted.txt");
+        assertThat((double) result.matches().getFirst().distance()).isLessThan(1e-4);
+    }
+
+    private static void write(Path file, double frequency, double gain, double q) throws Exception {
+        Files.writeString(file, String.format(Locale.ROOT,
+                "Frequency= %.1fHz Gain= %.1fdB Qbp= %.3f%n", frequency, gain, q));
+    }
+}
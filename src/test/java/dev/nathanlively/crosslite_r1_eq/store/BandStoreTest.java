@@ -0,0 +1,139 @@
+package dev.nathanlively.crosslite_r1_eq.store;
+
+import dev.nathanlively.crosslite_r1_eq.FileConversionService;
+import dev.nathanlively.crosslite_r1_eq.converter.EqConverter;
+import dev.nathanlively.crosslite_r1_eq.domain.EqBand;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadDesigner;
+import dev.nathanlively.crosslite_r1_eq.dsp.BiquadSolver;
+import dev.nathanlively.crosslite_r1_eq.index.BandHit;
+import dev.nathanlively.crosslite_r1_eq.index.BandQuery;
+import dev.nathanlively.crosslite_r1_eq.parser.CrossLiteParser;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Format;
+import dev.nathanlively.crosslite_r1_eq.writer.R1Writer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BandStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRoundTripBandsAndNames() throws Exception {
+        Path path = tempDir.resolve("bands.store");
+        try (BandStore.Writer writer = new BandStore.Writer(path)) {
+            writer.addChannel("a.txt", "Main L", List.of(new EqBand(250, -5, 4), new EqBand(1000, -6, 0.75)));
+            writer.addChannel("a.txt", "Sub", List.of());
+            writer.addChannel("dir/b.txt", "Fill ü", List.of(new EqBand(399, -4.5, 3.5)));
+            writer.finish();
+        }
+
+        try (BandStore store = BandStore.open(path)) {
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(store.channelCount()).isEqualTo(3);
+            assertThat(store.search(BandQuery.any(), 10)).containsExactly(
+                    new BandHit("a.txt", "Main L", 1, 250, -5, 4),
+                    new BandHit("a.txt", "Main L", 2, 1000, -6, 0.75),
+                    new BandHit("dir/b.txt", "Fill ü", 1, 399, -4.5, 3.5));
+            assertThat(store.channel(1)).isEqualTo("Sub");
+            assertThat(Files.list(tempDir).toList()).containsExactly(path);
+        }
+    }
+
+    @Test
+    void shouldCountAndScanLikeABruteForceFilter() throws Exception {
+        Random random = new Random(11);
+        List<EqBand> bands = new ArrayList<>();
+        Path path = tempDir.resolve("bands.store");
+        try (BandStore.Writer writer = new BandStore.Writer(path)) {
+            // Enough channels that the records and names both span several write buffers
+            for (int channel = 0; channel < 20_000; channel++) {
+                List<EqBand> channelBands = new ArrayList<>();
+                for (int band = 0; band < 10; band++) {
+                    channelBands.add(new EqBand(20 + random.nextDouble() * 19_980, -random.nextDouble() * 12,
+                            0.5 + random.nextDouble() * 8));
+                }
+                writer.addChannel("file" + channel / 4 + ".txt", "ch" + channel, channelBands);
+                bands.addAll(channelBands);
+            }
+            writer.finish();
+        }
+        BandQuery query = new BandQuery(200, 400, Double.NEGATIVE_INFINITY, -4, 3, Double.POSITIVE_INFINITY);
+        long expected = bands.stream().filter(band -> band.frequency() >= 200 && band.frequency() <= 400
+                                                      && band.gain() <= -4 && band.qFactor() >= 3).count();
+
+        try (BandStore store = BandStore.open(path)) {
+            long[] scanned = new long[1];
+            store.scan(query, (row, channelId, bandNumber, frequency, gain, qFactor) -> {
+                assertThat(frequency).isEqualTo(bands.get((int) row).frequency());
+                assertThat(channelId).isEqualTo((int) (row / 10));
+                scanned[0]++;
+            });
+
+            assertThat(store.size()).isEqualTo(bands.size());
+            assertThat(store.count(query)).isEqualTo(expected);
+            assertThat(scanned[0]).isEqualTo(expected);
+            assertThat(store.file(19_999)).isEqualTo("file4999.txt");
+            assertThat(store.channel(19_999)).isEqualTo("ch19999");
+        }
+    }
+
+    @Test
+    void shouldBuildFromArchiveAndRejectReadsAfterClose() throws Exception {
+        Path archive = Files.createDirectory(tempDir.resolve("archive"));
+        Files.copy(new ClassPathResource("example1.txt").getInputStream(), archive.resolve("example1.txt"));
+        Files.copy(new ClassPathResource("example4.txt").getInputStream(), archive.resolve("example4.txt"));
+        CrossLiteParser parser = new CrossLiteParser();
+        BandStoreBuilder builder = new BandStoreBuilder(
+                new FileConversionService(parser, new EqConverter(), new R1Writer(new R1Format()),
+                        new BiquadSolver(), new BiquadDesigner()), parser);
+        Path path = tempDir.resolve("bands.store");
+
+        BandStoreBuilder.Build build = builder.build(archive, path);
+        BandStore store = BandStore.open(path);
+
+        assertThat(build.files()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(build.bands());
+        assertThat(store.channelCount()).isEqualTo(build.channels());
+        assertThat(store.search(BandQuery.any(), 1))
+                .containsExactly(new BandHit("example1.txt", "default", 1, 1001, -6, 0.75));
+        store.close();
+        assertThatThrownBy(() -> store.frequency(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldKeepThePreviousStoreWhenABuildIsNotFinished() throws Exception {
+        Path path = tempDir.resolve("bands.store");
+        try (BandStore.Writer writer = new BandStore.Writer(path)) {
+            writer.addChannel("a.txt", "Main L", List.of(new EqBand(250, -5, 4)));
+            writer.finish();
+        }
+
+        try (BandStore.Writer writer = new BandStore.Writer(path)) {
+            writer.addChannel("b.txt", "Sub", List.of(new EqBand(80, 3, 1), new EqBand(120, -2, 2)));
+            // Closed without finishing, as when the build fails
+        }
+
+        try (BandStore store = BandStore.open(path)) {
+            assertThat(store.search(BandQuery.any(), 10)).containsExactly(new BandHit("a.txt", "Main L", 1, 250, -5, 4));
+        }
+        assertThat(Files.list(tempDir).toList()).containsExactly(path);
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotStores() throws Exception {
+        Path path = Files.writeString(tempDir.resolve("bands.store"), "Frequency= 250.0Hz Gain= -5.0dB Qbp= 4.000\n");
+
+        assertThatThrownBy(() -> BandStore.open(path)).hasMessageContaining("Not a band store");
+    }
+}
@@ -0,0 +1,74 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTemplateTest {
+
+    @Test
+    void shouldFillSlotsBetweenStaticSegments() {
+        CompiledTemplate template = CompiledTemplate.compile("<F_{n}>{v}</F_{n}>", List.of("n", "v"));
+        ByteOutput out = new ByteOutput(8);
+
+        template.render(out, (slot, target) -> {
+            if (slot == 0) {
+                target.writeLong(12);
+            } else {
+                target.writeFixed(1001.0, 6);
+            }
+        });
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("<F_12>1001.000000</F_12>");
+    }
+
+    @Test
+    void shouldTreatDoubledBracesAsLiterals() {
+        CompiledTemplate template = CompiledTemplate.compile("{{\"n\":{n}}}", List.of("n"));
+        ByteOutput out = new ByteOutput(8);
+
+        template.render(out, (slot, target) -> target.writeLong(7));
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{\"n\":7}");
+    }
+
+    @Test
+    void shouldRejectUnknownPlaceholder() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("<F>{missing}</F>", List.of("n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing");
+    }
+
+    @Test
+    void shouldFormatFixedDecimalsLikeStringFormat() {
+        double[] values = {
+                0.0, -0.0, 0.15, 0.35, 1.0005, 2.675, 1.0000005, 0.0000005, -0.0000004, 1.2345675,
+                100.0000015, 1188.1, 19999.95, -18.0, 12.0, 0.1, 25.0, 123456789.123456789, 1e20, Double.NaN
+        };
+        for (double value : values) {
+            assertFixed(value, 6);
+            assertFixed(value, 1);
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(8));
+            assertFixed(value, 6);
+            // Values with few decimals hit the half-way cases
+            assertFixed(Math.round(value * 10_000_000) / 10_000_000.0, 6);
+        }
+    }
+
+    private static void assertFixed(double value, int decimals) {
+        ByteOutput out = new ByteOutput(4);
+        out.writeFixed(value, decimals);
+        String expected = String.format(Locale.ROOT, "%." + decimals + "f", value);
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+    }
+}
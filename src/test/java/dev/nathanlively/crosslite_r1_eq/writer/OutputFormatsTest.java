@@ -0,0 +1,43 @@
+package dev.nathanlively.crosslite_r1_eq.writer;
+
+import dev.nathanlively.crosslite_r1_eq.domain.R1Filter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OutputFormatsTest {
+
+    private final OutputFormats formats = new OutputFormats(List.of(new R1Format(), new JsonFormat(), new CsvFormat()));
+    private final List<R1Filter> filters = List.of(R1Filter.enabled(1001.0, 0.75, -6.0), R1Filter.disabled());
+
+    @Test
+    void shouldLookUpFormatsByName() {
+        assertThat(formats.names()).containsExactly("r1", "json", "csv");
+        assertThat(formats.get("JSON").extension()).isEqualTo(".json");
+        assertThrows(IllegalArgumentException.class, () -> formats.get("xml"));
+    }
+
+    @Test
+    void shouldWriteFiltersAsJson() {
+        String json = new String(formats.get("json").render(filters), StandardCharsets.UTF_8);
+
+        assertThat(json).isEqualTo("{\"filters\":["
+                + "{\"number\":1,\"frequency\":1001.000000,\"q\":0.750000,\"gain\":-6.000000,\"enabled\":true},"
+                + "{\"number\":2,\"frequency\":1000.000000,\"q\":0.700000,\"gain\":0.000000,\"enabled\":false}]}");
+    }
+
+    @Test
+    void shouldWriteFiltersAsCsvRows() {
+        String csv = new String(formats.get("csv").render(filters), StandardCharsets.UTF_8);
+
+        assertThat(csv).isEqualTo("""
+                filter,frequency,q,gain,enabled
+                1,1001.000000,0.750000,-6.000000,1
+                2,1000.000000,0.700000,0.000000,0
+                """);
+    }
+}
@@ -11,7 +11,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class R1WriterTest {
 
-    private final R1Writer writer = new R1Writer();
+    private final R1Writer writer = new R1Writer(new R1Format());
 
     @Test
     void shouldWriteBasicXmlStructure() {